@@ -8,6 +8,9 @@ public class CFResourceDescriptors {
   public static final String PROPERTY_RESOURCE_URI = CF_SERVICE + "/resources/properties";
   public static final String CHANNEL_RESOURCE_URI = CF_SERVICE + "/resources/channels";
   public static final String SCROLL_RESOURCE_URI = CF_SERVICE + "/resources/scroll";
+  public static final String EXPORT_RESOURCE_URI = CF_SERVICE + "/resources/export";
+  public static final String ASYNC_SEARCH_RESOURCE_URI = CHANNEL_RESOURCE_URI + "/_async_search";
+  public static final String CHANNEL_TASK_RESOURCE_URI = CF_SERVICE + "/resources/tasks";
   public static final String CHANNEL_PROCESSOR_RESOURCE_URI = CF_SERVICE + "/resources/processors";
 
   public static final String SEARCH_PARAM_DESCRIPTION =
@@ -16,5 +19,9 @@ public class CFResourceDescriptors {
           + "- ~tag: Filter by tag name, use ! to negate (e.g., ~tag=active)\n"
           + "- ~size: Number of results (e.g., ~size=100)\n"
           + "- ~from: Starting index (e.g., ~from=0)\n"
+          + "- ~sort: Sort by name, owner or property values (e.g., ~sort=cell:desc,name)\n"
+          + "- ~search_after: Cursor of the previous page to continue after\n"
+          + "- ~fields: Return only these fields or properties (e.g., ~fields=name,location)\n"
+          + "- ~exclude: Omit these fields or properties (e.g., ~exclude=tags)\n"
           + "Use |,; as value separators";
 }
@@ -0,0 +1,65 @@
+package org.phoebus.channelfinder.common;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.util.MultiValueMap;
+
+/** Utility class to assist in handling of channel search parameters. */
+public class SearchParamUtil {
+
+  private static final String SORT = "~sort";
+
+  /**
+   * Create a canonical string form of the given search parameters. Keys and values are trimmed and
+   * sorted, so that parameter maps which describe the same query produce the same string regardless
+   * of the order in which the client sent them. The values of {@code ~sort} keep their order, which
+   * is the order of the sort keys.
+   *
+   * @param searchParameters channel search parameters
+   * @return canonical form of the search parameters
+   */
+  public static String normalize(MultiValueMap<String, String> searchParameters) {
+    if (searchParameters == null || searchParameters.isEmpty()) {
+      return "";
+    }
+    Map<String, List<String>> sorted = new TreeMap<>();
+    for (Map.Entry<String, List<String>> parameter : searchParameters.entrySet()) {
+      String key = parameter.getKey().trim();
+      boolean ordered = SORT.equals(key);
+      Stream<String> values =
+          parameter.getValue() == null
+              ? Stream.empty()
+              : parameter.getValue().stream().map(value -> value == null ? "" : value.trim());
+      sorted.merge(
+          key,
+          (ordered ? values : values.sorted()).toList(),
+          (a, b) -> {
+            Stream<String> merged = Stream.concat(a.stream(), b.stream());
+            return (ordered ? merged : merged.sorted()).toList();
+          });
+    }
+    return sorted.entrySet().stream()
+        .map(
+            entry ->
+                encode(entry.getKey())
+                    + "="
+                    + entry.getValue().stream()
+                        .map(SearchParamUtil::encode)
+                        .collect(Collectors.joining(",")))
+        .collect(Collectors.joining("&"));
+  }
+
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+
+  /** This class is not to be instantiated. */
+  private SearchParamUtil() {
+    throw new IllegalStateException("Utility class");
+  }
+}
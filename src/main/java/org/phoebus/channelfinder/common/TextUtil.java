@@ -19,6 +19,25 @@ public class TextUtil {
 
   public static final String COUNT_FAILED_CAUSE = "Count failed for {0} Cause {1}";
   public static final String SEARCH_FAILED_CAUSE = "Search failed for {0} Cause {1}";
+  public static final String ASYNC_SEARCH_FAILED = "Async search {0} failed Cause {1}";
+  public static final String CHANNEL_TASK_FAILED = "Channel task {0} failed Cause {1}";
+  public static final String CHANNEL_TASK_COMPLETED =
+      "Channel task {0} done, updated {1} of {2} channels, {3} skipped";
+  public static final String CHANNEL_TASK_RERUN =
+      "Channel task {0} skipped {1} channels modified meanwhile, run {2} again for them";
+  public static final String CHANNEL_TASK_CONFLICTS =
+      "{0} channels were modified while the task ran and not updated, after {1} reruns";
+  public static final String SEARCH_REJECTED_COST =
+      "Search {0} rejected, its estimated cost {1} exceeds the limit of {2}";
+  public static final String SEARCH_REJECTED_BUSY =
+      "Search {0} rejected, too many concurrent {1} searches, retry later";
+  public static final String SEARCH_SORT_INVALID = "Invalid sort {0}, expected field[:asc|:desc]";
+  public static final String SEARCH_AFTER_INVALID =
+      "Invalid search_after {0}, it does not match the sort of the search";
+  public static final String CONSISTENCY_TOKEN_INVALID = "Invalid consistency token {0}";
+  public static final String REFRESH_FAILED = "Failed to refresh index {0}";
+  public static final String MULTI_SEARCH_TOO_MANY_SEARCHES =
+      "Multi search of {0} searches exceeds the limit of {1} searches";
   public static final String PAYLOAD_PROPERTY_DOES_NOT_MATCH_URI_OR_HAS_BAD_VALUE =
       "The payload property {0} does not match uri name or has a bad value";
 
@@ -55,6 +74,14 @@ public class TextUtil {
 
   public static final String FAILED_TO_INDEX_CHANNEL = "Failed to index channel {0}";
   public static final String FAILED_TO_INDEX_CHANNELS = "Failed to index channels {0}";
+  public static final String FAILED_TO_REPLACE_CHANNELS = "Failed to create or replace channels";
+  public static final String CHANNELS_NOT_WRITTEN =
+      "Failed to create or replace {0} of {1} channels, the others were written: {2}";
+  public static final String CHANNEL_VERSION_CONFLICT =
+      "Channel {0} was created or modified concurrently";
+  public static final String TAG_VERSION_CONFLICT = "Tag {0} was modified concurrently";
+  public static final String PROPERTY_VERSION_CONFLICT = "Property {0} was modified concurrently";
+  public static final String RETRY_ON_VERSION_CONFLICT = "Retry {0} after version conflict: {1}";
   public static final String FAILED_TO_FIND_CHANNEL = "Failed to find channel {0}";
   public static final String FAILED_TO_FIND_ALL_CHANNELS = "Failed to find all channels";
   public static final String FAILED_TO_CHECK_IF_CHANNEL_EXISTS =
@@ -90,6 +117,8 @@ public class TextUtil {
   public static final String FAILED_TO_CHECK_IF_PROPERTY_EXISTS =
       "Failed to check if property exists {0}";
   public static final String FAILED_TO_DELETE_PROPERTY = "Failed to delete property {0}";
+  public static final String FAILED_TO_RESTORE_PROPERTY =
+      "Failed to restore property {0} after its removal from the channels failed to start";
 
   public static final String USER_NOT_AUTHORIZED_ON_PROPERTY =
       "User does not have the proper authorization to perform an operation on this property {0}";
@@ -114,11 +143,15 @@ public class TextUtil {
   public static final String FAILED_TO_FIND_ALL_TAGS = "Failed to find all tags";
   public static final String FAILED_TO_CHECK_IF_TAG_EXISTS = "Failed to check if tag exists {0}";
   public static final String FAILED_TO_DELETE_TAG = "Failed to delete tag {0}";
+  public static final String FAILED_TO_RESTORE_TAG =
+      "Failed to restore tag {0} after its removal from the channels failed to start";
 
   public static final String USER_NOT_AUTHORIZED_ON_TAG =
       "User does not have the proper authorization to perform an operation on this tag {0}";
   public static final String USER_NOT_AUTHORIZED_ON_TAGS =
       "User does not have the proper authorization to perform an operation on these tags {0}";
+  public static final String USER_NOT_AUTHORIZED_ON_CHANNEL_TASK =
+      "User does not have the proper authorization to cancel the channel task {0}";
 
   /** This class is not to be instantiated. */
   private TextUtil() {
@@ -0,0 +1,39 @@
+package org.phoebus.channelfinder.common;
+
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+
+/** Utility class to parse the {@code ~wait} parameter of requests waiting for background work. */
+public class WaitParamUtil {
+
+  public static final String WAIT_PARAMETER = "~wait";
+
+  /**
+   * Parse a requested {@code ~wait} into an Elasticsearch time value.
+   *
+   * @param requested requested wait in seconds, null or blank for the default
+   * @param defaultSeconds wait if none was requested
+   * @param maxSeconds upper bound of the wait, kept below the socket timeout of the client
+   * @return the wait in seconds, e.g. {@code 10s}
+   * @throws ChannelValidationException if the requested wait is not a non-negative number
+   */
+  public static String waitFor(String requested, int defaultSeconds, int maxSeconds) {
+    int seconds = defaultSeconds;
+    if (requested != null && !requested.isBlank()) {
+      try {
+        seconds = Integer.parseInt(requested.trim());
+      } catch (NumberFormatException e) {
+        seconds = -1;
+      }
+      if (seconds < 0) {
+        throw new ChannelValidationException(
+            "Invalid " + WAIT_PARAMETER + " " + requested + ", expected a number of seconds");
+      }
+    }
+    return Math.min(seconds, maxSeconds) + "s";
+  }
+
+  /** This class is not to be instantiated. */
+  private WaitParamUtil() {
+    throw new IllegalStateException("Utility class");
+  }
+}
@@ -0,0 +1,46 @@
+package org.phoebus.channelfinder.configuration;
+
+import org.phoebus.channelfinder.repository.IndexChangeTracker;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.phoebus.channelfinder.web.v0.ConditionalGetInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the ETag / If-None-Match support of the read endpoints, each with the indices its
+ * responses are built from. Tag and property responses may list channels, so they also depend on
+ * the channel index.
+ *
+ * <p>The index versions only count the writes made through this instance, so it is off unless
+ * {@code etag.enabled} declares this instance the single writer of the indices.
+ *
+ * <p>Async searches and scrolls are not covered: their responses depend on server side state that
+ * expires independently of the index versions.
+ */
+@Configuration
+@ConditionalOnProperty(name = "etag.enabled", havingValue = "true")
+public class ConditionalGetConfig implements WebMvcConfigurer {
+
+  @Autowired IndexChangeTracker changeTracker;
+
+  @Autowired LegacyApiProperties legacyApiProperties;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    String resources = "/" + legacyApiProperties.getServiceRoot() + "/resources";
+    registry
+        .addInterceptor(new ConditionalGetInterceptor(changeTracker, Index.CHANNEL))
+        .addPathPatterns(resources + "/channels", resources + "/channels/**")
+        .addPathPatterns(resources + "/export", resources + "/export/**")
+        .excludePathPatterns(resources + "/channels/_async_search/**");
+    registry
+        .addInterceptor(new ConditionalGetInterceptor(changeTracker, Index.TAG, Index.CHANNEL))
+        .addPathPatterns(resources + "/tags", resources + "/tags/**");
+    registry
+        .addInterceptor(new ConditionalGetInterceptor(changeTracker, Index.PROPERTY, Index.CHANNEL))
+        .addPathPatterns(resources + "/properties", resources + "/properties/**");
+  }
+}
@@ -0,0 +1,28 @@
+package org.phoebus.channelfinder.configuration;
+
+import org.phoebus.channelfinder.web.v0.ConsistencyTokenAdvice;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the consistency token support of the legacy API. It runs before the conditional GET
+ * support, so that the ETag of a read that waited for a write covers that write.
+ */
+@Configuration
+public class ConsistencyTokenConfig implements WebMvcConfigurer {
+
+  @Autowired ConsistencyTokenAdvice consistencyTokenAdvice;
+
+  @Autowired LegacyApiProperties legacyApiProperties;
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    registry
+        .addInterceptor(consistencyTokenAdvice)
+        .addPathPatterns("/" + legacyApiProperties.getServiceRoot() + "/resources/**")
+        .order(Ordered.HIGHEST_PRECEDENCE);
+  }
+}
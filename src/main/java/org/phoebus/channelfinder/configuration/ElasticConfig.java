@@ -19,6 +19,8 @@ import co.elastic.clients.elasticsearch.indices.ExistsRequest;
 import co.elastic.clients.elasticsearch.indices.IndexSettings;
 import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
 import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.PutMappingRequest;
+import co.elastic.clients.elasticsearch.indices.PutMappingResponse;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import co.elastic.clients.transport.ElasticsearchTransport;
 import co.elastic.clients.transport.endpoints.BooleanResponse;
@@ -30,7 +32,9 @@ import jakarta.servlet.ServletContextListener;
 import java.io.IOException;
 import java.io.InputStream;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.apache.http.Header;
@@ -43,6 +47,7 @@ import org.apache.http.message.BasicHeader;
 import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestClientBuilder;
 import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
 import org.springframework.beans.factory.annotation.Value;
@@ -99,6 +104,40 @@ public class ElasticConfig implements ServletContextListener {
   @Value("${elasticsearch.query.size:10000}")
   private int ES_QUERY_SIZE;
 
+  // the optional channel name subfields are only mapped when the queries using them are enabled
+  @Value("${repository.query.name_reversed_subfield:false}")
+  private boolean nameReversedSubfield;
+
+  @Value("${repository.query.name_wildcard_subfield:false}")
+  private boolean nameWildcardSubfield;
+
+  @Value("${elasticsearch.search.preference:}")
+  private String ES_SEARCH_PREFERENCE;
+
+  @Value("${elasticsearch.search_client.max_connections:30}")
+  private int searchMaxConnections;
+
+  @Value("${elasticsearch.search_client.max_connections_per_route:10}")
+  private int searchMaxConnectionsPerRoute;
+
+  @Value("${elasticsearch.search_client.connect_timeout_ms:1000}")
+  private int searchConnectTimeout;
+
+  @Value("${elasticsearch.search_client.socket_timeout_ms:30000}")
+  private int searchSocketTimeout;
+
+  @Value("${elasticsearch.index_client.max_connections:30}")
+  private int indexMaxConnections;
+
+  @Value("${elasticsearch.index_client.max_connections_per_route:10}")
+  private int indexMaxConnectionsPerRoute;
+
+  @Value("${elasticsearch.index_client.connect_timeout_ms:1000}")
+  private int indexConnectTimeout;
+
+  @Value("${elasticsearch.index_client.socket_timeout_ms:30000}")
+  private int indexSocketTimeout;
+
   public String getES_TAG_INDEX() {
     return this.ES_TAG_INDEX;
   }
@@ -119,21 +158,43 @@ public class ElasticConfig implements ServletContextListener {
     return ES_QUERY_SIZE;
   }
 
+  /**
+   * @return the shard copy preference of read requests, e.g. {@code _local} or a session key, or
+   *     {@code null} to let Elasticsearch balance reads across all copies
+   */
+  public String getES_SEARCH_PREFERENCE() {
+    return ES_SEARCH_PREFERENCE == null || ES_SEARCH_PREFERENCE.isBlank()
+        ? null
+        : ES_SEARCH_PREFERENCE.trim();
+  }
+
   ObjectMapper objectMapper =
       new ObjectMapper()
+          .addMixIn(Channel.class, Channel.IndexedChannel.class)
           .addMixIn(Tag.class, Tag.OnlyTag.class)
           .addMixIn(Property.class, Property.OnlyProperty.class);
 
+  /** Connection pool and timeouts of one of the Elasticsearch clients. */
+  private record ClientSettings(
+      int maxConnections, int maxConnectionsPerRoute, int connectTimeout, int socketTimeout) {}
+
   private static ElasticsearchClient createClient(
       ElasticsearchClient currentClient,
       ObjectMapper objectMapper,
       HttpHost[] httpHosts,
       String createIndices,
+      ClientSettings settings,
       ElasticConfig config) {
     ElasticsearchClient client;
     if (currentClient == null) {
       // Create the low-level client
       RestClientBuilder clientBuilder = RestClient.builder(httpHosts);
+      clientBuilder.setRequestConfigCallback(
+          requestConfigBuilder ->
+              requestConfigBuilder
+                  .setConnectTimeout(settings.connectTimeout())
+                  .setSocketTimeout(settings.socketTimeout()));
+      CredentialsProvider credentialsProvider = null;
       // Configure authentication
       if (!config.authorizationHeader.isEmpty()) {
         clientBuilder.setDefaultHeaders(
@@ -143,13 +204,21 @@ public class ElasticConfig implements ServletContextListener {
               "elasticsearch.authorization_header is set, ignoring elasticsearch.username and elasticsearch.password.");
         }
       } else if (!config.username.isEmpty() || !config.password.isEmpty()) {
-        final CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+        credentialsProvider = new BasicCredentialsProvider();
         credentialsProvider.setCredentials(
             AuthScope.ANY, new UsernamePasswordCredentials(config.username, config.password));
-        clientBuilder.setHttpClientConfigCallback(
-            httpClientBuilder ->
-                httpClientBuilder.setDefaultCredentialsProvider(credentialsProvider));
       }
+      final CredentialsProvider clientCredentialsProvider = credentialsProvider;
+      clientBuilder.setHttpClientConfigCallback(
+          httpClientBuilder -> {
+            httpClientBuilder
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnectionsPerRoute());
+            if (clientCredentialsProvider != null) {
+              httpClientBuilder.setDefaultCredentialsProvider(clientCredentialsProvider);
+            }
+            return httpClientBuilder;
+          });
       RestClient httpClient = clientBuilder.build();
 
       // Create the Java API Client with the same low level client
@@ -190,13 +259,35 @@ public class ElasticConfig implements ServletContextListener {
 
   @Bean({"searchClient"})
   public ElasticsearchClient getSearchClient() {
-    searchClient = createClient(searchClient, objectMapper, getHttpHosts(), createIndices, this);
+    searchClient =
+        createClient(
+            searchClient,
+            objectMapper,
+            getHttpHosts(),
+            createIndices,
+            new ClientSettings(
+                searchMaxConnections,
+                searchMaxConnectionsPerRoute,
+                searchConnectTimeout,
+                searchSocketTimeout),
+            this);
     return searchClient;
   }
 
   @Bean({"indexClient"})
   public ElasticsearchClient getIndexClient() {
-    indexClient = createClient(indexClient, objectMapper, getHttpHosts(), createIndices, this);
+    indexClient =
+        createClient(
+            indexClient,
+            objectMapper,
+            getHttpHosts(),
+            createIndices,
+            new ClientSettings(
+                indexMaxConnections,
+                indexMaxConnectionsPerRoute,
+                indexConnectTimeout,
+                indexSocketTimeout),
+            this);
     return indexClient;
   }
 
@@ -218,12 +309,20 @@ public class ElasticConfig implements ServletContextListener {
    * @param client client connected to elasticsearch
    */
   public void elasticIndexValidation(ElasticsearchClient client) {
-    validateIndex(client, ES_CHANNEL_INDEX, "/channel_mapping.json");
-    validateIndex(client, ES_TAG_INDEX, "/tag_mapping.json");
-    validateIndex(client, ES_PROPERTY_INDEX, "/properties_mapping.json");
+    List<String> channelSubfields = new ArrayList<>();
+    if (nameReversedSubfield) {
+      channelSubfields.add("/channel_name_reversed_mapping.json");
+    }
+    if (nameWildcardSubfield) {
+      channelSubfields.add("/channel_name_wildcard_mapping.json");
+    }
+    validateIndex(client, ES_CHANNEL_INDEX, "/channel_mapping.json", channelSubfields);
+    validateIndex(client, ES_TAG_INDEX, "/tag_mapping.json", List.of());
+    validateIndex(client, ES_PROPERTY_INDEX, "/properties_mapping.json", List.of());
   }
 
-  private void validateIndex(ElasticsearchClient client, String esIndex, String mapping) {
+  private void validateIndex(
+      ElasticsearchClient client, String esIndex, String mapping, List<String> extraMappings) {
 
     // ChannelFinder Index
     try (InputStream is = ElasticConfig.class.getResourceAsStream(mapping)) {
@@ -233,20 +332,17 @@ public class ElasticConfig implements ServletContextListener {
             client
                 .indices()
                 .create(
-                    CreateIndexRequest.of(
-                        c ->
-                            c.index(esIndex)
-                                .withJson(is)
-                                .settings(
-                                    IndexSettings.of(
-                                        builder ->
-                                            builder.maxResultWindow(
-                                                getES_MAX_RESULT_WINDOW_SIZE())))));
+                    // the mapping may carry its own index settings (e.g. normalizers), the max
+                    // result window is applied by the settings update below
+                    CreateIndexRequest.of(c -> c.index(esIndex).withJson(is)));
         logger.log(
             Level.INFO,
             () ->
                 MessageFormat.format(
                     TextUtil.CREATED_INDEX_ACKNOWLEDGED, esIndex, result.acknowledged()));
+        for (String extraMapping : extraMappings) {
+          putMapping(client, esIndex, extraMapping);
+        }
       }
       PutIndicesSettingsResponse response =
           client
@@ -268,4 +364,17 @@ public class ElasticConfig implements ServletContextListener {
       logger.log(Level.WARNING, MessageFormat.format(TextUtil.FAILED_TO_CREATE_INDEX, esIndex), e);
     }
   }
+
+  private void putMapping(ElasticsearchClient client, String esIndex, String mapping)
+      throws IOException {
+    try (InputStream is = ElasticConfig.class.getResourceAsStream(mapping)) {
+      PutMappingResponse response =
+          client.indices().putMapping(PutMappingRequest.of(p -> p.index(esIndex).withJson(is)));
+      logger.log(
+          Level.INFO,
+          () ->
+              MessageFormat.format(
+                  TextUtil.UPDATE_INDEX_ACKNOWLEDGED, esIndex, response.acknowledged()));
+    }
+  }
 }
@@ -4,11 +4,13 @@ import static org.springframework.security.config.Customizer.withDefaults;
 
 import java.util.List;
 import org.apache.commons.lang3.ArrayUtils;
+import org.phoebus.channelfinder.web.v0.ConsistencyTokenAdvice;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -38,14 +40,24 @@ public class WebSecurityConfig {
   private List<String> corsAllowedOrigins;
 
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public SecurityFilterChain filterChain(HttpSecurity http, LegacyApiProperties legacyApiProperties)
+      throws Exception {
+    String channels = "/" + legacyApiProperties.getServiceRoot() + "/resources/channels";
     // CSRF disabled: application is a stateless REST API using HTTP Basic auth.
     // No session or cookie-based authentication is used, so CSRF attacks are not applicable.
     return http.csrf(csrf -> csrf.disable())
         .cors(cors -> cors.configurationSource(corsConfigurationSource()))
         .sessionManagement(
             session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-        .authorizeHttpRequests(auth -> auth.anyRequest().authenticated())
+        .authorizeHttpRequests(
+            auth ->
+                auth
+                    // searches sent as POST are reads, anonymous like the GET ones
+                    .requestMatchers(
+                        HttpMethod.POST, channels + "/_msearch", channels + "/_async_search")
+                    .permitAll()
+                    .anyRequest()
+                    .authenticated())
         .httpBasic(withDefaults())
         .build();
   }
@@ -63,6 +75,8 @@ public class WebSecurityConfig {
             HttpMethod.PATCH.name(),
             HttpMethod.OPTIONS.name()));
     config.setAllowedHeaders(List.of("*"));
+    // let browser clients read the headers of conditional GETs and read-your-writes
+    config.setExposedHeaders(List.of(HttpHeaders.ETAG, ConsistencyTokenAdvice.HEADER));
     UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
     source.registerCorsConfiguration("/**", config);
     return source;
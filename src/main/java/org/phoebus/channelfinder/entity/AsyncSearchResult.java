@@ -0,0 +1,12 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * State and result of an asynchronous channel search.
+ *
+ * @param id id to poll or delete the async search with
+ * @param running true while the search is still running
+ * @param partial true if the result is not final, because the search is running or failed on some
+ *     shards
+ * @param result the channels found so far and their count
+ */
+public record AsyncSearchResult(String id, boolean running, boolean partial, SearchResult result) {}
@@ -5,8 +5,11 @@ package org.phoebus.channelfinder.entity;
  * Materialien und Energie GmbH %% Copyright (C) 2010 - 2012 Brookhaven National Laboratory All
  * rights reserved. Use is subject to license terms. #L%
  */
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 /**
@@ -19,6 +22,8 @@ public class Channel {
   private String owner;
   private List<Property> properties = new ArrayList<>();
   private List<Tag> tags = new ArrayList<>();
+  private Long seqNo;
+  private Long primaryTerm;
 
   /** Creates a new instance of Channel */
   public Channel() {}
@@ -108,6 +113,68 @@ public class Channel {
     this.tags = tags;
   }
 
+  /**
+   * Sequence number of the indexed document this channel was read from, null if it was not read
+   * from the channel index. Not part of the document itself.
+   *
+   * @return the sequence number
+   */
+  @JsonIgnore
+  public Long getSeqNo() {
+    return seqNo;
+  }
+
+  /**
+   * Primary term of the indexed document this channel was read from, null if it was not read from
+   * the channel index. Not part of the document itself.
+   *
+   * @return the primary term
+   */
+  @JsonIgnore
+  public Long getPrimaryTerm() {
+    return primaryTerm;
+  }
+
+  /**
+   * Set the version of the indexed document this channel was read from, a write of the channel with
+   * a version only succeeds if the document was not modified since.
+   *
+   * @param seqNo - sequence number of the document
+   * @param primaryTerm - primary term of the document
+   */
+  public void setSeqNoAndPrimaryTerm(Long seqNo, Long primaryTerm) {
+    this.seqNo = seqNo;
+    this.primaryTerm = primaryTerm;
+  }
+
+  /**
+   * Flattened, lowercased {@code name=value} pairs of the channel properties, e.g. {@code
+   * cell=c001}. Derived from the properties, only written to the channel index, see {@link
+   * IndexedChannel}.
+   *
+   * @return the property name/value pairs
+   */
+  @JsonIgnore
+  public List<String> getPropertyKeyValues() {
+    if (properties == null) {
+      return List.of();
+    }
+    return properties.stream()
+        .filter(p -> p.getName() != null && p.getValue() != null)
+        .map(p -> propertyKeyValue(p.getName(), p.getValue()))
+        .distinct()
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * @param name property name
+   * @param value property value, or value prefix
+   * @return the entry of {@link #getPropertyKeyValues()} for the given property
+   */
+  public static String propertyKeyValue(String name, String value) {
+    return (name + "=" + value).toLowerCase(Locale.ROOT);
+  }
+
   /**
    * Add the given tag to the list of tags associated with this channel If the tag already exists
    * then it is replaced with <code>tag</code>
@@ -238,4 +305,14 @@ public class Channel {
     } else if (!tags.equals(other.tags)) return false;
     return true;
   }
+
+  /**
+   * A filter to be used with the jackson mapper to write the derived property name/value pairs as
+   * the {@code propkv} field of the channel index, and to skip the field when reading it back
+   */
+  public abstract static class IndexedChannel {
+    @JsonIgnore(false)
+    @JsonProperty(value = "propkv", access = JsonProperty.Access.READ_ONLY)
+    public abstract List<String> getPropertyKeyValues();
+  }
 }
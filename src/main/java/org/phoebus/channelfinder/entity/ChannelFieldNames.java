@@ -0,0 +1,11 @@
+package org.phoebus.channelfinder.entity;
+
+import java.util.List;
+
+/**
+ * Names of the properties and tags set on the channels matching a search.
+ *
+ * @param properties property names, sorted
+ * @param tags tag names, sorted
+ */
+public record ChannelFieldNames(List<String> properties, List<String> tags) {}
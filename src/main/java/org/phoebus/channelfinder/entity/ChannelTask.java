@@ -0,0 +1,46 @@
+package org.phoebus.channelfinder.entity;
+
+import java.util.List;
+
+/**
+ * State and progress of a background update of the channels, such as the removal of a deleted tag
+ * or property from all channels or its rename.
+ *
+ * @param id id to poll or cancel the task with
+ * @param subject whether the task updates a tag or a property of the channels
+ * @param completed true once the task updated all channels
+ * @param failed true if the task finished, but failed to update some channels, e.g. because they
+ *     were modified again and again while it ran
+ * @param cancelled true if the task was cancelled
+ * @param total number of channels the task has to update
+ * @param processed number of channels processed so far, updated, unchanged or skipped
+ * @param updated number of channels updated so far
+ * @param versionConflicts number of channels skipped by the latest run of the task because they
+ *     were modified while it ran, updated by another run unless the task is done
+ * @param failures reasons of the failed updates, if any
+ */
+public record ChannelTask(
+    String id,
+    Subject subject,
+    boolean completed,
+    boolean failed,
+    boolean cancelled,
+    long total,
+    long processed,
+    long updated,
+    long versionConflicts,
+    List<String> failures) {
+
+  /**
+   * @return true once the task completed, failed or was cancelled
+   */
+  public boolean done() {
+    return completed || failed || cancelled;
+  }
+
+  /** What a task updates in the channels. */
+  public enum Subject {
+    TAG,
+    PROPERTY
+  }
+}
@@ -0,0 +1,19 @@
+package org.phoebus.channelfinder.entity;
+
+/**
+ * Outcome of the write of a single channel of a batch.
+ *
+ * @param channel the channel that was written
+ * @param status http status of the write, 200 or 201 on success, 409 if the channel was modified or
+ *     created concurrently
+ * @param error reason of the failed write, null on success
+ */
+public record ChannelWriteStatus(Channel channel, int status, String error) {
+
+  /**
+   * @return true if the channel was written
+   */
+  public boolean succeeded() {
+    return error == null;
+  }
+}
@@ -1,5 +1,39 @@
 package org.phoebus.channelfinder.entity;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
-public record SearchResult(List<Channel> channels, long count) {}
+/**
+ * A page of channel search results.
+ *
+ * @param channels channels of the page
+ * @param count number of channels of the page, or the total number of matches if tracked
+ * @param cursor opaque position after the last channel to pass as {@code ~search_after} for the
+ *     next page, {@code null} if the page is the last one
+ */
+public record SearchResult(List<Channel> channels, long count, String cursor) {
+
+  public SearchResult(List<Channel> channels, long count) {
+    this(channels, count, null);
+  }
+
+  /**
+   * @return a copy of this result with copies of its channels, their properties and tags, for
+   *     results handed out to more than one caller
+   */
+  public SearchResult copy() {
+    return new SearchResult(channels.stream().map(SearchResult::copyOf).toList(), count, cursor);
+  }
+
+  private static Channel copyOf(Channel channel) {
+    return new Channel(
+        channel.getName(),
+        channel.getOwner(),
+        channel.getProperties().stream()
+            .map(p -> new Property(p.getName(), p.getOwner(), p.getValue()))
+            .collect(Collectors.toList()),
+        channel.getTags().stream()
+            .map(t -> new Tag(t.getName(), t.getOwner()))
+            .collect(Collectors.toList()));
+  }
+}
@@ -34,6 +34,8 @@ public class Tag {
   }
 
   private List<Channel> channels = new ArrayList<>();
+  private Long seqNo;
+  private Long primaryTerm;
 
   /** Creates a new instance of Tag. */
   public Tag() {}
@@ -112,6 +114,40 @@ public class Tag {
     this.channels = channels;
   }
 
+  /**
+   * Sequence number of the indexed document this tag was read from, null if it was not read from
+   * the tag index.
+   *
+   * @return the sequence number
+   */
+  @JsonIgnore
+  public Long getSeqNo() {
+    return seqNo;
+  }
+
+  /**
+   * Primary term of the indexed document this tag was read from, null if it was not read from the
+   * tag index.
+   *
+   * @return the primary term
+   */
+  @JsonIgnore
+  public Long getPrimaryTerm() {
+    return primaryTerm;
+  }
+
+  /**
+   * Set the version of the indexed document this tag was read from, a write of the tag with a
+   * version only succeeds if the document was not modified since.
+   *
+   * @param seqNo - sequence number of the document
+   * @param primaryTerm - primary term of the document
+   */
+  public void setSeqNoAndPrimaryTerm(Long seqNo, Long primaryTerm) {
+    this.seqNo = seqNo;
+    this.primaryTerm = primaryTerm;
+  }
+
   /**
    * Creates a compact string representation for the log.
    *
@@ -0,0 +1,8 @@
+package org.phoebus.channelfinder.exceptions;
+
+public class AsyncSearchNotFoundException extends RuntimeException {
+
+  public AsyncSearchNotFoundException(String id) {
+    super("Async search not found: " + id);
+  }
+}
@@ -0,0 +1,8 @@
+package org.phoebus.channelfinder.exceptions;
+
+public class ChannelTaskNotFoundException extends RuntimeException {
+
+  public ChannelTaskNotFoundException(String id) {
+    super("Channel task not found: " + id);
+  }
+}
@@ -0,0 +1,19 @@
+package org.phoebus.channelfinder.exceptions;
+
+/** A search was rejected because the service is busy, it may be retried later. */
+public class SearchRejectedException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  public SearchRejectedException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * @return seconds after which a retry may be admitted
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,9 @@
+package org.phoebus.channelfinder.exceptions;
+
+/** A search was rejected because its estimated cost exceeds the limit, retrying it cannot help. */
+public class SearchTooExpensiveException extends RuntimeException {
+
+  public SearchTooExpensiveException(String message) {
+    super(message);
+  }
+}
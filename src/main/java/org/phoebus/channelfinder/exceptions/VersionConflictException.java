@@ -0,0 +1,13 @@
+package org.phoebus.channelfinder.exceptions;
+
+/** A conditional write failed because the document was modified since it was read. */
+public class VersionConflictException extends RepositoryException {
+
+  public VersionConflictException(String message) {
+    super(message);
+  }
+
+  public VersionConflictException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,145 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch.core.search.SourceConfig;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.phoebus.channelfinder.entity.Channel;
+
+/**
+ * Field projection of a channel search, built from the {@code ~fields} and {@code ~exclude} search
+ * parameters.
+ *
+ * <p>Values naming a channel field ({@code name}, {@code owner}, {@code properties}, {@code tags})
+ * or a path below properties or tags, e.g. {@code properties.value}, are sent to Elasticsearch as
+ * {@code _source} includes and excludes, so unrequested fields are neither transferred nor
+ * deserialized. The channel name is always included once any field is requested.
+ *
+ * <p>Any other value is taken as a property name: {@code ~fields=location} returns the channel
+ * names with only their {@code location} property, {@code ~exclude=location} drops that property.
+ * Nested properties cannot be selected by name in {@code _source}, so property names are applied to
+ * the fetched channels.
+ */
+final class ChannelProjection {
+
+  static final ChannelProjection NONE =
+      new ChannelProjection(List.of(), List.of(), Set.of(), Set.of());
+
+  private static final String NAME = "name";
+  private static final String PROPERTIES = "properties";
+  private static final Set<String> CHANNEL_FIELDS = Set.of(NAME, "owner", PROPERTIES, "tags");
+
+  private final List<String> includes;
+  private final List<String> excludes;
+  private final Set<String> includedProperties;
+  private final Set<String> excludedProperties;
+
+  private ChannelProjection(
+      List<String> includes,
+      List<String> excludes,
+      Set<String> includedProperties,
+      Set<String> excludedProperties) {
+    this.includes = includes;
+    this.excludes = excludes;
+    this.includedProperties = includedProperties;
+    this.excludedProperties = excludedProperties;
+  }
+
+  /**
+   * Build the projection for the given field names.
+   *
+   * @param fields values of {@code ~fields}, split into single field or property names
+   * @param excludedFields values of {@code ~exclude}, split into single field or property names
+   * @return the projection, {@link #NONE} if no names were given
+   */
+  static ChannelProjection of(Collection<String> fields, Collection<String> excludedFields) {
+    List<String> includes = new ArrayList<>();
+    Set<String> includedProperties = new HashSet<>();
+    split(fields, includes, includedProperties);
+    List<String> excludes = new ArrayList<>();
+    Set<String> excludedProperties = new HashSet<>();
+    split(excludedFields, excludes, excludedProperties);
+
+    if (!includedProperties.isEmpty() && !includes.contains(PROPERTIES)) {
+      includes.add(PROPERTIES);
+    }
+    if (!includes.isEmpty() && !includes.contains(NAME)) {
+      includes.add(NAME);
+    }
+    if (includes.isEmpty()
+        && excludes.isEmpty()
+        && includedProperties.isEmpty()
+        && excludedProperties.isEmpty()) {
+      return NONE;
+    }
+    return new ChannelProjection(
+        List.copyOf(includes),
+        List.copyOf(excludes),
+        Set.copyOf(includedProperties),
+        Set.copyOf(excludedProperties));
+  }
+
+  private static void split(
+      Collection<String> values, List<String> paths, Set<String> propertyNames) {
+    for (String value : values) {
+      String field = value.trim();
+      if (field.isEmpty()) {
+        continue;
+      }
+      if (isChannelField(field)) {
+        if (!paths.contains(field)) {
+          paths.add(field);
+        }
+      } else {
+        propertyNames.add(field.toLowerCase(Locale.ROOT));
+      }
+    }
+  }
+
+  private static boolean isChannelField(String field) {
+    return CHANNEL_FIELDS.contains(field)
+        || field.startsWith(PROPERTIES + ".")
+        || field.startsWith("tags.");
+  }
+
+  /**
+   * @return the {@code _source} filter to send with the search, empty to fetch the whole source
+   */
+  Optional<SourceConfig> sourceConfig() {
+    if (includes.isEmpty() && excludes.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        SourceConfig.of(s -> s.filter(f -> f.includes(includes).excludes(excludes))));
+  }
+
+  /**
+   * Apply the property name selection to a fetched channel.
+   *
+   * @param channel channel as returned by Elasticsearch
+   * @return the same channel, with unrequested properties removed
+   */
+  Channel apply(Channel channel) {
+    if (channel == null || (includedProperties.isEmpty() && excludedProperties.isEmpty())) {
+      return channel;
+    }
+    channel.setProperties(
+        channel.getProperties().stream()
+            .filter(property -> isSelected(property.getName()))
+            .collect(Collectors.toList()));
+    return channel;
+  }
+
+  private boolean isSelected(String propertyName) {
+    String name = propertyName == null ? null : propertyName.toLowerCase(Locale.ROOT);
+    if (!includedProperties.isEmpty() && (name == null || !includedProperties.contains(name))) {
+      return false;
+    }
+    return name == null || !excludedProperties.contains(name);
+  }
+}
@@ -0,0 +1,211 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.ExistsQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.PrefixQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.WildcardQuery;
+import java.util.Locale;
+import java.util.Optional;
+import org.phoebus.channelfinder.entity.Channel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compiles a single channel search pattern into the cheapest Elasticsearch query that matches it.
+ *
+ * <p>Search patterns use the wildcard syntax of Elasticsearch ({@code *}, {@code ?} and {@code \}
+ * as escape character) and match case-insensitively. Rather than sending every pattern as a
+ * case-insensitive wildcard query, the compiler picks:
+ *
+ * <ul>
+ *   <li>an exists query for a bare {@code *}
+ *   <li>a term query for patterns without wildcards
+ *   <li>a prefix query for patterns whose only wildcard is a trailing {@code *}
+ *   <li>a wildcard query for everything else
+ * </ul>
+ *
+ * <p>With {@code repository.query.lowercase_subfields} enabled, term, prefix and wildcard queries
+ * target the {@code .lowercase} keyword subfields defined in channel_mapping.json, so no
+ * case-insensitive automaton has to be built. It is off by default, falling back to
+ * case-insensitive wildcard queries on the plain fields, since indices created before these
+ * subfields existed must be reindexed first.
+ *
+ * <p>Channel names additionally have a {@code .reversed} subfield, holding the lowercased name
+ * reversed, and a {@code .wildcard} subfield of the n-gram backed wildcard type. Neither a prefix
+ * nor a keyword wildcard query can use the term dictionary for a leading {@code *}, so with {@code
+ * repository.query.name_reversed_subfield} enabled suffix patterns such as {@code *}T:1-RB} become
+ * a prefix query on the reversed name, and with {@code repository.query.name_wildcard_subfield}
+ * enabled the remaining wildcard patterns, such as infixes {@code *C001-MG*}, run against the
+ * wildcard subfield. Both are off by default: the subfields cost index size and are only mapped
+ * when the channel index is created with the matching flag enabled.
+ *
+ * <p>Likewise, with {@code repository.query.propkv} enabled, property filters with an exact name
+ * and an exact or prefix value become a term or prefix query on the flattened {@code propkv} field
+ * instead of a nested query, see {@link #compileProperty(String, String)}.
+ */
+@Component
+public class ChannelQueryCompiler {
+
+  static final String LOWERCASE_SUBFIELD = ".lowercase";
+  static final String REVERSED_SUBFIELD = ".reversed";
+  static final String WILDCARD_SUBFIELD = ".wildcard";
+
+  private static final String NAME_FIELD = "name";
+  private static final String PROPKV_FIELD = "propkv";
+
+  private final boolean lowercaseSubfields;
+  private final boolean nameReversedSubfield;
+  private final boolean nameWildcardSubfield;
+  private final boolean propertyKeyValues;
+
+  public ChannelQueryCompiler(
+      @Value("${repository.query.lowercase_subfields:false}") boolean lowercaseSubfields,
+      @Value("${repository.query.name_reversed_subfield:false}") boolean nameReversedSubfield,
+      @Value("${repository.query.name_wildcard_subfield:false}") boolean nameWildcardSubfield,
+      @Value("${repository.query.propkv:false}") boolean propertyKeyValues) {
+    this.lowercaseSubfields = lowercaseSubfields;
+    this.nameReversedSubfield = nameReversedSubfield;
+    this.nameWildcardSubfield = nameWildcardSubfield;
+    this.propertyKeyValues = propertyKeyValues;
+  }
+
+  /**
+   * Compile the given pattern for the given field.
+   *
+   * @param field name of the keyword field, e.g. {@code name} or {@code properties.value}
+   * @param pattern search pattern
+   * @return query matching the pattern
+   */
+  public Query compile(String field, String pattern) {
+    if (!lowercaseSubfields) {
+      return WildcardQuery.of(w -> w.field(field).caseInsensitive(true).value(pattern))._toQuery();
+    }
+    Pattern parsed = Pattern.parse(pattern);
+    String lowercaseField = field + LOWERCASE_SUBFIELD;
+    boolean name = NAME_FIELD.equals(field);
+    switch (parsed.kind()) {
+      case MATCH_ALL:
+        return ExistsQuery.of(e -> e.field(field))._toQuery();
+      case EXACT:
+        return TermQuery.of(t -> t.field(lowercaseField).value(lowercase(parsed.literal())))
+            ._toQuery();
+      case PREFIX:
+        return PrefixQuery.of(p -> p.field(lowercaseField).value(lowercase(parsed.literal())))
+            ._toQuery();
+      case SUFFIX:
+        if (name && nameReversedSubfield) {
+          String reversed = new StringBuilder(lowercase(parsed.literal())).reverse().toString();
+          return PrefixQuery.of(p -> p.field(field + REVERSED_SUBFIELD).value(reversed))._toQuery();
+        }
+        return wildcard(field, pattern, name);
+      default:
+        return wildcard(field, pattern, name);
+    }
+  }
+
+  /**
+   * Compile a property filter into a query on the flattened {@code propkv} field of the channel,
+   * which holds the lowercased {@code name=value} pairs of its properties.
+   *
+   * @param name property name pattern
+   * @param valuePattern property value pattern
+   * @return term or prefix query on {@code propkv}, or empty if the filter needs a nested query on
+   *     the properties, i.e. the name has wildcards or the value is neither an exact nor a prefix
+   *     pattern
+   */
+  public Optional<Query> compileProperty(String name, String valuePattern) {
+    if (!propertyKeyValues) {
+      return Optional.empty();
+    }
+    Pattern parsedName = Pattern.parse(name);
+    // a '=' in the name would make the pair ambiguous
+    if (parsedName.kind() != Kind.EXACT || parsedName.literal().indexOf('=') >= 0) {
+      return Optional.empty();
+    }
+    Pattern parsedValue = Pattern.parse(valuePattern);
+    if (parsedValue.literal() == null || parsedValue.kind() == Kind.SUFFIX) {
+      return Optional.empty();
+    }
+    String pair = Channel.propertyKeyValue(parsedName.literal(), parsedValue.literal());
+    if (parsedValue.kind() == Kind.EXACT) {
+      return Optional.of(TermQuery.of(t -> t.field(PROPKV_FIELD).value(pair))._toQuery());
+    }
+    // prefix, or a bare * matching any value of the property
+    return Optional.of(PrefixQuery.of(p -> p.field(PROPKV_FIELD).value(pair))._toQuery());
+  }
+
+  private Query wildcard(String field, String pattern, boolean name) {
+    if (name && nameWildcardSubfield) {
+      // the wildcard field type has no normalizer, it matches case-insensitively at query time
+      return WildcardQuery.of(
+              w -> w.field(field + WILDCARD_SUBFIELD).caseInsensitive(true).value(pattern))
+          ._toQuery();
+    }
+    return WildcardQuery.of(w -> w.field(field + LOWERCASE_SUBFIELD).value(lowercase(pattern)))
+        ._toQuery();
+  }
+
+  private static String lowercase(String value) {
+    return value.toLowerCase(Locale.ROOT);
+  }
+
+  enum Kind {
+    MATCH_ALL,
+    EXACT,
+    PREFIX,
+    SUFFIX,
+    WILDCARD
+  }
+
+  /**
+   * Result of scanning a search pattern.
+   *
+   * @param kind cheapest kind of query for the pattern
+   * @param literal the unescaped pattern text for {@link Kind#EXACT}, the unescaped text before the
+   *     trailing {@code *} for {@link Kind#PREFIX}, or after the leading {@code *} for {@link
+   *     Kind#SUFFIX}
+   */
+  record Pattern(Kind kind, String literal) {
+
+    static Pattern parse(String pattern) {
+      StringBuilder literal = new StringBuilder();
+      int leadingStars = 0;
+      while (leadingStars < pattern.length() && pattern.charAt(leadingStars) == '*') {
+        leadingStars++;
+      }
+      int trailingStars = 0;
+      boolean innerWildcard = false;
+      for (int i = leadingStars; i < pattern.length(); i++) {
+        char c = pattern.charAt(i);
+        if (c == '*') {
+          trailingStars++;
+          continue;
+        }
+        if (trailingStars > 0 || c == '?') {
+          innerWildcard = true;
+        }
+        trailingStars = 0;
+        if (c == '\\' && i + 1 < pattern.length()) {
+          c = pattern.charAt(++i);
+        }
+        literal.append(c);
+      }
+      if (innerWildcard) {
+        return new Pattern(Kind.WILDCARD, null);
+      }
+      if (leadingStars > 0 && !literal.isEmpty()) {
+        return trailingStars == 0
+            ? new Pattern(Kind.SUFFIX, literal.toString())
+            : new Pattern(Kind.WILDCARD, null);
+      }
+      if (trailingStars == 0 && leadingStars == 0) {
+        return new Pattern(Kind.EXACT, literal.toString());
+      }
+      if (literal.isEmpty()) {
+        return new Pattern(Kind.MATCH_ALL, "");
+      }
+      return new Pattern(Kind.PREFIX, literal.toString());
+    }
+  }
+}
@@ -4,15 +4,22 @@ import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.FieldSort;
 import co.elastic.clients.elasticsearch._types.FieldValue;
-import co.elastic.clients.elasticsearch._types.Refresh;
 import co.elastic.clients.elasticsearch._types.Result;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch._types.ScriptLanguage;
+import co.elastic.clients.elasticsearch._types.SlicedScroll;
 import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.DisMaxQuery;
-import co.elastic.clients.elasticsearch._types.query_dsl.IdsQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.NestedQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
-import co.elastic.clients.elasticsearch._types.query_dsl.WildcardQuery;
+import co.elastic.clients.elasticsearch.async_search.AsyncSearchDocumentResponseBase;
+import co.elastic.clients.elasticsearch.async_search.GetAsyncSearchResponse;
+import co.elastic.clients.elasticsearch.async_search.SubmitRequest;
+import co.elastic.clients.elasticsearch.async_search.SubmitResponse;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
 import co.elastic.clients.elasticsearch.core.CountRequest;
@@ -22,12 +29,25 @@ import co.elastic.clients.elasticsearch.core.ExistsRequest;
 import co.elastic.clients.elasticsearch.core.GetResponse;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.UpdateRequest;
+import co.elastic.clients.elasticsearch.core.UpdateResponse;
 import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.mget.MultiGetResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultisearchBody;
 import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.HitsMetadata;
+import co.elastic.clients.elasticsearch.indices.GetIndicesSettingsResponse;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.IndexState;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.util.NamedValue;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.annotation.PreDestroy;
 import java.io.IOException;
@@ -35,18 +55,24 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -54,13 +80,19 @@ import java.util.stream.StreamSupport;
 import org.phoebus.channelfinder.common.TextUtil;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
 import org.phoebus.channelfinder.configuration.LegacyApiProperties;
+import org.phoebus.channelfinder.entity.AsyncSearchResult;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelFieldNames;
+import org.phoebus.channelfinder.entity.ChannelWriteStatus;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Scroll;
 import org.phoebus.channelfinder.entity.SearchResult;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.exceptions.ChannelValidationException;
 import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.phoebus.channelfinder.repository.IndexRefresher.Operation;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.repository.CrudRepository;
@@ -75,30 +107,127 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
 
   private static final Logger logger = Logger.getLogger(ChannelRepository.class.getName());
 
+  // aggregation names of fieldNames
+  private static final String PROPERTIES = "properties";
+  private static final String TAGS = "tags";
+  private static final String NAMES = "names";
+  private static final String OWNER = "owner";
+
+  /**
+   * Painless statements recomputing the property key values of {@link
+   * Channel#getPropertyKeyValues()} after the properties of a channel were changed by a script.
+   */
+  static final String UPDATE_PROPERTY_KEY_VALUES =
+      """
+      List propkv = new ArrayList();
+      for (Map p : ctx._source.properties) {
+        if (p.name != null && p.value != null) {
+          String kv = (p.name + '=' + p.value).toLowerCase(Locale.ROOT);
+          if (!propkv.contains(kv)) {
+            propkv.add(kv);
+          }
+        }
+      }
+      ctx._source.propkv = propkv;
+      """;
+
+  /**
+   * Merges params.tags and params.properties into the channel like {@link Channel#addTags} and
+   * {@link Channel#addProperties} and sets a non null params.owner. Leaves unchanged channels
+   * untouched.
+   */
+  private static final String ATTACH_SCRIPT =
+      """
+      boolean changed = false;
+      if (params.owner != null && params.owner != ctx._source.owner) {
+        ctx._source.owner = params.owner;
+        changed = true;
+      }
+      for (String field : ['tags', 'properties']) {
+        List current = ctx._source[field] == null ? new ArrayList() : ctx._source[field];
+        for (Map entry : params[field]) {
+          if (!current.contains(entry)) {
+            String name = entry.name;
+            current.removeIf(e -> e.name == name);
+            current.add(entry);
+            changed = true;
+          }
+        }
+        ctx._source[field] = current;
+      }
+      if (!changed) {
+        ctx.op = 'noop';
+        return;
+      }
+      """
+          + UPDATE_PROPERTY_KEY_VALUES;
+
   private final ElasticConfig esService;
+  // writes go through the index client, reads through the search client with its own pool
   private final ElasticsearchClient client;
+  private final ElasticsearchClient searchClient;
+  private final ChannelSearchCache searchCache;
+  private final ChannelQueryCompiler queryCompiler;
+  private final SearchAdmissionControl admissionControl;
+  private final IndexRefresher indexRefresher;
+  private final DeepPageCheckpoints deepPageCheckpoints;
   private final String scrollResourceUri;
 
   @Value("${repository.chunk.size:10000}")
   private int chunkSize;
 
+  @Value("${repository.query.filter_context:true}")
+  private boolean filterContext;
+
+  @Value("${repository.msearch.max_searches:1000}")
+  private int maxMultiSearches;
+
+  @Value("${repository.stream.page_size:1000}")
+  private int streamPageSize;
+
+  @Value("${repository.scroll.keep_alive:1m}")
+  private String scrollKeepAlive;
+
+  @Value("${repository.field_names.size:10000}")
+  private int maxFieldNames;
+
   public ChannelRepository(
       ElasticConfig esService,
       @Qualifier("indexClient") ElasticsearchClient client,
+      @Qualifier("searchClient") ElasticsearchClient searchClient,
+      ChannelSearchCache searchCache,
+      ChannelQueryCompiler queryCompiler,
+      SearchAdmissionControl admissionControl,
+      IndexChangeTracker changeTracker,
+      IndexRefresher indexRefresher,
+      DeepPageCheckpoints deepPageCheckpoints,
       LegacyApiProperties legacyApiProperties) {
     this.esService = esService;
     this.client = client;
+    this.searchClient = searchClient;
+    this.searchCache = searchCache;
+    this.queryCompiler = queryCompiler;
+    this.admissionControl = admissionControl;
+    this.indexRefresher = indexRefresher;
+    // cached results are stale once channel writes become visible
+    changeTracker.onChange(Index.CHANNEL, searchCache::invalidate);
+    this.deepPageCheckpoints = deepPageCheckpoints;
     this.scrollResourceUri = legacyApiProperties.getServiceRoot() + "/resources/scroll";
   }
 
   // Object mapper to ignore properties we don't want to index
   final ObjectMapper objectMapper =
       new ObjectMapper()
+          .addMixIn(Channel.class, Channel.IndexedChannel.class)
           .addMixIn(Tag.class, Tag.OnlyTag.class)
           .addMixIn(Property.class, Property.OnlyProperty.class);
 
-  private final ExecutorService executor =
-      Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+  private static final int PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+  /** Smallest chunk a bulk write is split into to write it in parallel. */
+  private static final int MIN_PARALLEL_CHUNK_SIZE = 500;
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(PARALLELISM);
 
   /**
    * create a new channel using the given Channel
@@ -106,16 +235,38 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
    * @param channel - channel to be created
    * @return the created channel
    */
-  @SuppressWarnings("unchecked")
   public Channel index(Channel channel) {
+    return index(channel, false);
+  }
+
+  /**
+   * create a new channel or replace an existing one read before, only if no channel with its name
+   * was created, respectively the existing one was not modified, since
+   *
+   * @param channel - channel to be created, or replaced if it carries the version of the existing
+   *     one
+   * @return the created or replaced channel
+   * @throws VersionConflictException if the channel was created or modified concurrently
+   */
+  public Channel createOrReplace(Channel channel) {
+    return index(channel, true);
+  }
+
+  private Channel index(Channel channel, boolean onlyIfAbsent) {
     try {
       IndexRequest request =
           IndexRequest.of(
-              i ->
-                  i.index(esService.getES_CHANNEL_INDEX())
-                      .id(channel.getName())
-                      .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
-                      .refresh(Refresh.True));
+              i -> {
+                i.index(esService.getES_CHANNEL_INDEX())
+                    .id(channel.getName())
+                    .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
+                    .refresh(indexRefresher.policy(Operation.SINGLE));
+                return onlyIfAbsent
+                    ? OptimisticWrites.ifUnmodifiedOrAbsent(
+                        i, channel.getSeqNo(), channel.getPrimaryTerm())
+                    : OptimisticWrites.ifUnmodified(
+                        i, channel.getSeqNo(), channel.getPrimaryTerm());
+              });
       IndexResponse response = client.index(request);
       // verify the creation of the tag
       if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
@@ -124,9 +275,15 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         return findById(channel.getName()).get();
       }
     } catch (ElasticsearchException | IOException e) {
+      if (e instanceof ElasticsearchException ee && OptimisticWrites.isConflict(ee)) {
+        throw new VersionConflictException(
+            MessageFormat.format(TextUtil.CHANNEL_VERSION_CONFLICT, channel.getName()), e);
+      }
       String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNEL, channel.toLog());
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message, e);
+    } finally {
+      channelsChanged(Operation.SINGLE);
     }
     return null;
   }
@@ -156,7 +313,7 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
                                           .document(
                                               JsonData.of(
                                                   channel, new JacksonJsonpMapper(objectMapper)))))
-                      .refresh(Refresh.True);
+                      .refresh(indexRefresher.policy(Operation.BULK));
                 }
                 BulkResponse result;
                 try {
@@ -192,9 +349,94 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         logger.log(Level.SEVERE, "Bulk indexing failed", e);
       }
     }
+    channelsChanged(Operation.BULK);
     return allIndexed;
   }
 
+  /**
+   * Create or replace the given channels with a single bulk of index operations per chunk. A
+   * channel read from the index, see {@link Channel#getSeqNo()}, is only replaced if its document
+   * was not modified since, any other channel is only created if it does not exist yet.
+   *
+   * @param channels - channels to be created or replaced
+   * @return the status of the write of each channel, in the order of the given channels
+   */
+  public List<ChannelWriteStatus> replaceAll(List<Channel> channels) {
+    List<Future<List<ChannelWriteStatus>>> futures = new ArrayList<>();
+
+    int parallelChunkSize = parallelChunkSize(channels.size());
+    for (int i = 0; i < channels.size(); i += parallelChunkSize) {
+      List<Channel> chunk = channels.subList(i, Math.min(i + parallelChunkSize, channels.size()));
+      futures.add(executor.submit(() -> replaceChunk(chunk)));
+    }
+    List<ChannelWriteStatus> statuses = new ArrayList<>();
+    try {
+      for (Future<List<ChannelWriteStatus>> future : futures) {
+        statuses.addAll(future.get(10, TimeUnit.MINUTES));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RepositoryException(TextUtil.FAILED_TO_REPLACE_CHANNELS, e);
+    } catch (ExecutionException | TimeoutException e) {
+      logger.log(Level.SEVERE, TextUtil.FAILED_TO_REPLACE_CHANNELS, e);
+      throw new RepositoryException(TextUtil.FAILED_TO_REPLACE_CHANNELS, e);
+    } finally {
+      channelsChanged(Operation.BULK);
+    }
+    return statuses;
+  }
+
+  /**
+   * Size of the chunks of a conditional bulk write of the given number of channels, small enough to
+   * write on all threads of the executor at once. Conditional writes of different chunks never
+   * overwrite each other, so they can run in parallel.
+   */
+  private int parallelChunkSize(int channels) {
+    int perThread = Math.ceilDiv(channels, PARALLELISM);
+    return Math.clamp(perThread, Math.min(MIN_PARALLEL_CHUNK_SIZE, chunkSize), chunkSize);
+  }
+
+  private List<ChannelWriteStatus> replaceChunk(List<Channel> chunk) throws IOException {
+    BulkRequest.Builder br =
+        new BulkRequest.Builder().refresh(indexRefresher.policy(Operation.BULK));
+    for (Channel channel : chunk) {
+      JsonData document = JsonData.of(channel, new JacksonJsonpMapper(objectMapper));
+      if (channel.getSeqNo() != null && channel.getPrimaryTerm() != null) {
+        br.operations(
+            op ->
+                op.index(
+                    idx ->
+                        idx.index(esService.getES_CHANNEL_INDEX())
+                            .id(channel.getName())
+                            .ifSeqNo(channel.getSeqNo())
+                            .ifPrimaryTerm(channel.getPrimaryTerm())
+                            .document(document)));
+      } else {
+        br.operations(
+            op ->
+                op.create(
+                    c ->
+                        c.index(esService.getES_CHANNEL_INDEX())
+                            .id(channel.getName())
+                            .document(document)));
+      }
+    }
+    BulkResponse result = client.bulk(br.build());
+    if (result.errors()) {
+      logger.log(Level.WARNING, TextUtil.BULK_HAD_ERRORS);
+    }
+    List<ChannelWriteStatus> statuses = new ArrayList<>(chunk.size());
+    for (int i = 0; i < chunk.size(); i++) {
+      BulkResponseItem item = result.items().get(i);
+      String error = item.error() == null ? null : item.error().reason();
+      if (error != null) {
+        logger.log(Level.WARNING, () -> item.id() + ": " + item.error().reason());
+      }
+      statuses.add(new ChannelWriteStatus(chunk.get(i), item.status(), error));
+    }
+    return statuses;
+  }
+
   /**
    * update/save channel using the given Channel
    *
@@ -207,10 +449,13 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
       IndexResponse response =
           client.index(
               i ->
-                  i.index(esService.getES_CHANNEL_INDEX())
-                      .id(channel.getName())
-                      .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
-                      .refresh(Refresh.True));
+                  OptimisticWrites.ifUnmodified(
+                      i.index(esService.getES_CHANNEL_INDEX())
+                          .id(channel.getName())
+                          .document(JsonData.of(channel, new JacksonJsonpMapper(objectMapper)))
+                          .refresh(indexRefresher.policy(Operation.SINGLE)),
+                      channel.getSeqNo(),
+                      channel.getPrimaryTerm()));
       // verify the creation of the channel
       if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
         logger.log(
@@ -218,9 +463,15 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         return findById(channel.getName()).get();
       }
     } catch (ElasticsearchException | IOException e) {
+      if (e instanceof ElasticsearchException ee && OptimisticWrites.isConflict(ee)) {
+        throw new VersionConflictException(
+            MessageFormat.format(TextUtil.CHANNEL_VERSION_CONFLICT, channel.getName()), e);
+      }
       String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNEL, channel.toLog());
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message, e);
+    } finally {
+      channelsChanged(Operation.SINGLE);
     }
     return null;
   }
@@ -251,51 +502,33 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         StreamSupport.stream(channels.spliterator(), false)
             .collect(Collectors.toCollection(LinkedHashSet::new));
 
-    for (int i = 0; i < channelList.size(); i += chunkSize) {
-      List<Channel> chunk = channelList.stream().skip(i).limit(chunkSize).toList();
+    int parallelChunkSize = parallelChunkSize(channelList.size());
+    for (int i = 0; i < channelList.size(); i += parallelChunkSize) {
+      List<Channel> chunk = channelList.stream().skip(i).limit(parallelChunkSize).toList();
       // Create a list of all channel names
       Set<String> ids =
           chunk.stream().map(Channel::getName).collect(Collectors.toCollection(LinkedHashSet::new));
-      Map<String, Channel> existingChannels =
-          findAllById(ids).stream().collect(Collectors.toMap(Channel::getName, c -> c));
 
       futures.add(
           executor.submit(
               () -> {
                 BulkRequest.Builder br = new BulkRequest.Builder();
                 for (Channel channel : chunk) {
-                  if (existingChannels.containsKey(channel.getName())) {
-                    // merge with existing channel
-                    Channel updatedChannel = existingChannels.get(channel.getName());
-                    if (channel.getOwner() != null && !channel.getOwner().isEmpty())
-                      updatedChannel.setOwner(channel.getOwner());
-                    updatedChannel.addProperties(channel.getProperties());
-                    updatedChannel.addTags(channel.getTags());
-                    br.operations(
-                        op ->
-                            op.index(
-                                ch ->
-                                    ch.index(esService.getES_CHANNEL_INDEX())
-                                        .id(updatedChannel.getName())
-                                        .document(
-                                            JsonData.of(
-                                                updatedChannel,
-                                                new JacksonJsonpMapper(objectMapper)))));
-                  } else {
-                    br.operations(
-                        op ->
-                            op.index(
-                                ch ->
-                                    ch.index(esService.getES_CHANNEL_INDEX())
-                                        .id(channel.getName())
-                                        .document(
-                                            JsonData.of(
-                                                channel, new JacksonJsonpMapper(objectMapper)))));
-                  }
+                  // merged into an existing channel by the script, indexed as is otherwise
+                  JsonData upsert = JsonData.of(channel, new JacksonJsonpMapper(objectMapper));
+                  br.operations(
+                      op ->
+                          op.update(
+                              u ->
+                                  u.index(esService.getES_CHANNEL_INDEX())
+                                      .id(channel.getName())
+                                      .retryOnConflict(OptimisticWrites.RETRY_ON_CONFLICT)
+                                      .action(
+                                          a -> a.script(attachScript(channel)).upsert(upsert))));
                 }
                 BulkResponse result;
                 try {
-                  result = client.bulk(br.refresh(Refresh.WaitFor).build());
+                  result = client.bulk(br.refresh(indexRefresher.policy(Operation.BULK)).build());
                   // Log errors, if any
                   if (result.errors()) {
                     logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
@@ -329,9 +562,56 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         logger.log(Level.SEVERE, "Bulk saving failed", e);
       }
     }
+    channelsChanged(Operation.BULK);
     return (Iterable<S>) allSaved;
   }
 
+  /**
+   * Add the tags and properties of the given channel to the existing channel with the same name,
+   * replacing those with the same names, and set its owner if one is given. Unlike {@link
+   * #save(Channel)} the channel is updated in place with a script, without reading and reindexing
+   * the whole channel.
+   *
+   * @param channel - name, optional owner and the tags and properties to add
+   * @return the updated channel
+   */
+  public Channel attach(Channel channel) {
+    try {
+      UpdateRequest<Channel, Object> request =
+          UpdateRequest.of(
+              u ->
+                  u.index(esService.getES_CHANNEL_INDEX())
+                      .id(channel.getName())
+                      .script(attachScript(channel))
+                      .source(src -> src.fetch(true))
+                      .retryOnConflict(OptimisticWrites.RETRY_ON_CONFLICT)
+                      .refresh(indexRefresher.policy(Operation.SINGLE)));
+      UpdateResponse<Channel> response = client.update(request, Channel.class);
+      logger.log(
+          Level.CONFIG, () -> MessageFormat.format(TextUtil.CREATE_CHANNEL, channel.toLog()));
+      return response.get().source();
+    } catch (ElasticsearchException | IOException e) {
+      String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_CHANNEL, channel.toLog());
+      logger.log(Level.SEVERE, message, e);
+      throw new RepositoryException(message, e);
+    } finally {
+      channelsChanged(Operation.SINGLE);
+    }
+  }
+
+  private Script attachScript(Channel channel) {
+    JacksonJsonpMapper mapper = new JacksonJsonpMapper(objectMapper);
+    Map<String, JsonData> params = new HashMap<>();
+    if (channel.getOwner() != null && !channel.getOwner().isEmpty()) {
+      params.put(OWNER, JsonData.of(channel.getOwner()));
+    }
+    params.put(TAGS, JsonData.of(Objects.requireNonNullElse(channel.getTags(), List.of()), mapper));
+    params.put(
+        PROPERTIES,
+        JsonData.of(Objects.requireNonNullElse(channel.getProperties(), List.of()), mapper));
+    return Script.of(s -> s.source(ATTACH_SCRIPT).lang(ScriptLanguage.Painless).params(params));
+  }
+
   /**
    * find channel using the given channel id
    *
@@ -343,10 +623,16 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     GetResponse<Channel> response;
     try {
       response =
-          client.get(g -> g.index(esService.getES_CHANNEL_INDEX()).id(channelName), Channel.class);
+          searchClient.get(
+              g ->
+                  g.index(esService.getES_CHANNEL_INDEX())
+                      .id(channelName)
+                      .preference(esService.getES_SEARCH_PREFERENCE()),
+              Channel.class);
 
       if (response.found()) {
         Channel channel = response.source();
+        channel.setSeqNoAndPrimaryTerm(response.seqNo(), response.primaryTerm());
         logger.log(
             Level.CONFIG, () -> MessageFormat.format(TextUtil.CHANNEL_FOUND, channel.getName()));
         return Optional.of(channel);
@@ -369,26 +655,10 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
    * @return true if all the channel id's exist
    */
   public boolean existsByIds(List<String> channelIds) {
-    try {
-      List<String> ids =
-          StreamSupport.stream(channelIds.spliterator(), false).collect(Collectors.toList());
-
-      SearchRequest.Builder searchBuilder =
-          new SearchRequest.Builder()
-              .index(esService.getES_CHANNEL_INDEX())
-              .query(IdsQuery.of(q -> q.values(ids))._toQuery())
-              .size(esService.getES_QUERY_SIZE())
-              .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-      SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
-      return new HashSet<>(
-              response.hits().hits().stream()
-                  .map(h -> h.source().getName())
-                  .collect(Collectors.toList()))
-          .containsAll(channelIds);
-    } catch (ElasticsearchException | IOException e) {
-      logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_CHANNELS, e);
-      throw new RepositoryException(TextUtil.FAILED_TO_FIND_ALL_CHANNELS, e);
-    }
+    return findAllById(channelIds).stream()
+        .map(Channel::getName)
+        .collect(Collectors.toSet())
+        .containsAll(channelIds);
   }
 
   /**
@@ -401,8 +671,11 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
   public boolean existsById(String channelName) {
     try {
       ExistsRequest.Builder builder = new ExistsRequest.Builder();
-      builder.index(esService.getES_CHANNEL_INDEX()).id(channelName);
-      return client.exists(builder.build()).value();
+      builder
+          .index(esService.getES_CHANNEL_INDEX())
+          .id(channelName)
+          .preference(esService.getES_SEARCH_PREFERENCE());
+      return searchClient.exists(builder.build()).value();
     } catch (ElasticsearchException | IOException e) {
       String message =
           MessageFormat.format(TextUtil.FAILED_TO_CHECK_IF_CHANNEL_EXISTS, channelName);
@@ -439,17 +712,25 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
       int lookupBatchSize = Math.clamp(chunkSize, 1, esService.getES_QUERY_SIZE());
       List<Channel> result = new ArrayList<>();
 
+      // a real-time multi get sees writes that were not refreshed yet, unlike a search
       for (int i = 0; i < ids.size(); i += lookupBatchSize) {
         List<String> chunk = ids.subList(i, Math.min(i + lookupBatchSize, ids.size()));
-        SearchRequest.Builder searchBuilder =
-            new SearchRequest.Builder()
-                .index(esService.getES_CHANNEL_INDEX())
-                .query(IdsQuery.of(q -> q.values(chunk))._toQuery())
-                .size(chunk.size())
-                .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-        SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
-        result.addAll(response.hits().hits().stream().map(Hit::source).toList());
+        MgetResponse<Channel> response =
+            searchClient.mget(
+                m ->
+                    m.index(esService.getES_CHANNEL_INDEX())
+                        .ids(chunk)
+                        .preference(esService.getES_SEARCH_PREFERENCE()),
+                Channel.class);
+        for (MultiGetResponseItem<Channel> item : response.docs()) {
+          if (item.isResult() && item.result().found()) {
+            Channel channel = item.result().source();
+            channel.setSeqNoAndPrimaryTerm(item.result().seqNo(), item.result().primaryTerm());
+            result.add(channel);
+          }
+        }
       }
+      result.sort(Comparator.comparing(Channel::getName));
 
       return result;
     } catch (ElasticsearchException | IOException e) {
@@ -473,7 +754,10 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     try {
       DeleteResponse response =
           client.delete(
-              i -> i.index(esService.getES_CHANNEL_INDEX()).id(channelName).refresh(Refresh.True));
+              i ->
+                  i.index(esService.getES_CHANNEL_INDEX())
+                      .id(channelName)
+                      .refresh(indexRefresher.policy(Operation.SINGLE)));
       // verify the deletion of the channel
       if (response.result().equals(Result.Deleted)) {
         logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.DELETE_CHANNEL, channelName));
@@ -482,6 +766,8 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
       String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_CHANNEL, channelName);
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message, e);
+    } finally {
+      channelsChanged(Operation.SINGLE);
     }
   }
 
@@ -504,12 +790,14 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
               op ->
                   op.delete(
                       idx -> idx.index(esService.getES_CHANNEL_INDEX()).id(channel.getName())))
-          .refresh(Refresh.True);
+          .refresh(indexRefresher.policy(Operation.BULK));
     }
     try {
       BulkResponse result = client.bulk(br.build());
     } catch (IOException e) {
       logger.log(Level.WARNING, e.getMessage(), e);
+    } finally {
+      channelsChanged(Operation.BULK);
     }
   }
 
@@ -526,14 +814,26 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
    * <p>The query result is sorted based on the channel name ~size - The number of channels to be
    * returned ~from - The starting index of the channel list
    *
+   * <p>A ~from beyond the max result window is reached by walking the matches with search_after,
+   * starting from the nearest {@link DeepPageCheckpoints checkpoint} of the query.
+   *
    * @param searchParameters channel search parameters
    * @return matching channels
    */
   public SearchResult search(MultiValueMap<String, String> searchParameters) {
     BuiltQuery builtQuery = getBuiltQuery(searchParameters);
-    Integer finalSize = builtQuery.size;
-    Integer finalFrom = builtQuery.from;
+    if (!deepPageCheckpoints.enabled()
+        || builtQuery.size > esService.getES_MAX_RESULT_WINDOW_SIZE()
+        || builtQuery.searchAfter.isPresent()) {
+      checkSearchWindow(searchParameters, builtQuery);
+    }
+
+    return searchCache.get(searchParameters, () -> search(searchParameters, builtQuery));
+  }
 
+  private void checkSearchWindow(
+      MultiValueMap<String, String> searchParameters, BuiltQuery builtQuery) {
+    checkSearchAfter(searchParameters, builtQuery);
     if (builtQuery.size + builtQuery.from > esService.getES_MAX_RESULT_WINDOW_SIZE()) {
       String message =
           MessageFormat.format(
@@ -542,27 +842,257 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
               "Max search window exceeded, use the " + scrollResourceUri + " api.");
       throw new ChannelValidationException(message);
     }
+  }
 
-    try {
+  /** Elasticsearch rejects a search_after together with a from, the cursor is the position. */
+  private static void checkSearchAfter(
+      MultiValueMap<String, String> searchParameters, BuiltQuery builtQuery) {
+    if (builtQuery.searchAfter.isPresent() && builtQuery.from > 0) {
+      String message =
+          MessageFormat.format(
+              TextUtil.SEARCH_FAILED_CAUSE,
+              searchParameters,
+              "~from can not be combined with ~search_after, which already continues after a page");
+      throw new ChannelValidationException(message);
+    }
+  }
+
+  private SearchResult search(
+      MultiValueMap<String, String> searchParameters, BuiltQuery builtQuery) {
+    if (builtQuery.size + builtQuery.from > esService.getES_MAX_RESULT_WINDOW_SIZE()) {
+      try {
+        return deepSearch(searchParameters, builtQuery);
+      } catch (ElasticsearchException | IOException e) {
+        String message =
+            MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+        logger.log(Level.SEVERE, message, e);
+        throw new RepositoryException(message, e);
+      }
+    }
+    try (SearchAdmissionControl.Permit permit =
+        admissionControl.acquire(searchParameters, builtQuery.size)) {
       SearchRequest.Builder searchBuilder = new SearchRequest.Builder();
       searchBuilder
           .index(esService.getES_CHANNEL_INDEX())
           .query(builtQuery.boolQuery.build()._toQuery())
-          .from(finalFrom)
-          .size(finalSize)
+          .preference(esService.getES_SEARCH_PREFERENCE())
+          .from(builtQuery.from)
+          .size(builtQuery.size)
           .trackTotalHits(builder -> builder.enabled(builtQuery.trackTotalHits))
-          .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("name")))));
-      builtQuery.searchAfter.ifPresent(s -> searchBuilder.searchAfter(FieldValue.of(s)));
+          .sort(builtQuery.sort.options());
+      builtQuery.searchAfter.ifPresent(searchBuilder::searchAfter);
+      builtQuery.projection.sourceConfig().ifPresent(searchBuilder::source);
 
-      SearchResponse<Channel> response = client.search(searchBuilder.build(), Channel.class);
+      SearchResponse<Channel> response = searchClient.search(searchBuilder.build(), Channel.class);
+      return searchResult(response.hits(), builtQuery);
+    } catch (ElasticsearchException | IOException e) {
+      String message =
+          MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+      logger.log(Level.SEVERE, message, e);
+      throw new RepositoryException(message, e);
+    }
+  }
 
-      List<Hit<Channel>> hits = response.hits().hits();
-      long count = hits.size();
-      if (builtQuery.trackTotalHits) {
-        assert response.hits().total() != null;
-        count = response.hits().total().value();
+  /**
+   * Page past the max result window: walk from the nearest checkpoint to ~from with search_after,
+   * fetching only the sort values of at most one checkpoint interval of matches per request, then
+   * read the page after the last walked match. Every interval boundary passed becomes a checkpoint.
+   *
+   * <p>Each request is admitted on its own, charged for the matches it walks or reads instead of
+   * the whole ~from, so deep pages stay affordable and the walk does not hold a slot throughout.
+   */
+  private SearchResult deepSearch(
+      MultiValueMap<String, String> searchParameters, BuiltQuery builtQuery) throws IOException {
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>(searchParameters);
+    filters.remove("~from");
+    DeepPageCheckpoints.Checkpoints checkpoints = deepPageCheckpoints.get(searchParameters);
+    int interval =
+        Math.min(deepPageCheckpoints.interval(), esService.getES_MAX_RESULT_WINDOW_SIZE());
+    int position = 0;
+    List<FieldValue> searchAfter = null;
+    Map.Entry<Integer, List<FieldValue>> checkpoint = checkpoints.floor(builtQuery.from);
+    if (checkpoint != null) {
+      position = checkpoint.getKey();
+      searchAfter = checkpoint.getValue();
+    }
+    int size = builtQuery.size;
+    while (size > 0 && position < builtQuery.from) {
+      int next = Math.min(builtQuery.from, (position / interval + 1) * interval);
+      SearchRequest.Builder walkBuilder = new SearchRequest.Builder();
+      walkBuilder
+          .index(esService.getES_CHANNEL_INDEX())
+          .query(builtQuery.boolQuery.build()._toQuery())
+          .preference(esService.getES_SEARCH_PREFERENCE())
+          .size(next - position)
+          .trackTotalHits(builder -> builder.enabled(false))
+          .source(source -> source.fetch(false))
+          .sort(builtQuery.sort.options());
+      if (searchAfter != null) {
+        walkBuilder.searchAfter(searchAfter);
+      }
+      List<Hit<Channel>> hits;
+      try (SearchAdmissionControl.Permit permit =
+          admissionControl.acquire(filters, next - position)) {
+        hits = searchClient.search(walkBuilder.build(), Channel.class).hits().hits();
+      }
+      if (hits.size() < next - position) {
+        // fewer matches than ~from, the page is empty but may still need the total count
+        size = 0;
+        break;
       }
-      return new SearchResult(hits.stream().map(Hit::source).collect(Collectors.toList()), count);
+      searchAfter = hits.get(hits.size() - 1).sort();
+      position = next;
+      if (position % interval == 0) {
+        checkpoints.put(position, searchAfter);
+      }
+    }
+
+    SearchRequest.Builder searchBuilder = new SearchRequest.Builder();
+    searchBuilder
+        .index(esService.getES_CHANNEL_INDEX())
+        .query(builtQuery.boolQuery.build()._toQuery())
+        .preference(esService.getES_SEARCH_PREFERENCE())
+        .size(size)
+        .trackTotalHits(builder -> builder.enabled(builtQuery.trackTotalHits))
+        .sort(builtQuery.sort.options());
+    if (searchAfter != null && size > 0) {
+      searchBuilder.searchAfter(searchAfter);
+    }
+    builtQuery.projection.sourceConfig().ifPresent(searchBuilder::source);
+    try (SearchAdmissionControl.Permit permit = admissionControl.acquire(filters, size)) {
+      SearchResponse<Channel> response = searchClient.search(searchBuilder.build(), Channel.class);
+      return searchResult(response.hits(), builtQuery);
+    }
+  }
+
+  private static SearchResult searchResult(
+      HitsMetadata<Channel> hitsMetadata, BuiltQuery builtQuery) {
+    List<Hit<Channel>> hits = hitsMetadata.hits();
+    long count = hits.size();
+    if (builtQuery.trackTotalHits) {
+      assert hitsMetadata.total() != null;
+      count = hitsMetadata.total().value();
+    }
+    // a full page may be followed by more channels, hand out the position of its last hit
+    String cursor = null;
+    if (!hits.isEmpty() && hits.size() >= builtQuery.size) {
+      cursor = new SearchCursor(null, hits.get(hits.size() - 1).sort()).encode();
+    }
+    return new SearchResult(
+        hits.stream()
+            .map(Hit::source)
+            .map(builtQuery.projection::apply)
+            .collect(Collectors.toList()),
+        count,
+        cursor);
+  }
+
+  /**
+   * Run several channel searches in one Elasticsearch multi search request. Each search has the
+   * same parameters and limits as {@link #search(MultiValueMap)}; the searches are neither cached
+   * nor coalesced.
+   *
+   * @param searches search parameters of each search
+   * @return the result of each search, in the order of the searches
+   */
+  public List<SearchResult> multiSearch(List<MultiValueMap<String, String>> searches) {
+    if (searches.isEmpty()) {
+      return List.of();
+    }
+    if (searches.size() > maxMultiSearches) {
+      throw new ChannelValidationException(
+          MessageFormat.format(
+              TextUtil.MULTI_SEARCH_TOO_MANY_SEARCHES, searches.size(), maxMultiSearches));
+    }
+    List<BuiltQuery> builtQueries = new ArrayList<>(searches.size());
+    for (MultiValueMap<String, String> searchParameters : searches) {
+      BuiltQuery builtQuery = getBuiltQuery(searchParameters);
+      checkSearchWindow(searchParameters, builtQuery);
+      builtQueries.add(builtQuery);
+    }
+    try (SearchAdmissionControl.Permit permit =
+        admissionControl.acquire(
+            searches, builtQueries.stream().map(builtQuery -> builtQuery.size).toList())) {
+      MsearchRequest.Builder msearchBuilder = new MsearchRequest.Builder();
+      for (BuiltQuery builtQuery : builtQueries) {
+        msearchBuilder.searches(
+            s ->
+                s.header(
+                        h ->
+                            h.index(esService.getES_CHANNEL_INDEX())
+                                .preference(esService.getES_SEARCH_PREFERENCE()))
+                    .body(b -> multiSearchBody(b, builtQuery)));
+      }
+      MsearchResponse<Channel> response =
+          searchClient.msearch(msearchBuilder.build(), Channel.class);
+
+      List<SearchResult> results = new ArrayList<>(searches.size());
+      for (int i = 0; i < searches.size(); i++) {
+        MultiSearchResponseItem<Channel> item = response.responses().get(i);
+        if (item.isFailure()) {
+          String message =
+              MessageFormat.format(
+                  TextUtil.SEARCH_FAILED_CAUSE, searches.get(i), item.failure().error().reason());
+          logger.log(Level.SEVERE, message);
+          throw new RepositoryException(message);
+        }
+        results.add(searchResult(item.result().hits(), builtQueries.get(i)));
+      }
+      return results;
+    } catch (ElasticsearchException | IOException e) {
+      String message = MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searches, e.getMessage());
+      logger.log(Level.SEVERE, message, e);
+      throw new RepositoryException(message, e);
+    }
+  }
+
+  private static MultisearchBody.Builder multiSearchBody(
+      MultisearchBody.Builder body, BuiltQuery builtQuery) {
+    body.query(builtQuery.boolQuery.build()._toQuery())
+        .from(builtQuery.from)
+        .size(builtQuery.size)
+        .trackTotalHits(builder -> builder.enabled(builtQuery.trackTotalHits))
+        .sort(builtQuery.sort.options());
+    builtQuery.searchAfter.ifPresent(body::searchAfter);
+    builtQuery.projection.sourceConfig().ifPresent(body::source);
+    return body;
+  }
+
+  /**
+   * Submit a channel search as an Elasticsearch async search. The search parameters have the same
+   * meaning as in {@link #search(MultiValueMap)}; the search is neither cached nor coalesced.
+   *
+   * @param searchParameters channel search parameters
+   * @param waitForCompletion time to wait for the search to complete, e.g. {@code 1s}
+   * @param keepAlive time the search and its result are retained, e.g. {@code 1h}
+   * @return id and state of the async search, with the result if it completed in time
+   */
+  public AsyncSearchResult submitAsyncSearch(
+      MultiValueMap<String, String> searchParameters, String waitForCompletion, String keepAlive) {
+    BuiltQuery builtQuery = getBuiltQuery(searchParameters);
+    checkSearchWindow(searchParameters, builtQuery);
+    // only held while waiting for the search, Elasticsearch bounds the running async searches
+    try (SearchAdmissionControl.Permit permit =
+        admissionControl.acquire(searchParameters, builtQuery.size)) {
+      SubmitRequest.Builder submitBuilder = new SubmitRequest.Builder();
+      submitBuilder
+          .index(esService.getES_CHANNEL_INDEX())
+          .query(builtQuery.boolQuery.build()._toQuery())
+          .preference(esService.getES_SEARCH_PREFERENCE())
+          .from(builtQuery.from)
+          .size(builtQuery.size)
+          .trackTotalHits(builder -> builder.enabled(builtQuery.trackTotalHits))
+          .sort(builtQuery.sort.options())
+          .waitForCompletionTimeout(t -> t.time(waitForCompletion))
+          .keepAlive(t -> t.time(keepAlive))
+          // keep the result even if it completes within the wait, the client polls by id
+          .keepOnCompletion(true);
+      builtQuery.searchAfter.ifPresent(submitBuilder::searchAfter);
+      builtQuery.projection.sourceConfig().ifPresent(submitBuilder::source);
+
+      SubmitResponse<Channel> response =
+          searchClient.asyncSearch().submit(submitBuilder.build(), Channel.class);
+      return asyncSearchResult(response, builtQuery.projection);
     } catch (ElasticsearchException | IOException e) {
       String message =
           MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
@@ -571,12 +1101,86 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     }
   }
 
+  /**
+   * Get the state, and the partial or final result, of an async channel search.
+   *
+   * @param id id of the async search
+   * @param searchParameters only {@code ~fields} and {@code ~exclude} are used, to select the
+   *     properties of the returned channels
+   * @param waitForCompletion time to wait for a running search to complete, e.g. {@code 10s}
+   * @return the async search, or empty if it does not exist or expired
+   */
+  public Optional<AsyncSearchResult> getAsyncSearch(
+      String id, MultiValueMap<String, String> searchParameters, String waitForCompletion) {
+    ChannelProjection projection = getBuiltQuery(searchParameters).projection;
+    try {
+      GetAsyncSearchResponse<Channel> response =
+          searchClient
+              .asyncSearch()
+              .get(
+                  g -> g.id(id).waitForCompletionTimeout(t -> t.time(waitForCompletion)),
+                  Channel.class);
+      return Optional.of(asyncSearchResult(response, projection));
+    } catch (ElasticsearchException e) {
+      if (e.status() == 404) {
+        return Optional.empty();
+      }
+      throw asyncSearchFailure(id, e);
+    } catch (IOException e) {
+      throw asyncSearchFailure(id, e);
+    }
+  }
+
+  /**
+   * Cancel an async channel search, if it is still running, and delete its result.
+   *
+   * @param id id of the async search
+   * @return false if the async search does not exist or expired
+   */
+  public boolean deleteAsyncSearch(String id) {
+    try {
+      return searchClient.asyncSearch().delete(d -> d.id(id)).acknowledged();
+    } catch (ElasticsearchException e) {
+      if (e.status() == 404) {
+        return false;
+      }
+      throw asyncSearchFailure(id, e);
+    } catch (IOException e) {
+      throw asyncSearchFailure(id, e);
+    }
+  }
+
+  private static AsyncSearchResult asyncSearchResult(
+      AsyncSearchDocumentResponseBase<Channel> response, ChannelProjection projection) {
+    List<Hit<Channel>> hits = response.response().hits().hits();
+    long count =
+        response.response().hits().total() != null
+            ? response.response().hits().total().value()
+            : hits.size();
+    return new AsyncSearchResult(
+        response.id(),
+        response.isRunning(),
+        response.isPartial(),
+        new SearchResult(
+            hits.stream().map(Hit::source).map(projection::apply).collect(Collectors.toList()),
+            count));
+  }
+
+  private RepositoryException asyncSearchFailure(String id, Exception e) {
+    String message = MessageFormat.format(TextUtil.ASYNC_SEARCH_FAILED, id, e.getMessage());
+    logger.log(Level.SEVERE, message, e);
+    return new RepositoryException(message, e);
+  }
+
   private BuiltQuery getBuiltQuery(MultiValueMap<String, String> searchParameters) {
     BoolQuery.Builder boolQuery = new BoolQuery.Builder();
     int size = esService.getES_QUERY_SIZE();
     int from = 0;
     boolean trackTotalHits = false;
     Optional<String> searchAfter = Optional.empty();
+    List<String> fields = new ArrayList<>();
+    List<String> excludedFields = new ArrayList<>();
+    List<String> sortFields = new ArrayList<>();
     String valueSplitPattern = "[|,;]";
     for (Map.Entry<String, List<String>> parameter : searchParameters.entrySet()) {
       String key = parameter.getKey().trim();
@@ -604,37 +1208,80 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
         case "~track_total_hits":
           trackTotalHits = isTrackTotalHits(parameter, trackTotalHits);
           break;
+        case "~fields":
+          parameter.getValue().forEach(v -> fields.addAll(List.of(v.split(valueSplitPattern))));
+          break;
+        case "~exclude":
+          parameter
+              .getValue()
+              .forEach(v -> excludedFields.addAll(List.of(v.split(valueSplitPattern))));
+          break;
+        case "~sort":
+          parameter.getValue().forEach(v -> sortFields.addAll(List.of(v.split(valueSplitPattern))));
+          break;
+        case "~stream":
+          // output format selector of the streaming query endpoint, not a filter
+          break;
         default:
-          DisMaxQuery.Builder propertyQuery =
-              calculatePropertiesQuery(parameter, valueSplitPattern, key, isNot);
-          boolQuery.must(propertyQuery.build()._toQuery());
+          require(
+              boolQuery, anyOf(calculatePropertiesQuery(parameter, valueSplitPattern, key, isNot)));
           break;
       }
     }
-    return new BuiltQuery(boolQuery, size, from, searchAfter, trackTotalHits);
+    ChannelSort sort = ChannelSort.of(sortFields, queryCompiler);
+    return new BuiltQuery(
+        boolQuery,
+        size,
+        from,
+        sort,
+        searchAfter.map(value -> searchAfterValues(value, sort)),
+        trackTotalHits,
+        ChannelProjection.of(fields, excludedFields));
+  }
+
+  /**
+   * The {@code ~search_after} value is the cursor of a previous search result with the sort values
+   * of its last hit. The name of the last channel, as accepted before cursors, still continues a
+   * search sorted by name.
+   */
+  private static List<FieldValue> searchAfterValues(String value, ChannelSort sort) {
+    List<FieldValue> values =
+        SearchCursor.decode(value)
+            .map(SearchCursor::searchAfter)
+            .orElseGet(() -> List.of(FieldValue.of(value)));
+    if (values.size() != sort.size()) {
+      throw new ChannelValidationException(
+          MessageFormat.format(TextUtil.SEARCH_AFTER_INVALID, value));
+    }
+    return values;
   }
 
-  private static DisMaxQuery.Builder calculatePropertiesQuery(
+  private List<Query> calculatePropertiesQuery(
       Map.Entry<String, List<String>> parameter,
       String valueSplitPattern,
       String key,
       boolean isNot) {
-    DisMaxQuery.Builder propertyQuery = new DisMaxQuery.Builder();
+    List<Query> propertyQueries = new ArrayList<>();
     for (String value : parameter.getValue()) {
       for (String pattern : value.split(valueSplitPattern)) {
+        if (!isNot) {
+          // equality and prefix filters can use the flattened propkv field
+          propertyQueries.add(calculatePropertyQuery(key, pattern));
+          continue;
+        }
         BoolQuery bq;
         bq = calculatePropertyQuery(key, isNot, pattern);
-        addPropertyQuery(isNot, pattern, propertyQuery, bq);
+        addPropertyQuery(isNot, pattern, propertyQueries, bq);
       }
     }
-    return propertyQuery;
+    return propertyQueries;
   }
 
-  private static void addPropertyQuery(
-      boolean isNot, String pattern, DisMaxQuery.Builder propertyQuery, BoolQuery bq) {
+  private void addPropertyQuery(
+      boolean isNot, String pattern, List<Query> propertyQueries, BoolQuery bq) {
     if (isNot && pattern.trim().equals("*")) {
 
-      propertyQuery.queries(
+      propertyQueries.add(
           BoolQuery.of(
                   p ->
                       p.mustNot(
@@ -643,12 +1290,24 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
               ._toQuery());
     } else {
 
-      propertyQuery.queries(
+      propertyQueries.add(
           NestedQuery.of(n -> n.path("properties").query(bq._toQuery()))._toQuery());
     }
   }
 
-  private static BoolQuery calculatePropertyQuery(String key, boolean isNot, String pattern) {
+  private Query calculatePropertyQuery(String key, String pattern) {
+    return queryCompiler
+        .compileProperty(key, pattern.trim())
+        .orElseGet(
+            () ->
+                NestedQuery.of(
+                        n ->
+                            n.path("properties")
+                                .query(calculatePropertyQuery(key, false, pattern)._toQuery()))
+                    ._toQuery());
+  }
+
+  private BoolQuery calculatePropertyQuery(String key, boolean isNot, String pattern) {
     BoolQuery bq;
     if (isNot) {
       if (pattern.trim().equals("*")) {
@@ -688,50 +1347,76 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     return size;
   }
 
-  private static void addTagsQuery(
+  private void addTagsQuery(
       Map.Entry<String, List<String>> parameter,
       String valueSplitPattern,
       boolean isNot,
       BoolQuery.Builder boolQuery) {
     for (String value : parameter.getValue()) {
-      DisMaxQuery.Builder tagQuery = new DisMaxQuery.Builder();
+      List<Query> tagQueries = new ArrayList<>();
       for (String pattern : value.split(valueSplitPattern)) {
-        tagQuery.queries(
+        tagQueries.add(
             NestedQuery.of(
                     n -> n.path("tags").query(getSingleValueQuery("tags.name", pattern.trim())))
                 ._toQuery());
       }
       if (isNot) {
-        boolQuery.mustNot(tagQuery.build()._toQuery());
+        boolQuery.mustNot(anyOf(tagQueries));
       } else {
-        boolQuery.must(tagQuery.build()._toQuery());
+        require(boolQuery, anyOf(tagQueries));
       }
     }
   }
 
-  private static void addNameQuery(
+  private void addNameQuery(
       Map.Entry<String, List<String>> parameter,
       String valueSplitPattern,
       BoolQuery.Builder boolQuery) {
     for (String value : parameter.getValue()) {
-      DisMaxQuery.Builder nameQuery = new DisMaxQuery.Builder();
+      List<Query> nameQueries = new ArrayList<>();
       for (String pattern : value.split(valueSplitPattern)) {
-        nameQuery.queries(getSingleValueQuery("name", pattern.trim()));
+        nameQueries.add(getSingleValueQuery("name", pattern.trim()));
       }
-      boolQuery.must(nameQuery.build()._toQuery());
+      require(boolQuery, anyOf(nameQueries));
+    }
+  }
+
+  /**
+   * Add a clause every channel must match. Results are sorted by name, so clauses go into filter
+   * context where Elasticsearch skips scoring and can cache them, unless {@code
+   * repository.query.filter_context} is false.
+   */
+  private void require(BoolQuery.Builder boolQuery, Query query) {
+    if (filterContext) {
+      boolQuery.filter(query);
+    } else {
+      boolQuery.must(query);
     }
   }
 
-  private static Query getSingleValueQuery(String name, String pattern) {
-    return WildcardQuery.of(w -> w.field(name).caseInsensitive(true).value(pattern))._toQuery();
+  /** Match any of the given alternatives: bool should in filter context, dis_max otherwise. */
+  private Query anyOf(List<Query> queries) {
+    if (!filterContext) {
+      return DisMaxQuery.of(d -> d.queries(queries))._toQuery();
+    }
+    if (queries.size() == 1) {
+      return queries.get(0);
+    }
+    return BoolQuery.of(b -> b.should(queries).minimumShouldMatch("1"))._toQuery();
+  }
+
+  private Query getSingleValueQuery(String name, String pattern) {
+    return queryCompiler.compile(name, pattern);
   }
 
   private record BuiltQuery(
       BoolQuery.Builder boolQuery,
       Integer size,
       Integer from,
-      Optional<String> searchAfter,
-      boolean trackTotalHits) {}
+      ChannelSort sort,
+      Optional<List<FieldValue>> searchAfter,
+      boolean trackTotalHits,
+      ChannelProjection projection) {}
 
   /**
    * Match count
@@ -742,13 +1427,14 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
   public long count(MultiValueMap<String, String> searchParameters) {
     BuiltQuery builtQuery = getBuiltQuery(searchParameters);
 
-    try {
+    try (SearchAdmissionControl.Permit permit = admissionControl.acquire(searchParameters, 0)) {
 
       CountRequest.Builder countBuilder = new CountRequest.Builder();
       countBuilder
           .index(esService.getES_CHANNEL_INDEX())
-          .query(builtQuery.boolQuery.build()._toQuery());
-      CountResponse response = client.count(countBuilder.build());
+          .query(builtQuery.boolQuery.build()._toQuery())
+          .preference(esService.getES_SEARCH_PREFERENCE());
+      CountResponse response = searchClient.count(countBuilder.build());
 
       return response.count();
     } catch (ElasticsearchException | IOException e) {
@@ -759,6 +1445,59 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
     }
   }
 
+  /**
+   * Names of the properties and tags set on any channel matching the search parameters, from
+   * aggregations over the nested properties and tags, without fetching the channels.
+   *
+   * @param searchParameters channel search parameters
+   * @return property and tag names, each sorted and limited to {@code repository.field_names.size}
+   */
+  public ChannelFieldNames fieldNames(MultiValueMap<String, String> searchParameters) {
+    BuiltQuery builtQuery = getBuiltQuery(searchParameters);
+
+    try (SearchAdmissionControl.Permit permit = admissionControl.acquire(searchParameters, 0)) {
+      SearchRequest.Builder searchBuilder =
+          new SearchRequest.Builder()
+              .index(esService.getES_CHANNEL_INDEX())
+              .query(builtQuery.boolQuery.build()._toQuery())
+              .preference(esService.getES_SEARCH_PREFERENCE())
+              .size(0)
+              .trackTotalHits(t -> t.enabled(false))
+              .aggregations(PROPERTIES, nestedNames(PROPERTIES))
+              .aggregations(TAGS, nestedNames(TAGS));
+      SearchResponse<Channel> response = searchClient.search(searchBuilder.build(), Channel.class);
+      return new ChannelFieldNames(
+          nestedNames(response.aggregations().get(PROPERTIES)),
+          nestedNames(response.aggregations().get(TAGS)));
+    } catch (ElasticsearchException | IOException e) {
+      String message =
+          MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+      logger.log(Level.SEVERE, message, e);
+      throw new RepositoryException(message, e);
+    }
+  }
+
+  private Aggregation nestedNames(String path) {
+    return Aggregation.of(
+        a ->
+            a.nested(n -> n.path(path))
+                .aggregations(
+                    NAMES,
+                    t ->
+                        t.terms(
+                            terms ->
+                                terms
+                                    .field(path + ".name")
+                                    .size(maxFieldNames)
+                                    .order(NamedValue.of("_key", SortOrder.Asc)))));
+  }
+
+  private static List<String> nestedNames(Aggregate aggregate) {
+    return aggregate.nested().aggregations().get(NAMES).sterms().buckets().array().stream()
+        .map(bucket -> bucket.key().stringValue())
+        .toList();
+  }
+
   /**
    * Match count
    *
@@ -788,35 +1527,370 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
    * Scroll-paginated search. Returns a page of channels and the ID to pass as scrollId on the next
    * call to advance the cursor. Accepts the same query parameters as {@link #search}.
    *
+   * <p>The first call opens a point in time on the channel index, and all following pages are read
+   * from that snapshot, so writes during the scroll neither skip nor duplicate channels. The
+   * returned ID encodes the point in time and the sort position of the last channel. The point in
+   * time is closed once the last page has been read; if it expires first the scroll continues
+   * against the live index.
+   *
    * @param scrollId opaque cursor from a previous call, or {@code null} for the first page
    * @param searchParameters channel search parameters
    * @return next page with its cursor
    */
   public Scroll scroll(String scrollId, MultiValueMap<String, String> searchParameters) {
     BuiltQuery builtQuery = getBuiltQuery(searchParameters);
-    try {
-      SearchRequest.Builder builder =
-          new SearchRequest.Builder()
-              .index(esService.getES_CHANNEL_INDEX())
-              .query(builtQuery.boolQuery.build()._toQuery())
-              .from(builtQuery.from)
-              .size(builtQuery.size)
-              .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("name")))));
-      if (scrollId != null && !scrollId.isEmpty()) {
-        builder.searchAfter(FieldValue.of(scrollId));
+    String pitId = null;
+    List<FieldValue> searchAfter = null;
+    Optional<SearchCursor> cursor = SearchCursor.decode(scrollId);
+    if (cursor.isPresent()) {
+      pitId = cursor.get().pitId();
+      searchAfter = cursor.get().searchAfter();
+    } else if (scrollId != null && !scrollId.isEmpty()) {
+      // scroll id issued before point in time scrolling: the name of the last channel
+      searchAfter = List.of(FieldValue.of(scrollId));
+    }
+    try (SearchAdmissionControl.Permit permit =
+        admissionControl.acquire(searchParameters, builtQuery.size)) {
+      if (scrollId == null || scrollId.isEmpty()) {
+        pitId = openPointInTime();
+      }
+      SearchResponse<Channel> response;
+      try {
+        response =
+            searchClient.search(scrollRequest(builtQuery, pitId, searchAfter), Channel.class);
+      } catch (ElasticsearchException e) {
+        if (pitId == null || searchAfter == null || e.status() != 404) {
+          throw e;
+        }
+        logger.log(
+            Level.WARNING,
+            () ->
+                "Point in time of scroll expired, continuing on the live index: " + e.getMessage());
+        pitId = null;
+        searchAfter = liveSearchAfter(searchAfter, builtQuery.sort);
+        response = searchClient.search(scrollRequest(builtQuery, null, searchAfter), Channel.class);
       }
-      SearchResponse<Channel> response = client.search(builder.build(), Channel.class);
       List<Hit<Channel>> hits = response.hits().hits();
+
+      String nextPitId = pitId != null && response.pitId() != null ? response.pitId() : pitId;
+      if (nextPitId != null && (hits.isEmpty() || hits.size() < builtQuery.size)) {
+        closePointInTime(nextPitId);
+        nextPitId = null;
+      }
+      String nextScrollId = null;
+      if (!hits.isEmpty()) {
+        List<FieldValue> lastSort = hits.get(hits.size() - 1).sort();
+        nextScrollId =
+            new SearchCursor(
+                    nextPitId,
+                    nextPitId != null ? lastSort : liveSearchAfter(lastSort, builtQuery.sort))
+                .encode();
+      }
       return new Scroll(
-          !hits.isEmpty() ? hits.get(hits.size() - 1).id() : null,
-          hits.stream().map(Hit::source).toList());
+          nextScrollId, hits.stream().map(Hit::source).map(builtQuery.projection::apply).toList());
+    } catch (IOException | ElasticsearchException e) {
+      if (pitId != null && (scrollId == null || scrollId.isEmpty())) {
+        closePointInTime(pitId);
+      }
+      String message =
+          MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+      throw new RepositoryException(message, e);
+    }
+  }
+
+  private SearchRequest scrollRequest(
+      BuiltQuery builtQuery, String pitId, List<FieldValue> searchAfter) {
+    SearchRequest.Builder builder =
+        new SearchRequest.Builder()
+            .query(builtQuery.boolQuery.build()._toQuery())
+            .from(builtQuery.from)
+            .size(builtQuery.size)
+            .sort(builtQuery.sort.options());
+    if (pitId != null) {
+      // the preference of a point in time is set when it is opened
+      builder.pit(p -> p.id(pitId).keepAlive(t -> t.time(scrollKeepAlive)));
+    } else {
+      builder
+          .index(esService.getES_CHANNEL_INDEX())
+          .preference(esService.getES_SEARCH_PREFERENCE());
+    }
+    if (searchAfter != null) {
+      builder.searchAfter(searchAfter);
+    }
+    builtQuery.projection.sourceConfig().ifPresent(builder::source);
+    return builder.build();
+  }
+
+  /**
+   * Searches on a point in time are implicitly sorted on {@code _shard_doc} after the requested
+   * sort. The requested sort ends on the unique channel name, so its values alone are the position
+   * on the live index.
+   */
+  private static List<FieldValue> liveSearchAfter(List<FieldValue> sort, ChannelSort channelSort) {
+    return sort.size() > channelSort.size() ? sort.subList(0, channelSort.size()) : sort;
+  }
+
+  private String openPointInTime() throws IOException {
+    return searchClient
+        .openPointInTime(
+            o ->
+                o.index(esService.getES_CHANNEL_INDEX())
+                    .keepAlive(t -> t.time(scrollKeepAlive))
+                    .preference(esService.getES_SEARCH_PREFERENCE()))
+        .id();
+  }
+
+  private void closePointInTime(String pitId) {
+    try {
+      searchClient.closePointInTime(c -> c.id(pitId));
+    } catch (IOException | ElasticsearchException e) {
+      // the point in time is released by Elasticsearch when its keep alive expires
+      logger.log(Level.WARNING, "Failed to close point in time of scroll", e);
+    }
+  }
+
+  /**
+   * Streaming search. Pages through all channels matching the search parameters with search_after
+   * on the channel name and hands each page to the consumer as soon as it arrives, so the full
+   * result is never held in memory. Accepts the same query parameters as {@link #search}; {@code
+   * ~size}, if given, limits the total number of channels rather than the page size. Each page is
+   * admitted on its own, no search permit is held while the consumer handles a page.
+   *
+   * @param searchParameters channel search parameters
+   * @param pageConsumer consumer called once per page, in channel name order
+   * @return number of channels handed to the consumer
+   */
+  public long stream(
+      MultiValueMap<String, String> searchParameters, Consumer<List<Channel>> pageConsumer) {
+    BuiltQuery builtQuery = getBuiltQuery(searchParameters);
+    long remaining = searchParameters.containsKey("~size") ? builtQuery.size : Long.MAX_VALUE;
+    int pageSize = Math.max(1, streamPageSize);
+
+    checkSearchAfter(searchParameters, builtQuery);
+    if (builtQuery.from + Math.min(pageSize, remaining)
+        > esService.getES_MAX_RESULT_WINDOW_SIZE()) {
+      String message =
+          MessageFormat.format(
+              TextUtil.SEARCH_FAILED_CAUSE,
+              searchParameters,
+              "Max search window exceeded, use the " + scrollResourceUri + " api.");
+      throw new ChannelValidationException(message);
+    }
+
+    Query query = builtQuery.boolQuery.build()._toQuery();
+    List<FieldValue> searchAfter = builtQuery.searchAfter.orElse(null);
+    int from = builtQuery.from;
+    // every page is a search of its own, the first one within the max result window
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>(searchParameters);
+    filters.remove("~from");
+    long streamed = 0;
+    try {
+      while (remaining > 0) {
+        int size = (int) Math.min(pageSize, remaining);
+        SearchRequest.Builder builder =
+            new SearchRequest.Builder()
+                .index(esService.getES_CHANNEL_INDEX())
+                .query(query)
+                .preference(esService.getES_SEARCH_PREFERENCE())
+                .from(from)
+                .size(size)
+                .trackTotalHits(t -> t.enabled(false))
+                .sort(builtQuery.sort.options());
+        if (searchAfter != null) {
+          builder.searchAfter(searchAfter);
+        }
+        builtQuery.projection.sourceConfig().ifPresent(builder::source);
+        List<Hit<Channel>> hits;
+        // admitted per page, no permit is held while the consumer writes a page out
+        try (SearchAdmissionControl.Permit permit = admissionControl.acquire(filters, size)) {
+          hits = searchClient.search(builder.build(), Channel.class).hits().hits();
+        }
+        if (hits.isEmpty()) {
+          break;
+        }
+        pageConsumer.accept(
+            hits.stream().map(Hit::source).map(builtQuery.projection::apply).toList());
+        streamed += hits.size();
+        remaining -= hits.size();
+        if (hits.size() < size) {
+          break;
+        }
+        // ~from only applies to the first page, later pages continue after the last hit
+        from = 0;
+        searchAfter = hits.get(hits.size() - 1).sort();
+      }
+      return streamed;
     } catch (IOException | ElasticsearchException e) {
       String message =
           MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+      logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message, e);
     }
   }
 
+  /**
+   * Parallel export. Opens a point in time on the channel index and reads it in the given number of
+   * slices, each slice on its own task of the given executor. Pages are handed to the consumer as
+   * soon as they arrive; pages of different slices arrive concurrently and in no particular order,
+   * so the consumer must be thread safe. Accepts the same filter parameters as {@link #search},
+   * paging parameters are ignored.
+   *
+   * @param searchParameters channel search parameters
+   * @param slices number of slices, 1 to read the point in time without slicing
+   * @param pageSize number of channels fetched per request and slice
+   * @param executor executor running the slices
+   * @param pageConsumer thread safe consumer called once per page
+   * @return number of channels handed to the consumer
+   */
+  public long export(
+      MultiValueMap<String, String> searchParameters,
+      int slices,
+      int pageSize,
+      Executor executor,
+      Consumer<List<Channel>> pageConsumer) {
+    BuiltQuery builtQuery = getBuiltQuery(searchParameters);
+    Query query = builtQuery.boolQuery.build()._toQuery();
+    // the slices read their pages concurrently, the ignored paging parameters cost nothing
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>(searchParameters);
+    filters.remove("~from");
+    filters.remove("~search_after");
+    try (SearchAdmissionControl.Permit permit =
+        admissionControl.acquire(filters, Math.max(1, slices) * pageSize)) {
+      return export(query, builtQuery.projection, slices, pageSize, executor, pageConsumer);
+    } catch (IOException | ElasticsearchException e) {
+      String message =
+          MessageFormat.format(TextUtil.SEARCH_FAILED_CAUSE, searchParameters, e.getMessage());
+      logger.log(Level.SEVERE, message, e);
+      throw new RepositoryException(message, e);
+    }
+  }
+
+  private long export(
+      Query query,
+      ChannelProjection projection,
+      int slices,
+      int pageSize,
+      Executor executor,
+      Consumer<List<Channel>> pageConsumer)
+      throws IOException {
+    String pitId = openPointInTime();
+
+    // set by the first failing slice so the others stop after their current page
+    AtomicBoolean failed = new AtomicBoolean();
+    List<CompletableFuture<Long>> futures = new ArrayList<>();
+    try {
+      for (int slice = 0; slice < slices; slice++) {
+        String sliceId = String.valueOf(slice);
+        SlicedScroll slicedScroll =
+            slices > 1 ? SlicedScroll.of(s -> s.id(sliceId).max(slices)) : null;
+        futures.add(
+            CompletableFuture.supplyAsync(
+                () -> {
+                  try {
+                    return exportSlice(
+                        query, projection, pitId, slicedScroll, pageSize, failed, pageConsumer);
+                  } catch (RuntimeException e) {
+                    failed.set(true);
+                    throw e;
+                  }
+                },
+                executor));
+      }
+      long exported = 0;
+      for (CompletableFuture<Long> future : futures) {
+        exported += future.join();
+      }
+      return exported;
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    } catch (RuntimeException e) {
+      // e.g. the executor rejected a slice, stop the slices already started
+      failed.set(true);
+      throw e;
+    } finally {
+      // the other slices may still read a page after one failed, wait for all of them before
+      // their point in time is closed
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+          .exceptionally(e -> null)
+          .join();
+      closePointInTime(pitId);
+    }
+  }
+
+  private long exportSlice(
+      Query query,
+      ChannelProjection projection,
+      String pitId,
+      SlicedScroll slicedScroll,
+      int pageSize,
+      AtomicBoolean failed,
+      Consumer<List<Channel>> pageConsumer) {
+    List<FieldValue> searchAfter = null;
+    long exported = 0;
+    try {
+      while (!failed.get()) {
+        SearchRequest.Builder builder =
+            new SearchRequest.Builder()
+                .pit(p -> p.id(pitId).keepAlive(t -> t.time(scrollKeepAlive)))
+                .query(query)
+                .size(pageSize)
+                .trackTotalHits(t -> t.enabled(false))
+                // index order, the cheapest sort on a point in time
+                .sort(SortOptions.of(o -> o.field(FieldSort.of(f -> f.field("_shard_doc")))));
+        if (slicedScroll != null) {
+          builder.slice(slicedScroll);
+        }
+        if (searchAfter != null) {
+          builder.searchAfter(searchAfter);
+        }
+        projection.sourceConfig().ifPresent(builder::source);
+        List<Hit<Channel>> hits = searchClient.search(builder.build(), Channel.class).hits().hits();
+        if (hits.isEmpty()) {
+          break;
+        }
+        pageConsumer.accept(hits.stream().map(Hit::source).map(projection::apply).toList());
+        exported += hits.size();
+        if (hits.size() < pageSize) {
+          break;
+        }
+        searchAfter = hits.get(hits.size() - 1).sort();
+      }
+      return exported;
+    } catch (IOException | ElasticsearchException e) {
+      String message =
+          MessageFormat.format(
+              TextUtil.SEARCH_FAILED_CAUSE, "export slice " + slicedScroll, e.getMessage());
+      logger.log(Level.SEVERE, message, e);
+      throw new RepositoryException(message, e);
+    }
+  }
+
+  /**
+   * @return number of primary shards of the channel index, 1 if it cannot be determined
+   */
+  public int shardCount() {
+    try {
+      GetIndicesSettingsResponse response =
+          searchClient.indices().getSettings(g -> g.index(esService.getES_CHANNEL_INDEX()));
+      for (IndexState state : response.result().values()) {
+        IndexSettings settings = state.settings();
+        String shards = settings == null ? null : settings.numberOfShards();
+        if (shards == null && settings != null && settings.index() != null) {
+          shards = settings.index().numberOfShards();
+        }
+        if (shards != null) {
+          return Math.max(1, Integer.parseInt(shards));
+        }
+      }
+    } catch (IOException | ElasticsearchException | NumberFormatException e) {
+      logger.log(Level.WARNING, "Failed to read the shard count of the channel index", e);
+    }
+    return 1;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public void deleteAllById(Iterable<? extends String> ids) {
@@ -838,7 +1912,7 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
       for (String id : chunk) {
         br.operations(op -> op.delete(del -> del.index(esService.getES_CHANNEL_INDEX()).id(id)));
       }
-      br.refresh(Refresh.True);
+      br.refresh(indexRefresher.policy(Operation.BULK));
 
       try {
         BulkResponse result = client.bulk(br.build());
@@ -864,10 +1938,16 @@ public class ChannelRepository implements CrudRepository<Channel, String> {
             e);
       }
     }
+    channelsChanged(Operation.BULK);
 
     return deletedCount;
   }
 
+  /** Must be called after every completed write to the channel index. */
+  private void channelsChanged(Operation operation) {
+    indexRefresher.written(operation, Index.CHANNEL);
+  }
+
   /**
    * Normalizes channel IDs by dropping null/blank values and removing duplicates while preserving
    * encounter order.
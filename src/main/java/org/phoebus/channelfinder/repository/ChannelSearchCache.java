@@ -0,0 +1,142 @@
+package org.phoebus.channelfinder.repository;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.phoebus.channelfinder.common.SearchParamUtil;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.entity.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Bounded in-process cache of {@link ChannelRepository#search} results.
+ *
+ * <p>Entries are keyed by the normalized search parameters together with a generation number. Every
+ * write to the channel index calls {@link #invalidate()}, which bumps the generation and drops all
+ * entries, so a search that was already in flight during a write can never be served again. Only
+ * the writes made through this instance invalidate it: when other instances write to the same
+ * index, results stay stale up to {@code repository.search.cache.expire_seconds}. The cache is
+ * therefore off unless {@code repository.search.cache.enabled} is set, and its expiry is short.
+ *
+ * <p>The cache is bounded by an estimate of the heap used by the cached channels and evicts the
+ * least recently used entries first. Hit, miss and eviction counts are published under the {@code
+ * cf.channel.search} cache name.
+ */
+@Component
+public class ChannelSearchCache {
+
+  private static final Logger logger = Logger.getLogger(ChannelSearchCache.class.getName());
+
+  public static final String CACHE_NAME = "cf.channel.search";
+
+  // rough per-object overheads used when estimating the size of a cached result
+  private static final int OBJECT_OVERHEAD = 48;
+  private static final int CHANNEL_OVERHEAD = 96;
+
+  private final boolean enabled;
+  private final AtomicLong generation = new AtomicLong();
+  private final Cache<Key, SearchResult> cache;
+
+  public ChannelSearchCache(
+      @Value("${repository.search.cache.enabled:false}") boolean enabled,
+      @Value("${repository.search.cache.max_bytes:67108864}") long maxBytes,
+      @Value("${repository.search.cache.expire_seconds:30}") long expireSeconds,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled && maxBytes > 0;
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().recordStats().maximumWeight(Math.max(maxBytes, 0));
+    if (expireSeconds > 0) {
+      builder.expireAfterWrite(Duration.ofSeconds(expireSeconds));
+    }
+    this.cache = builder.weigher((Key key, SearchResult result) -> weigh(key, result)).build();
+    GuavaCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    logger.log(
+        Level.CONFIG,
+        () -> "Channel search cache enabled: " + this.enabled + ", max bytes: " + maxBytes);
+  }
+
+  /**
+   * Return the cached result for the given search parameters, or run the search and cache its
+   * result.
+   *
+   * <p>Callers are free to modify the returned result; cached entries are never handed out
+   * directly.
+   *
+   * @param searchParameters channel search parameters
+   * @param search the search to run on a cache miss
+   * @return the search result
+   */
+  public SearchResult get(
+      MultiValueMap<String, String> searchParameters, Supplier<SearchResult> search) {
+    if (!enabled) {
+      return search.get();
+    }
+    Key key = new Key(generation.get(), SearchParamUtil.normalize(searchParameters));
+    SearchResult cached = cache.getIfPresent(key);
+    if (cached != null) {
+      return cached.copy();
+    }
+    SearchResult result = search.get();
+    cache.put(key, result.copy());
+    return result;
+  }
+
+  /** Drop all cached results. Must be called after every write to the channel index. */
+  public void invalidate() {
+    generation.incrementAndGet();
+    cache.invalidateAll();
+  }
+
+  /**
+   * @return number of writes to the channel index seen so far, increases with every {@link
+   *     #invalidate()}
+   */
+  public long generation() {
+    return generation.get();
+  }
+
+  long size() {
+    return cache.size();
+  }
+
+  /**
+   * Estimate the heap used by a cached result.
+   *
+   * @param key cache key
+   * @param result cached result
+   * @return estimated size in bytes, capped at {@link Integer#MAX_VALUE}
+   */
+  static int weigh(Key key, SearchResult result) {
+    long bytes = OBJECT_OVERHEAD + sizeOf(key.parameters());
+    for (Channel channel : result.channels()) {
+      bytes += CHANNEL_OVERHEAD + sizeOf(channel.getName()) + sizeOf(channel.getOwner());
+      for (Property property : channel.getProperties()) {
+        bytes +=
+            OBJECT_OVERHEAD
+                + sizeOf(property.getName())
+                + sizeOf(property.getOwner())
+                + sizeOf(property.getValue());
+      }
+      for (Tag tag : channel.getTags()) {
+        bytes += OBJECT_OVERHEAD + sizeOf(tag.getName()) + sizeOf(tag.getOwner());
+      }
+    }
+    return (int) Math.min(bytes, Integer.MAX_VALUE);
+  }
+
+  private static long sizeOf(String value) {
+    return value == null ? 0 : OBJECT_OVERHEAD + 2L * value.length();
+  }
+
+  record Key(long generation, String parameters) {}
+}
@@ -0,0 +1,123 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch._types.FieldSort;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+
+/**
+ * Sort order of a channel search, built from the {@code ~sort} search parameter.
+ *
+ * <p>Each value is a field with an optional direction, {@code field[:asc|:desc]}, ascending by
+ * default. The channel fields {@code name} and {@code owner} sort on the field itself; any other
+ * value is taken as a property name and sorts on the value of that property, channels without the
+ * property last. The channel name is appended as tiebreaker unless it is already part of the sort,
+ * so the sort values of a hit always identify its position and can be used with {@code
+ * search_after}.
+ */
+final class ChannelSort {
+
+  private static final String NAME_FIELD = "name";
+  private static final String OWNER_FIELD = "owner";
+
+  static final ChannelSort NAME = new ChannelSort(List.of(fieldSort(NAME_FIELD, SortOrder.Asc)));
+
+  private final List<SortOptions> options;
+
+  private ChannelSort(List<SortOptions> options) {
+    this.options = options;
+  }
+
+  /**
+   * Build the sort for the given sort values.
+   *
+   * @param values values of {@code ~sort}, split into single {@code field[:asc|:desc]} entries
+   * @param queryCompiler compiler of the property name filter of property sorts
+   * @return the sort, {@link #NAME} if no values were given
+   * @throws ChannelValidationException if a value has a direction but no field
+   */
+  static ChannelSort of(Collection<String> values, ChannelQueryCompiler queryCompiler) {
+    List<SortOptions> options = new ArrayList<>();
+    boolean byName = false;
+    for (String value : values) {
+      String spec = value.trim();
+      if (spec.isEmpty()) {
+        continue;
+      }
+      String field = spec;
+      SortOrder order = SortOrder.Asc;
+      int separator = spec.lastIndexOf(':');
+      if (separator >= 0) {
+        // property names may contain ':', only a known direction is split off
+        SortOrder direction = parseOrder(spec.substring(separator + 1).trim());
+        if (direction != null) {
+          field = spec.substring(0, separator).trim();
+          order = direction;
+        }
+      }
+      if (field.isEmpty()) {
+        throw new ChannelValidationException(
+            MessageFormat.format(TextUtil.SEARCH_SORT_INVALID, spec));
+      }
+      if (NAME_FIELD.equals(field) || OWNER_FIELD.equals(field)) {
+        byName |= NAME_FIELD.equals(field);
+        options.add(fieldSort(field, order));
+      } else {
+        options.add(propertySort(field, order, queryCompiler));
+      }
+    }
+    if (options.isEmpty()) {
+      return NAME;
+    }
+    if (!byName) {
+      options.add(fieldSort(NAME_FIELD, SortOrder.Asc));
+    }
+    return new ChannelSort(List.copyOf(options));
+  }
+
+  private static SortOrder parseOrder(String direction) {
+    return switch (direction.toLowerCase(Locale.ROOT)) {
+      case "asc" -> SortOrder.Asc;
+      case "desc" -> SortOrder.Desc;
+      default -> null;
+    };
+  }
+
+  private static SortOptions fieldSort(String field, SortOrder order) {
+    return SortOptions.of(o -> o.field(FieldSort.of(f -> f.field(field).order(order))));
+  }
+
+  private static SortOptions propertySort(
+      String propertyName, SortOrder order, ChannelQueryCompiler queryCompiler) {
+    Query nameFilter = queryCompiler.compile("properties.name", propertyName);
+    return SortOptions.of(
+        o ->
+            o.field(
+                FieldSort.of(
+                    f ->
+                        f.field("properties.value")
+                            .order(order)
+                            .nested(n -> n.path("properties").filter(nameFilter)))));
+  }
+
+  /**
+   * @return the sort options to send with the search
+   */
+  List<SortOptions> options() {
+    return options;
+  }
+
+  /**
+   * @return number of sort values of each hit, not counting the implicit point in time tiebreaker
+   */
+  int size() {
+    return options.size();
+  }
+}
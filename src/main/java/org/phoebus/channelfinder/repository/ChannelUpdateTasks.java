@@ -0,0 +1,531 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Conflicts;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Script;
+import co.elastic.clients.elasticsearch._types.ScriptLanguage;
+import co.elastic.clients.elasticsearch._types.Slices;
+import co.elastic.clients.elasticsearch._types.SlicesCalculation;
+import co.elastic.clients.elasticsearch._types.query_dsl.NestedQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.elasticsearch.core.UpdateByQueryRequest;
+import co.elastic.clients.elasticsearch.tasks.CancelRequest;
+import co.elastic.clients.elasticsearch.tasks.GetTasksRequest;
+import co.elastic.clients.elasticsearch.tasks.GetTasksResponse;
+import co.elastic.clients.json.JsonData;
+import jakarta.json.JsonObject;
+import jakarta.json.JsonValue;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.configuration.ElasticConfig;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.ChannelTask.Subject;
+import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Updates of many channels run by Elasticsearch as background update by query tasks, instead of
+ * reading the channels into the service and writing them back.
+ *
+ * <p>The channels are updated in slices running in parallel. A run of the update takes a snapshot
+ * of the matching channels when it starts. Channels modified after that are skipped and counted as
+ * version conflicts, so a run never overwrites a newer write. The update is run again for the
+ * skipped channels, at most {@link #MAX_RERUNS} times, a task with channels still skipped after
+ * that failed. The channel index is refreshed when a run completes, the completion of the runs is
+ * detected by polling them.
+ *
+ * <p>Only the tasks started by this service are known by their ids, any other task of the cluster
+ * is not found. Completed tasks are forgotten after {@link #RETAIN_COMPLETED}.
+ */
+@Component
+public class ChannelUpdateTasks {
+
+  private static final Logger logger = Logger.getLogger(ChannelUpdateTasks.class.getName());
+
+  /**
+   * Time of the waits for a task in {@link #await}, kept below the socket timeout of the client.
+   */
+  static final String AWAIT_INTERVAL = "20s";
+
+  /** Time a completed task can still be polled. */
+  static final Duration RETAIN_COMPLETED = Duration.ofHours(1);
+
+  /** Number of times the update is run again for the channels modified while it ran. */
+  static final int MAX_RERUNS = 5;
+
+  private final ElasticConfig esService;
+  private final ElasticsearchClient client;
+  private final IndexChangeTracker changeTracker;
+  private final IndexRefresher indexRefresher;
+  private final Slices slices;
+  private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+  public ChannelUpdateTasks(
+      ElasticConfig esService,
+      @Qualifier("indexClient") ElasticsearchClient client,
+      IndexChangeTracker changeTracker,
+      IndexRefresher indexRefresher,
+      @Value("${repository.channel_tasks.slices:auto}") String slices) {
+    this.esService = esService;
+    this.client = client;
+    this.changeTracker = changeTracker;
+    this.indexRefresher = indexRefresher;
+    this.slices = parseSlices(slices);
+  }
+
+  /**
+   * @param slices "auto" for one slice per shard, or the number of slices
+   * @return the slices of the update by query requests, which run in parallel
+   */
+  static Slices parseSlices(String slices) {
+    if (slices.strip().equalsIgnoreCase("auto")) {
+      return Slices.of(s -> s.computed(SlicesCalculation.Auto));
+    }
+    try {
+      int value = Integer.parseInt(slices.strip());
+      if (value > 0) {
+        return Slices.of(s -> s.value(value));
+      }
+    } catch (NumberFormatException e) {
+      // rejected below
+    }
+    throw new IllegalArgumentException(
+        "Invalid channel task slices " + slices + ", expected auto or a positive number");
+  }
+
+  /**
+   * Start a task updating all channels matching the query with the script.
+   *
+   * @param subject whether the task updates a tag or a property of the channels
+   * @param query channels to update
+   * @param script painless script updating one channel
+   * @param waitForCompletion time to wait for the task to complete, e.g. "20s"
+   * @return the task, completed if it completed within the wait
+   */
+  public ChannelTask start(Subject subject, Query query, Script script, String waitForCompletion) {
+    return start(subject, query, script, null, waitForCompletion);
+  }
+
+  /**
+   * Start a task updating all channels matching the query with the script, then completing with the
+   * given action once all channels were updated. The action is not run if the task failed or was
+   * cancelled; if it throws, the task failed.
+   *
+   * @param subject whether the task updates a tag or a property of the channels
+   * @param query channels to update
+   * @param script painless script updating one channel
+   * @param onCompleted run once the task updated all channels, may be null
+   * @param waitForCompletion time to wait for the task to complete, e.g. "20s"
+   * @return the task, completed if it completed within the wait
+   */
+  public ChannelTask start(
+      Subject subject, Query query, Script script, Runnable onCompleted, String waitForCompletion) {
+    Job job = new Job(subject, query, script, onCompleted);
+    job.run = run(job);
+    String id = job.run;
+    jobs.put(id, job);
+    return get(id, waitForCompletion).orElseThrow(() -> failure(id, null));
+  }
+
+  /**
+   * Start a task updating all channels with the tag or property of the given name, ignoring case,
+   * with a painless script, then completing with the given action like {@link #start(Subject,
+   * Query, Script, Runnable, String)}. The script finds the name in {@code params.name}.
+   *
+   * @param subject whether the task updates a tag or a property of the channels
+   * @param name name of the tag or property
+   * @param source painless script updating one channel
+   * @param params further parameters of the script
+   * @param onCompleted run once the task updated all channels, may be null
+   * @param waitForCompletion time to wait for the task to complete, e.g. "20s"
+   * @return the task, completed if it completed within the wait
+   */
+  public ChannelTask start(
+      Subject subject,
+      String name,
+      String source,
+      Map<String, JsonData> params,
+      Runnable onCompleted,
+      String waitForCompletion) {
+    // the task only sees the channels written so far once they are refreshed
+    indexRefresher.refresh(Index.CHANNEL);
+    Map<String, JsonData> scriptParams = new HashMap<>(params);
+    scriptParams.put("name", JsonData.of(name));
+    Script script =
+        Script.of(s -> s.source(source).lang(ScriptLanguage.Painless).params(scriptParams));
+    return start(subject, query(subject, name), script, onCompleted, waitForCompletion);
+  }
+
+  /** The channels with the tag or property of the given name, ignoring case. */
+  static Query query(Subject subject, String name) {
+    String path = subject == Subject.TAG ? "tags" : "properties";
+    return NestedQuery.of(
+            n ->
+                n.path(path)
+                    .query(
+                        TermQuery.of(t -> t.field(path + ".name").value(name).caseInsensitive(true))
+                            ._toQuery()))
+        ._toQuery();
+  }
+
+  /** Start a run of the update by query of a task, returns the id of the Elasticsearch task. */
+  private String run(Job job) {
+    try {
+      return client
+          .updateByQuery(
+              UpdateByQueryRequest.of(
+                  u ->
+                      u.index(esService.getES_CHANNEL_INDEX())
+                          .query(job.query)
+                          .script(job.script)
+                          .slices(slices)
+                          .conflicts(Conflicts.Proceed)
+                          .refresh(true)
+                          .waitForCompletion(false)))
+          .task();
+    } catch (ElasticsearchException | IOException e) {
+      throw failure("update by query", e);
+    }
+  }
+
+  /**
+   * Get the state of a task, waiting up to the given time for it to complete.
+   *
+   * @param id id of the task
+   * @param waitForCompletion time to wait for the task to complete, null to return at once
+   * @return the task, empty if it does not exist or was not started by this service
+   */
+  public Optional<ChannelTask> get(String id, String waitForCompletion) {
+    Job job = jobs.get(id);
+    if (job == null) {
+      return Optional.empty();
+    }
+    if (job.result != null) {
+      return Optional.of(job.result);
+    }
+    String run = job.run;
+    GetTasksResponse response;
+    try {
+      try {
+        GetTasksRequest.Builder request = new GetTasksRequest.Builder().taskId(run);
+        if (waitForCompletion != null) {
+          request.waitForCompletion(true).timeout(t -> t.time(waitForCompletion));
+        }
+        response = client.tasks().get(request.build());
+      } catch (ElasticsearchException e) {
+        if (waitForCompletion == null || e.status() != 408) {
+          throw e;
+        }
+        // still running after the wait
+        response = client.tasks().get(GetTasksRequest.of(g -> g.taskId(run)));
+      }
+    } catch (ElasticsearchException e) {
+      if (e.status() == 404) {
+        jobs.remove(id);
+        return Optional.empty();
+      }
+      throw failure(id, e);
+    } catch (IOException e) {
+      throw failure(id, e);
+    }
+    Run state = run(response);
+    synchronized (job) {
+      if (!run.equals(job.run) || job.result != null) {
+        // completed or run again by a concurrent poll
+        return get(id, null);
+      }
+      if (!state.completed()) {
+        return Optional.of(job.task(id, state));
+      }
+      job.add(state);
+      // the run refreshed the channel index when it completed
+      changeTracker.changed(Index.CHANNEL);
+      if (job.rerun(state)) {
+        logger.log(
+            Level.CONFIG,
+            () ->
+                MessageFormat.format(
+                    TextUtil.CHANNEL_TASK_RERUN, id, state.versionConflicts(), job.reruns + 1));
+        // the next run only sees the channels written meanwhile once they are refreshed
+        indexRefresher.refresh(Index.CHANNEL);
+        job.rerunStarted(run(job));
+        return Optional.of(job.task(id, null));
+      }
+      job.complete(id, state);
+      logger.log(
+          Level.CONFIG,
+          () ->
+              MessageFormat.format(
+                  TextUtil.CHANNEL_TASK_COMPLETED,
+                  id,
+                  job.result.updated(),
+                  job.result.total(),
+                  job.result.versionConflicts()));
+      return Optional.of(job.result);
+    }
+  }
+
+  /**
+   * Wait until a task is done, i.e. completed, failed or was cancelled.
+   *
+   * @param task the task to wait for
+   * @return the completed task
+   * @throws RepositoryException if the task failed or was cancelled
+   */
+  public ChannelTask await(ChannelTask task) {
+    while (!task.done()) {
+      String id = task.id();
+      task = get(id, AWAIT_INTERVAL).orElseThrow(() -> failure(id, null));
+    }
+    if (!task.completed()) {
+      throw failure(task.id(), new IllegalStateException(String.join(", ", task.failures())));
+    }
+    return task;
+  }
+
+  /**
+   * Cancel a task if it is still running. Channels updated before the cancellation stay updated.
+   *
+   * @param id id of the task
+   * @return the task, empty if it does not exist or was not started by this service
+   */
+  public Optional<ChannelTask> cancel(String id) {
+    Optional<ChannelTask> task = get(id, null);
+    if (task.isPresent() && !task.get().done()) {
+      Job job = jobs.get(id);
+      job.cancelled = true;
+      try {
+        client.tasks().cancel(CancelRequest.of(c -> c.taskId(job.run).waitForCompletion(true)));
+      } catch (ElasticsearchException | IOException e) {
+        throw failure(id, e);
+      }
+      return get(id, null);
+    }
+    return task;
+  }
+
+  /**
+   * Periodically detect the completion of the running tasks and forget the tasks completed long
+   * ago.
+   */
+  @Scheduled(fixedDelayString = "${repository.channel_tasks.poll_interval_ms:1000}")
+  void pollRunning() {
+    Instant expired = Instant.now().minus(RETAIN_COMPLETED);
+    for (Map.Entry<String, Job> job : jobs.entrySet()) {
+      Instant completed = job.getValue().completed;
+      if (completed == null) {
+        try {
+          get(job.getKey(), null);
+        } catch (RepositoryException e) {
+          // logged, retried with the next run
+        }
+      } else if (completed.isBefore(expired)) {
+        jobs.remove(job.getKey());
+      }
+    }
+  }
+
+  /**
+   * State and progress of a single update by query run of a task.
+   *
+   * @param completed true once the run finished, was cancelled or failed
+   * @param cancelled true if the run was cancelled
+   * @param total number of channels the run has to update
+   * @param processed number of channels processed so far
+   * @param updated number of channels updated so far
+   * @param versionConflicts number of channels skipped because they were modified meanwhile
+   * @param failures reasons of the failed updates, if any
+   */
+  record Run(
+      boolean completed,
+      boolean cancelled,
+      long total,
+      long processed,
+      long updated,
+      long versionConflicts,
+      List<String> failures) {}
+
+  /** A task started by this service, run again for the channels modified while it ran. */
+  static final class Job {
+    private final Subject subject;
+    private final Query query;
+    private final Script script;
+    private final Runnable onCompleted;
+    private volatile String run;
+    private volatile boolean cancelled;
+    private volatile ChannelTask result;
+    private volatile Instant completed;
+    private int reruns;
+    // of the completed runs, the total of the first one
+    private long total = -1;
+    private long processed;
+    private long updated;
+    private final List<String> failures = new ArrayList<>();
+
+    Job(Subject subject, Query query, Script script, Runnable onCompleted) {
+      this.subject = subject;
+      this.query = query;
+      this.script = script;
+      this.onCompleted = onCompleted;
+    }
+
+    /** Count a completed run. */
+    void add(Run run) {
+      if (total < 0) {
+        total = run.total();
+      }
+      // the skipped channels are processed again by the next run
+      processed += run.processed() - run.versionConflicts();
+      updated += run.updated();
+      failures.addAll(run.failures());
+    }
+
+    /** Whether to run the update again for the channels skipped by the completed run. */
+    boolean rerun(Run run) {
+      return run.versionConflicts() > 0
+          && failures.isEmpty()
+          && !run.cancelled()
+          && !cancelled
+          && reruns < MAX_RERUNS;
+    }
+
+    /** Continue the task with the given run. */
+    void rerunStarted(String run) {
+      this.run = run;
+      reruns++;
+    }
+
+    /**
+     * @return the done task, null while it is running
+     */
+    ChannelTask result() {
+      return result;
+    }
+
+    /** The task made of the completed runs and the given running one, if any. */
+    ChannelTask task(String id, Run running) {
+      long runningProcessed = running == null ? 0 : running.processed();
+      List<String> allFailures = new ArrayList<>(failures);
+      if (running != null) {
+        allFailures.addAll(running.failures());
+      }
+      return new ChannelTask(
+          id,
+          subject,
+          false,
+          false,
+          false,
+          total < 0 ? running.total() : total,
+          processed + runningProcessed,
+          updated + (running == null ? 0 : running.updated()),
+          running == null ? 0 : running.versionConflicts(),
+          allFailures);
+    }
+
+    /** Complete the task with its last run. */
+    void complete(String id, Run last) {
+      boolean wasCancelled = cancelled || last.cancelled();
+      List<String> allFailures = new ArrayList<>(failures);
+      if (last.versionConflicts() > 0 && !wasCancelled) {
+        allFailures.add(
+            MessageFormat.format(TextUtil.CHANNEL_TASK_CONFLICTS, last.versionConflicts(), reruns));
+      }
+      boolean failed = !wasCancelled && !allFailures.isEmpty();
+      result =
+          new ChannelTask(
+              id,
+              subject,
+              !wasCancelled && !failed,
+              failed,
+              wasCancelled,
+              total,
+              processed + last.versionConflicts(),
+              updated,
+              last.versionConflicts(),
+              allFailures);
+      if (result.completed() && onCompleted != null) {
+        try {
+          onCompleted.run();
+        } catch (RuntimeException e) {
+          allFailures.add(e.getMessage());
+          result =
+              new ChannelTask(
+                  id,
+                  subject,
+                  false,
+                  true,
+                  false,
+                  total,
+                  result.processed(),
+                  updated,
+                  0,
+                  allFailures);
+        }
+      }
+      completed = Instant.now();
+    }
+  }
+
+  static Run run(GetTasksResponse response) {
+    // the final response of a completed task, the status of a running one
+    JsonData state =
+        response.completed() && response.response() != null
+            ? response.response()
+            : response.task().status();
+    List<String> failures = new ArrayList<>();
+    if (response.error() != null) {
+      failures.add(response.error().reason());
+    }
+    return run(response.completed(), state.toJson().asJsonObject(), failures);
+  }
+
+  static Run run(boolean completed, JsonObject state, List<String> failures) {
+    JsonValue cancelled = state.get("canceled");
+    for (JsonValue failure :
+        state.getOrDefault("failures", JsonValue.EMPTY_JSON_ARRAY).asJsonArray()) {
+      JsonObject cause = failure.asJsonObject().getJsonObject("cause");
+      failures.add(
+          cause != null ? cause.getString("reason", cause.toString()) : failure.toString());
+    }
+    return new Run(
+        completed,
+        cancelled != null && cancelled != JsonValue.NULL,
+        count(state, "total"),
+        count(state, "updated")
+            + count(state, "created")
+            + count(state, "deleted")
+            + count(state, "noops")
+            + count(state, "version_conflicts"),
+        count(state, "updated"),
+        count(state, "version_conflicts"),
+        failures);
+  }
+
+  private static long count(JsonObject state, String name) {
+    return state.containsKey(name) ? state.getJsonNumber(name).longValue() : 0;
+  }
+
+  private static RepositoryException failure(String id, Exception e) {
+    String message =
+        MessageFormat.format(TextUtil.CHANNEL_TASK_FAILED, id, e != null ? e.getMessage() : null);
+    logger.log(Level.SEVERE, message, e);
+    return new RepositoryException(message, e);
+  }
+}
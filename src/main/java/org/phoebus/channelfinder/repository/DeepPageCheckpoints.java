@@ -0,0 +1,134 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.phoebus.channelfinder.common.SearchParamUtil;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Sparse index of search_after positions used to page past the max result window.
+ *
+ * <p>A search with a {@code ~from} beyond the window has to walk the sorted matches with
+ * search_after to reach its first hit. The sort values of every {@link #interval()}-th match met on
+ * the way are kept per query shape, the search parameters without the paging and projection ones,
+ * so later pages of the same query start from the nearest checkpoint instead of the first match.
+ *
+ * <p>Checkpoints belong to a version of the channel index and are dropped with the first lookup
+ * after a write through this instance. Writes made through other instances are not seen, so
+ * checkpoints also expire {@code repository.deep_paging.expire_seconds} after they were first
+ * taken. The number of query shapes is bounded and the least recently used shapes are evicted
+ * first.
+ */
+@Component
+public class DeepPageCheckpoints {
+
+  private static final Logger logger = Logger.getLogger(DeepPageCheckpoints.class.getName());
+
+  // parameters that select a page or the returned fields, not the ordered list of matches
+  private static final Set<String> PAGING_PARAMETERS =
+      Set.of("~from", "~size", "~search_after", "~track_total_hits", "~fields", "~exclude");
+
+  private final int interval;
+  private final IndexChangeTracker changeTracker;
+  private final Cache<String, Checkpoints> cache;
+
+  public DeepPageCheckpoints(
+      @Value("${repository.deep_paging.interval:10000}") int interval,
+      @Value("${repository.deep_paging.max_queries:1000}") long maxQueries,
+      @Value("${repository.deep_paging.expire_seconds:30}") long expireSeconds,
+      IndexChangeTracker changeTracker) {
+    this.interval = interval;
+    this.changeTracker = changeTracker;
+    CacheBuilder<Object, Object> builder =
+        CacheBuilder.newBuilder().maximumSize(Math.max(maxQueries, 0));
+    if (expireSeconds > 0) {
+      builder.expireAfterWrite(Duration.ofSeconds(expireSeconds));
+    }
+    this.cache = builder.build();
+    logger.log(Level.CONFIG, () -> "Deep paging checkpoint interval: " + interval);
+  }
+
+  /**
+   * @return whether searches may page past the max result window
+   */
+  public boolean enabled() {
+    return interval > 0;
+  }
+
+  /**
+   * @return number of matches between two checkpoints
+   */
+  public int interval() {
+    return interval;
+  }
+
+  /**
+   * Return the checkpoints of the query, empty if the channel index changed since they were taken.
+   *
+   * @param searchParameters channel search parameters
+   * @return checkpoints of the query shape
+   */
+  public Checkpoints get(MultiValueMap<String, String> searchParameters) {
+    String shape = shape(searchParameters);
+    long version = changeTracker.version(Index.CHANNEL);
+    Checkpoints checkpoints = cache.getIfPresent(shape);
+    if (checkpoints == null || checkpoints.version != version) {
+      checkpoints = new Checkpoints(version);
+      cache.put(shape, checkpoints);
+    }
+    return checkpoints;
+  }
+
+  static String shape(MultiValueMap<String, String> searchParameters) {
+    MultiValueMap<String, String> shape = new LinkedMultiValueMap<>();
+    searchParameters.forEach(
+        (key, values) -> {
+          if (!PAGING_PARAMETERS.contains(key.trim())) {
+            shape.put(key, values);
+          }
+        });
+    return SearchParamUtil.normalize(shape);
+  }
+
+  /** Sort values of the last match before each checkpointed position of one query. */
+  public static final class Checkpoints {
+
+    private final long version;
+    private final NavigableMap<Integer, List<FieldValue>> positions = new ConcurrentSkipListMap<>();
+
+    Checkpoints(long version) {
+      this.version = version;
+    }
+
+    /**
+     * @param position number of matches before the wanted hit
+     * @return the checkpoint closest to, and not after, the position, null if there is none
+     */
+    public Map.Entry<Integer, List<FieldValue>> floor(int position) {
+      return positions.floorEntry(position);
+    }
+
+    /**
+     * Record the sort values of the last of the first {@code position} matches.
+     *
+     * @param position number of matches walked
+     * @param searchAfter sort values of the last walked match
+     */
+    public void put(int position, List<FieldValue> searchAfter) {
+      positions.put(position, List.copyOf(searchAfter));
+    }
+  }
+}
@@ -0,0 +1,112 @@
+package org.phoebus.channelfinder.repository;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Component;
+
+/**
+ * Change versions of the channel, tag and property indices.
+ *
+ * <p>Every completed repository write takes the next sequence number of the indices it modified
+ * with {@link #write}. The version of an index is the highest sequence number whose write is known
+ * to be visible to searches: writes made with a refresh become visible at once, the others with the
+ * next refresh of the index, see {@link IndexRefresher}. A reader that takes the version before it
+ * reads Elasticsearch therefore never pairs an old version with data it has not seen.
+ *
+ * <p>Sequence numbers start at zero on every start of the service; {@link #epoch()} tells those of
+ * different runs apart. They only count writes made through this service instance.
+ */
+@Component
+public class IndexChangeTracker {
+
+  /** The tracked indices. */
+  public enum Index {
+    CHANNEL,
+    TAG,
+    PROPERTY
+  }
+
+  private final long epoch = System.currentTimeMillis();
+  private final Map<Index, AtomicLong> written = new EnumMap<>(Index.class);
+  private final Map<Index, AtomicLong> versions = new EnumMap<>(Index.class);
+  private final Map<Index, List<Runnable>> listeners = new EnumMap<>(Index.class);
+
+  public IndexChangeTracker() {
+    for (Index index : Index.values()) {
+      written.put(index, new AtomicLong());
+      versions.put(index, new AtomicLong());
+      listeners.put(index, new CopyOnWriteArrayList<>());
+    }
+  }
+
+  /**
+   * Record a completed write that is already visible to searches.
+   *
+   * @param indices the indices that were modified
+   */
+  public void changed(Index... indices) {
+    for (Index index : indices) {
+      visible(index, write(index));
+    }
+  }
+
+  /**
+   * Record a completed write.
+   *
+   * @param index the modified index
+   * @return sequence number of the write
+   */
+  public long write(Index index) {
+    return written.get(index).incrementAndGet();
+  }
+
+  /**
+   * @param index tracked index
+   * @return sequence number of the last completed write to the index
+   */
+  public long written(Index index) {
+    return written.get(index).get();
+  }
+
+  /**
+   * Record that the writes up to the given sequence number are visible to searches, and notify the
+   * listeners of the index if that advanced its version.
+   *
+   * @param index tracked index
+   * @param sequence sequence number of the last visible write
+   */
+  public void visible(Index index, long sequence) {
+    AtomicLong version = versions.get(index);
+    if (version.getAndAccumulate(sequence, Math::max) < sequence) {
+      listeners.get(index).forEach(Runnable::run);
+    }
+  }
+
+  /**
+   * @param index tracked index
+   * @return sequence number of the last write to the index that is visible to searches
+   */
+  public long version(Index index) {
+    return versions.get(index).get();
+  }
+
+  /**
+   * Run the listener every time writes to the index become visible to searches.
+   *
+   * @param index tracked index
+   * @param listener listener, called on the thread that made the writes visible
+   */
+  public void onChange(Index index, Runnable listener) {
+    listeners.get(index).add(listener);
+  }
+
+  /**
+   * @return start time of the service in milliseconds, identifies the run the versions belong to
+   */
+  public long epoch() {
+    return epoch;
+  }
+}
@@ -0,0 +1,199 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import java.io.IOException;
+import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.configuration.ElasticConfig;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refresh policy of the repository writes and visibility of the writes made without a refresh.
+ *
+ * <p>Each kind of write uses its configured policy: {@code true} refreshes the index before the
+ * write returns, {@code wait_for} waits for the next refresh and {@code none} returns at once.
+ * Writes made with {@code none} become visible with the next refresh of their index, which happens
+ * at the latest after the pending interval, so that any number of such writes shares one refresh
+ * and one new segment instead of creating one each.
+ *
+ * <p>A consistency {@link #token()} taken after a write lets a later read {@link #await} that
+ * write: the indices with writes up to the token that are not yet visible are refreshed before the
+ * read.
+ */
+@Component
+public class IndexRefresher {
+
+  private static final Logger logger = Logger.getLogger(IndexRefresher.class.getName());
+
+  /** Kinds of writes with their own refresh policy. */
+  public enum Operation {
+    /** Create, update or delete of a single document. */
+    SINGLE,
+    /** Bulk writes of many documents. */
+    BULK,
+    /** Removal of a tag or property from all channels. */
+    DELETE
+  }
+
+  private final ElasticConfig esService;
+  private final ElasticsearchClient client;
+  private final IndexChangeTracker changeTracker;
+  private final Map<Operation, Refresh> policies = new EnumMap<>(Operation.class);
+  private final Map<Index, Object> locks = new EnumMap<>(Index.class);
+
+  public IndexRefresher(
+      ElasticConfig esService,
+      @Qualifier("indexClient") ElasticsearchClient client,
+      IndexChangeTracker changeTracker,
+      @Value("${repository.refresh.single:wait_for}") String single,
+      @Value("${repository.refresh.bulk:wait_for}") String bulk,
+      @Value("${repository.refresh.delete:wait_for}") String delete) {
+    this.esService = esService;
+    this.client = client;
+    this.changeTracker = changeTracker;
+    policies.put(Operation.SINGLE, parse(single));
+    policies.put(Operation.BULK, parse(bulk));
+    policies.put(Operation.DELETE, parse(delete));
+    for (Index index : Index.values()) {
+      locks.put(index, new Object());
+    }
+    logger.log(Level.CONFIG, () -> "Refresh policies: " + policies);
+  }
+
+  static Refresh parse(String policy) {
+    return switch (policy.strip().toLowerCase(Locale.ROOT)) {
+      case "true" -> Refresh.True;
+      case "wait_for" -> Refresh.WaitFor;
+      case "none", "false" -> Refresh.False;
+      default ->
+          throw new IllegalArgumentException(
+              "Invalid refresh policy " + policy + ", expected none, wait_for or true");
+    };
+  }
+
+  /**
+   * @param operation kind of write
+   * @return refresh parameter of the write requests
+   */
+  public Refresh policy(Operation operation) {
+    return policies.get(operation);
+  }
+
+  /**
+   * Record a completed write, must be called after every write to an index.
+   *
+   * @param operation kind of write, its refresh policy tells whether the write is visible
+   * @param indices the indices that were modified
+   */
+  public void written(Operation operation, Index... indices) {
+    boolean refreshed = policy(operation) != Refresh.False;
+    for (Index index : indices) {
+      long sequence = changeTracker.write(index);
+      if (refreshed) {
+        changeTracker.visible(index, sequence);
+      }
+    }
+  }
+
+  /**
+   * Make the completed writes to the indices visible to searches, refreshing only the indices with
+   * writes that are not yet visible.
+   *
+   * @param indices indices to refresh
+   */
+  public void refresh(Index... indices) {
+    for (Index index : indices) {
+      refresh(index, changeTracker.written(index));
+    }
+  }
+
+  private void refresh(Index index, long sequence) {
+    // concurrent callers wait for one refresh instead of each sending their own
+    synchronized (locks.get(index)) {
+      if (changeTracker.version(index) >= sequence) {
+        return;
+      }
+      long written = changeTracker.written(index);
+      try {
+        client.indices().refresh(RefreshRequest.of(r -> r.index(indexName(index))));
+      } catch (ElasticsearchException | IOException e) {
+        String message = MessageFormat.format(TextUtil.REFRESH_FAILED, indexName(index));
+        logger.log(Level.SEVERE, message, e);
+        throw new RepositoryException(message, e);
+      }
+      changeTracker.visible(index, written);
+    }
+  }
+
+  /** Periodically make the writes made without a refresh visible. */
+  @Scheduled(fixedDelayString = "${repository.refresh.pending_interval_ms:1000}")
+  void refreshPending() {
+    try {
+      refresh(Index.values());
+    } catch (RepositoryException e) {
+      // logged, retried with the next run
+    }
+  }
+
+  /**
+   * @return consistency token covering all writes completed so far
+   */
+  public String token() {
+    StringBuilder token = new StringBuilder(Long.toHexString(changeTracker.epoch()));
+    for (Index index : Index.values()) {
+      token.append('.').append(Long.toHexString(changeTracker.written(index)));
+    }
+    return token.toString();
+  }
+
+  /**
+   * Wait until the writes covered by the token are visible to searches. Tokens of an earlier run of
+   * the service are ignored, its writes have been refreshed since.
+   *
+   * @param token consistency token of a write response
+   */
+  public void await(String token) {
+    String[] parts = token.strip().split("\\.");
+    if (parts.length != Index.values().length + 1) {
+      throw new ChannelValidationException(
+          MessageFormat.format(TextUtil.CONSISTENCY_TOKEN_INVALID, token));
+    }
+    long[] sequences = new long[parts.length];
+    try {
+      for (int i = 0; i < parts.length; i++) {
+        sequences[i] = Long.parseUnsignedLong(parts[i], 16);
+      }
+    } catch (NumberFormatException e) {
+      throw new ChannelValidationException(
+          MessageFormat.format(TextUtil.CONSISTENCY_TOKEN_INVALID, token));
+    }
+    if (sequences[0] != changeTracker.epoch()) {
+      return;
+    }
+    for (Index index : Index.values()) {
+      refresh(index, Math.min(sequences[index.ordinal() + 1], changeTracker.written(index)));
+    }
+  }
+
+  private String indexName(Index index) {
+    return switch (index) {
+      case CHANNEL -> esService.getES_CHANNEL_INDEX();
+      case TAG -> esService.getES_TAG_INDEX();
+      case PROPERTY -> esService.getES_PROPERTY_INDEX();
+    };
+  }
+}
@@ -0,0 +1,113 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.OpType;
+import co.elastic.clients.elasticsearch.core.IndexRequest;
+import co.elastic.clients.elasticsearch.core.bulk.IndexOperation;
+import java.text.MessageFormat;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
+
+/**
+ * Optimistic concurrency control of the read-modify-write cycles of channels, tags and properties.
+ * An entity read from its index carries the sequence number and primary term of its document, a
+ * write of it only succeeds if the document was not modified since, and a cycle failing with a
+ * {@link VersionConflictException} is repeated on a fresh read a bounded number of times.
+ */
+public final class OptimisticWrites {
+
+  private static final Logger logger = Logger.getLogger(OptimisticWrites.class.getName());
+
+  /** Number of times a conflicting write is retried, by elastic or by {@link #retryOnConflict}. */
+  public static final int RETRY_ON_CONFLICT = 3;
+
+  private static final int HTTP_CONFLICT = 409;
+
+  private OptimisticWrites() {}
+
+  /**
+   * Run the given read-modify-write cycle, running it again while it fails with a version conflict,
+   * at most {@link #RETRY_ON_CONFLICT} times.
+   *
+   * @param <T> result of the cycle
+   * @param cycle reads, modifies and conditionally writes an entity
+   * @return the result of the first successful run
+   * @throws VersionConflictException if the last retry failed with a version conflict too
+   */
+  public static <T> T retryOnConflict(Supplier<T> cycle) {
+    return retryOnConflict(cycle, () -> {});
+  }
+
+  /**
+   * Run the given write, running it again while it fails with a version conflict, at most {@link
+   * #RETRY_ON_CONFLICT} times.
+   *
+   * @param <T> result of the write
+   * @param write conditionally writes entities read before
+   * @param beforeRetry reads and checks the entities again before a retry
+   * @return the result of the first successful run
+   * @throws VersionConflictException if the last retry failed with a version conflict too
+   */
+  public static <T> T retryOnConflict(Supplier<T> write, Runnable beforeRetry) {
+    for (int retry = 0; ; retry++) {
+      try {
+        if (retry > 0) {
+          beforeRetry.run();
+        }
+        return write.get();
+      } catch (VersionConflictException e) {
+        if (retry >= RETRY_ON_CONFLICT) {
+          throw e;
+        }
+        int attempt = retry + 1;
+        logger.log(
+            Level.FINE,
+            () ->
+                MessageFormat.format(TextUtil.RETRY_ON_VERSION_CONFLICT, attempt, e.getMessage()));
+      }
+    }
+  }
+
+  /**
+   * @param e failure of a write
+   * @return true if the write failed because the document was modified or created concurrently
+   */
+  static boolean isConflict(ElasticsearchException e) {
+    return e.status() == HTTP_CONFLICT;
+  }
+
+  /**
+   * @param status status of a bulk item
+   * @return true if the item failed because the document was modified or created concurrently
+   */
+  public static boolean isConflict(int status) {
+    return status == HTTP_CONFLICT;
+  }
+
+  /** Only index the document if it still has the given version, if any. */
+  static <T> IndexRequest.Builder<T> ifUnmodified(
+      IndexRequest.Builder<T> builder, Long seqNo, Long primaryTerm) {
+    return seqNo == null || primaryTerm == null
+        ? builder
+        : builder.ifSeqNo(seqNo).ifPrimaryTerm(primaryTerm);
+  }
+
+  /** Only index the document if it still has the given version, or only create it if none. */
+  static <T> IndexRequest.Builder<T> ifUnmodifiedOrAbsent(
+      IndexRequest.Builder<T> builder, Long seqNo, Long primaryTerm) {
+    return seqNo == null || primaryTerm == null
+        ? builder.opType(OpType.Create)
+        : builder.ifSeqNo(seqNo).ifPrimaryTerm(primaryTerm);
+  }
+
+  /** Only index the document if it still has the given version, if any. */
+  static <T> IndexOperation.Builder<T> ifUnmodified(
+      IndexOperation.Builder<T> builder, Long seqNo, Long primaryTerm) {
+    return seqNo == null || primaryTerm == null
+        ? builder
+        : builder.ifSeqNo(seqNo).ifPrimaryTerm(primaryTerm);
+  }
+}
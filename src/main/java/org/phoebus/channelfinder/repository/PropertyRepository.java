@@ -3,10 +3,8 @@ package org.phoebus.channelfinder.repository;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.FieldSort;
-import co.elastic.clients.elasticsearch._types.Refresh;
 import co.elastic.clients.elasticsearch._types.Result;
 import co.elastic.clients.elasticsearch._types.SortOptions;
-import co.elastic.clients.elasticsearch._types.query_dsl.IdsQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.MatchAllQuery;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
@@ -17,6 +15,7 @@ import co.elastic.clients.elasticsearch.core.ExistsRequest;
 import co.elastic.clients.elasticsearch.core.GetResponse;
 import co.elastic.clients.elasticsearch.core.IndexRequest;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
@@ -26,17 +25,24 @@ import co.elastic.clients.json.jackson.JacksonJsonpMapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
 import org.phoebus.channelfinder.common.TextUtil;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
-import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.ChannelTask.Subject;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Property.OnlyNameOwnerProperty;
 import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.phoebus.channelfinder.repository.IndexRefresher.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.repository.CrudRepository;
@@ -51,14 +57,54 @@ public class PropertyRepository implements CrudRepository<Property, String> {
 
   private static final Logger logger = Logger.getLogger(PropertyRepository.class.getName());
 
+  /** Removes the property params.name, ignoring case, from a channel. */
+  private static final String REMOVE_SCRIPT =
+      """
+      String name = params.name;
+      ctx._source.properties.removeIf(p -> name.equalsIgnoreCase(p.name));
+      """
+          + ChannelRepository.UPDATE_PROPERTY_KEY_VALUES;
+
+  /**
+   * Replaces the property params.name, ignoring case, of a channel with the property params.newName
+   * owned by params.owner, keeping its value.
+   */
+  private static final String RENAME_SCRIPT =
+      """
+      String name = params.name;
+      String newName = params.newName;
+      def value = null;
+      for (Map p : ctx._source.properties) {
+        if (name.equalsIgnoreCase(p.name)) {
+          value = p.value;
+        }
+      }
+      Map property = ['name': newName, 'owner': params.owner, 'value': value];
+      if (name.equalsIgnoreCase(newName) && ctx._source.properties.contains(property)) {
+        ctx.op = 'noop';
+        return;
+      }
+      ctx._source.properties.removeIf(p -> name.equalsIgnoreCase(p.name) || newName == p.name);
+      ctx._source.properties.add(property);
+      """
+          + ChannelRepository.UPDATE_PROPERTY_KEY_VALUES;
+
   @Autowired
   @Qualifier("indexClient")
   ElasticsearchClient client;
 
+  @Autowired
+  @Qualifier("searchClient")
+  ElasticsearchClient searchClient;
+
   @Autowired ElasticConfig esService;
 
   @Autowired ChannelRepository channelRepository;
 
+  @Autowired IndexRefresher indexRefresher;
+
+  @Autowired ChannelUpdateTasks channelUpdateTasks;
+
   ObjectMapper objectMapper =
       new ObjectMapper().addMixIn(Property.class, OnlyNameOwnerProperty.class);
 
@@ -90,7 +136,8 @@ public class PropertyRepository implements CrudRepository<Property, String> {
                           .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper)))));
     }
     try {
-      BulkResponse result = client.bulk(br.refresh(Refresh.True).build());
+      BulkResponse result = client.bulk(br.refresh(indexRefresher.policy(Operation.BULK)).build());
+      indexRefresher.written(Operation.BULK, Index.PROPERTY);
       // Log errors, if any
       if (result.errors()) {
         logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
@@ -118,18 +165,43 @@ public class PropertyRepository implements CrudRepository<Property, String> {
    * @param property - property to be created
    * @return the updated/saved property
    */
-  @SuppressWarnings("unchecked")
   public <S extends Property> S save(String propertyName, S property) {
+    return write(propertyName, property, false);
+  }
+
+  /**
+   * create a new property or replace an existing one read before, only if no property with its name
+   * was created, respectively the existing one was not modified, since
+   *
+   * @param <S> extends Property
+   * @param property - property to be created, or replaced if it carries the version of the existing
+   *     one
+   * @return the created or replaced property
+   * @throws VersionConflictException if the property was created or modified concurrently
+   */
+  public <S extends Property> S createOrReplace(S property) {
+    return write(property.getName(), property, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <S extends Property> S write(String propertyName, S property, boolean onlyIfAbsent) {
     try {
       IndexRequest request =
           IndexRequest.of(
-              i ->
-                  i.index(esService.getES_PROPERTY_INDEX())
-                      .id(propertyName)
-                      .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper)))
-                      .refresh(Refresh.True));
+              i -> {
+                i.index(esService.getES_PROPERTY_INDEX())
+                    .id(propertyName)
+                    .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper)))
+                    .refresh(indexRefresher.policy(Operation.SINGLE));
+                return onlyIfAbsent
+                    ? OptimisticWrites.ifUnmodifiedOrAbsent(
+                        i, property.getSeqNo(), property.getPrimaryTerm())
+                    : OptimisticWrites.ifUnmodified(
+                        i, property.getSeqNo(), property.getPrimaryTerm());
+              });
 
       IndexResponse response = client.index(request);
+      indexRefresher.written(Operation.SINGLE, Index.PROPERTY);
       // verify the creation of the tag
       if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
         logger.log(
@@ -137,6 +209,10 @@ public class PropertyRepository implements CrudRepository<Property, String> {
         return (S) findById(propertyName).get();
       }
     } catch (ElasticsearchException | IOException e) {
+      if (e instanceof ElasticsearchException ee && OptimisticWrites.isConflict(ee)) {
+        throw new VersionConflictException(
+            MessageFormat.format(TextUtil.PROPERTY_VERSION_CONFLICT, propertyName), e);
+      }
       String message = MessageFormat.format(TextUtil.FAILED_TO_INDEX_PROPERTY, property.toLog());
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message, e);
@@ -172,13 +248,18 @@ public class PropertyRepository implements CrudRepository<Property, String> {
           op ->
               op.index(
                   i ->
-                      i.index(esService.getES_PROPERTY_INDEX())
-                          .id(property.getName())
-                          .document(JsonData.of(property, new JacksonJsonpMapper(objectMapper)))));
+                      OptimisticWrites.ifUnmodified(
+                          i.index(esService.getES_PROPERTY_INDEX())
+                              .id(property.getName())
+                              .document(
+                                  JsonData.of(property, new JacksonJsonpMapper(objectMapper))),
+                          property.getSeqNo(),
+                          property.getPrimaryTerm())));
     }
 
     try {
-      BulkResponse result = client.bulk(br.refresh(Refresh.True).build());
+      BulkResponse result = client.bulk(br.refresh(indexRefresher.policy(Operation.BULK)).build());
+      indexRefresher.written(Operation.BULK, Index.PROPERTY);
       // Log errors, if any
       if (result.errors()) {
         logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
@@ -187,6 +268,10 @@ public class PropertyRepository implements CrudRepository<Property, String> {
             logger.log(Level.SEVERE, () -> item.error().reason());
           }
         }
+        if (result.items().stream().anyMatch(item -> OptimisticWrites.isConflict(item.status()))) {
+          throw new VersionConflictException(
+              MessageFormat.format(TextUtil.PROPERTY_VERSION_CONFLICT, ids));
+        }
         // TODO cleanup? or throw exception?
       } else {
         return (Iterable<S>) findAllById(ids);
@@ -221,14 +306,20 @@ public class PropertyRepository implements CrudRepository<Property, String> {
     GetResponse<Property> response;
     try {
       response =
-          client.get(
-              g -> g.index(esService.getES_PROPERTY_INDEX()).id(propertyName), Property.class);
+          searchClient.get(
+              g ->
+                  g.index(esService.getES_PROPERTY_INDEX())
+                      .id(propertyName)
+                      .preference(esService.getES_SEARCH_PREFERENCE()),
+              Property.class);
 
       if (response.found()) {
         Property property = response.source();
+        property.setSeqNoAndPrimaryTerm(response.seqNo(), response.primaryTerm());
         logger.log(
             Level.CONFIG, () -> MessageFormat.format(TextUtil.PROPERTY_FOUND, property.getName()));
         if (withChannels) {
+          indexRefresher.refresh(Index.CHANNEL);
           MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
           params.add(property.getName(), "*");
           property.setChannels(channelRepository.search(params).channels());
@@ -250,8 +341,11 @@ public class PropertyRepository implements CrudRepository<Property, String> {
   public boolean existsById(String id) {
     try {
       ExistsRequest.Builder builder = new ExistsRequest.Builder();
-      builder.index(esService.getES_PROPERTY_INDEX()).id(id);
-      return client.exists(builder.build()).value();
+      builder
+          .index(esService.getES_PROPERTY_INDEX())
+          .id(id)
+          .preference(esService.getES_SEARCH_PREFERENCE());
+      return searchClient.exists(builder.build()).value();
     } catch (ElasticsearchException | IOException e) {
       String message = MessageFormat.format(TextUtil.FAILED_TO_CHECK_IF_PROPERTY_EXISTS, id);
       logger.log(Level.SEVERE, message, e);
@@ -270,10 +364,12 @@ public class PropertyRepository implements CrudRepository<Property, String> {
       SearchRequest.Builder searchBuilder =
           new SearchRequest.Builder()
               .index(esService.getES_PROPERTY_INDEX())
+              .preference(esService.getES_SEARCH_PREFERENCE())
               .query(new MatchAllQuery.Builder().build()._toQuery())
               .size(esService.getES_QUERY_SIZE())
               .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-      SearchResponse<Property> response = client.search(searchBuilder.build(), Property.class);
+      SearchResponse<Property> response =
+          searchClient.search(searchBuilder.build(), Property.class);
       return response.hits().hits().stream().map(Hit::source).toList();
     } catch (ElasticsearchException | IOException e) {
       logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_PROPERTIES, e);
@@ -291,15 +387,27 @@ public class PropertyRepository implements CrudRepository<Property, String> {
   public List<Property> findAllById(Iterable<String> propertyIds) {
     try {
       List<String> ids = StreamSupport.stream(propertyIds.spliterator(), false).toList();
-
-      SearchRequest.Builder searchBuilder =
-          new SearchRequest.Builder()
-              .index(esService.getES_PROPERTY_INDEX())
-              .query(IdsQuery.of(q -> q.values(ids))._toQuery())
-              .size(esService.getES_QUERY_SIZE())
-              .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-      SearchResponse<Property> response = client.search(searchBuilder.build(), Property.class);
-      return response.hits().hits().stream().map(Hit::source).toList();
+      if (ids.isEmpty()) {
+        return Collections.emptyList();
+      }
+      // a real-time multi get sees writes that were not refreshed yet, unlike a search
+      MgetResponse<Property> response =
+          searchClient.mget(
+              m ->
+                  m.index(esService.getES_PROPERTY_INDEX())
+                      .ids(ids)
+                      .preference(esService.getES_SEARCH_PREFERENCE()),
+              Property.class);
+      return response.docs().stream()
+          .filter(item -> item.isResult() && item.result().found())
+          .map(
+              item -> {
+                Property property = item.result().source();
+                property.setSeqNoAndPrimaryTerm(item.result().seqNo(), item.result().primaryTerm());
+                return property;
+              })
+          .sorted(Comparator.comparing(Property::getName))
+          .toList();
     } catch (ElasticsearchException | IOException e) {
       logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_PROPERTIES, e);
       throw new RepositoryException(TextUtil.FAILED_TO_FIND_ALL_PROPERTIES);
@@ -310,8 +418,11 @@ public class PropertyRepository implements CrudRepository<Property, String> {
   public long count() {
     try {
       CountRequest countRequest =
-          new CountRequest.Builder().index(esService.getES_PROPERTY_INDEX()).build();
-      CountResponse countResponse = client.count(countRequest);
+          new CountRequest.Builder()
+              .index(esService.getES_PROPERTY_INDEX())
+              .preference(esService.getES_SEARCH_PREFERENCE())
+              .build();
+      CountResponse countResponse = searchClient.count(countRequest);
       return countResponse.count();
     } catch (ElasticsearchException | IOException e) {
 
@@ -322,68 +433,91 @@ public class PropertyRepository implements CrudRepository<Property, String> {
   }
 
   /**
-   * delete the given property by property name
+   * delete the given property by property name, waiting until it is removed from all channels
    *
-   * @param propertyName - name of property to be deleted
+   * @param propertyName - property to be deleted
    */
   @Override
   public void deleteById(String propertyName) {
+    channelUpdateTasks.await(deleteById(propertyName, ChannelUpdateTasks.AWAIT_INTERVAL));
+  }
+
+  /**
+   * delete the given property by property name and start a background task removing it from all
+   * channels
+   *
+   * @param propertyName - property to be deleted
+   * @param waitForCompletion - time to wait for the removal from the channels to complete
+   * @return the task removing the property from the channels
+   * @throws RepositoryException if the task could not be started, the property is then kept
+   */
+  public ChannelTask deleteById(String propertyName, String waitForCompletion) {
+    Optional<Property> property = findById(propertyName);
+    deleteDocument(propertyName);
+    try {
+      return channelUpdateTasks.start(
+          Subject.PROPERTY, propertyName, REMOVE_SCRIPT, Map.of(), null, waitForCompletion);
+    } catch (RuntimeException e) {
+      // channels may still refer to the property, keep it so that the deletion can be retried
+      property.ifPresent(this::restore);
+      throw e;
+    }
+  }
+
+  /** Create the deleted property again, unless it was created again meanwhile. */
+  private void restore(Property property) {
+    property.setSeqNoAndPrimaryTerm(null, null);
+    try {
+      createOrReplace(property);
+    } catch (RepositoryException e) {
+      logger.log(
+          Level.SEVERE,
+          MessageFormat.format(TextUtil.FAILED_TO_RESTORE_PROPERTY, property.getName()),
+          e);
+    }
+  }
+
+  /**
+   * rename the given property or change its owner in all channels in a background task, the new
+   * property must have been saved before
+   *
+   * @param propertyName - current name of the property
+   * @param property - the property with its new name and owner
+   * @param waitForCompletion - time to wait for the update of the channels to complete
+   * @return the task updating the channels, the old property is deleted once it completed and kept
+   *     if it failed
+   */
+  public ChannelTask rename(String propertyName, Property property, String waitForCompletion) {
+    return channelUpdateTasks.start(
+        Subject.PROPERTY,
+        propertyName,
+        RENAME_SCRIPT,
+        Map.of(
+            "newName", JsonData.of(property.getName()), "owner", JsonData.of(property.getOwner())),
+        // the old property stays until no channel refers to it any more
+        property.getName().equals(propertyName) ? null : () -> deleteDocument(propertyName),
+        waitForCompletion);
+  }
+
+  private void deleteDocument(String propertyName) {
     try {
       DeleteResponse response =
           client.delete(
               i ->
-                  i.index(esService.getES_PROPERTY_INDEX()).id(propertyName).refresh(Refresh.True));
+                  i.index(esService.getES_PROPERTY_INDEX())
+                      .id(propertyName)
+                      .refresh(indexRefresher.policy(Operation.DELETE)));
       // verify the deletion of the property
       if (response.result().equals(Result.Deleted)) {
         logger.log(
             Level.CONFIG, () -> MessageFormat.format(TextUtil.DELETE_PROPERTY, propertyName));
       }
-
-      // Remove the Property from Channels
-      BulkRequest.Builder br = new BulkRequest.Builder().refresh(Refresh.True);
-      MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-      params.add(propertyName, "*");
-      List<Channel> channels = channelRepository.search(params).channels();
-      while (channels.size() > 0) {
-        for (Channel channel : channels) {
-          channel.removeProperty(
-              channel.getProperties().stream()
-                  .filter(prop -> propertyName.equalsIgnoreCase(prop.getName()))
-                  .findAny()
-                  .get());
-          br.operations(
-              op ->
-                  op.update(
-                      u ->
-                          u.index(esService.getES_CHANNEL_INDEX())
-                              .id(channel.getName())
-                              .action(a -> a.doc(channel))));
-        }
-        try {
-          br.refresh(Refresh.True);
-          BulkResponse result = client.bulk(br.build());
-          // Log errors, if any
-          if (result.errors()) {
-            logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-            for (BulkResponseItem item : result.items()) {
-              if (item.error() != null) {
-                logger.log(Level.SEVERE, () -> item.error().reason());
-              }
-            }
-          } else {
-          }
-        } catch (IOException e) {
-          String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_PROPERTY, propertyName);
-          logger.log(Level.SEVERE, message, e);
-          throw new RepositoryException(message);
-        }
-        params.set("~search_after", channels.get(channels.size() - 1).getName());
-        channels = channelRepository.search(params).channels();
-      }
     } catch (ElasticsearchException | IOException e) {
       String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_PROPERTY, propertyName);
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message);
+    } finally {
+      indexRefresher.written(Operation.DELETE, Index.PROPERTY);
     }
   }
 
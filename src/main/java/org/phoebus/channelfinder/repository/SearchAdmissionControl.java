@@ -0,0 +1,265 @@
+package org.phoebus.channelfinder.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.exceptions.SearchRejectedException;
+import org.phoebus.channelfinder.exceptions.SearchTooExpensiveException;
+import org.phoebus.channelfinder.repository.ChannelQueryCompiler.Kind;
+import org.phoebus.channelfinder.repository.ChannelQueryCompiler.Pattern;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Admission control for channel searches, counts, scrolls, multi searches, streams and exports.
+ *
+ * <p>Every request is given an estimated cost from its search parameters:
+ *
+ * <ul>
+ *   <li>1 per name, tag or property pattern that is exact, a prefix or a bare {@code *}
+ *   <li>{@value #WILDCARD_COST} per other wildcard pattern, plus {@value #LEADING_WILDCARD_COST} if
+ *       it starts with a wildcard
+ *   <li>{@value #NESTED_COST} per tag or property pattern that needs a nested query
+ *   <li>1 per {@value #SIZE_PER_POINT} requested channels
+ *   <li>1 per {@value #SIZE_PER_POINT} channels skipped with {@code ~from}, which every shard still
+ *       collects and sorts, and {@value #SEARCH_AFTER_COST} for a {@code ~search_after} cursor
+ *   <li>{@value #TRACK_TOTAL_HITS_COST} for {@code ~track_total_hits=true}
+ * </ul>
+ *
+ * <p>Requests above {@code repository.admission.max_cost} are rejected with a {@link
+ * SearchTooExpensiveException}. The others are sorted into a light, medium or heavy cost class,
+ * each with its own bound on concurrent requests; a request waits up to {@code
+ * repository.admission.queue_timeout_ms} for a free slot of its class and is rejected with a {@link
+ * SearchRejectedException} after that. Rejections are counted by the {@value #CF_SEARCH_ADMISSION}
+ * metric.
+ *
+ * <p>A multi search is bounded by the number of its searches, {@code
+ * repository.msearch.max_searches}, rather than by its total cost: each of its searches is compared
+ * with {@code max_cost} on its own, and their sum only selects the cost class of the slot the multi
+ * search holds.
+ */
+@Component
+public class SearchAdmissionControl {
+
+  public static final String CF_SEARCH_ADMISSION = "cf.search.admission";
+
+  static final int WILDCARD_COST = 2;
+  static final int LEADING_WILDCARD_COST = 8;
+  static final int NESTED_COST = 2;
+  static final int SIZE_PER_POINT = 2500;
+  static final int TRACK_TOTAL_HITS_COST = 5;
+  static final int SEARCH_AFTER_COST = 1;
+
+  private static final String VALUE_SPLIT_PATTERN = "[|,;]";
+
+  enum CostClass {
+    LIGHT,
+    MEDIUM,
+    HEAVY
+  }
+
+  /** A slot of a cost class, released on close. */
+  public interface Permit extends AutoCloseable {
+    Permit NONE = () -> {};
+
+    @Override
+    void close();
+  }
+
+  private final boolean enabled;
+  private final int maxCost;
+  private final int mediumCost;
+  private final int heavyCost;
+  private final long queueTimeoutMs;
+  private final ChannelQueryCompiler queryCompiler;
+  private final MeterRegistry meterRegistry;
+  private final Map<CostClass, Semaphore> slots = new EnumMap<>(CostClass.class);
+
+  public SearchAdmissionControl(
+      @Value("${repository.admission.enabled:true}") boolean enabled,
+      @Value("${repository.admission.max_cost:200}") int maxCost,
+      @Value("${repository.admission.medium_cost:10}") int mediumCost,
+      @Value("${repository.admission.heavy_cost:30}") int heavyCost,
+      @Value("${repository.admission.light.max_concurrent:64}") int lightConcurrent,
+      @Value("${repository.admission.medium.max_concurrent:16}") int mediumConcurrent,
+      @Value("${repository.admission.heavy.max_concurrent:4}") int heavyConcurrent,
+      @Value("${repository.admission.queue_timeout_ms:5000}") long queueTimeoutMs,
+      ChannelQueryCompiler queryCompiler,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.maxCost = maxCost;
+    this.mediumCost = mediumCost;
+    this.heavyCost = heavyCost;
+    this.queueTimeoutMs = queueTimeoutMs;
+    this.queryCompiler = queryCompiler;
+    this.meterRegistry = meterRegistry;
+    slots.put(CostClass.LIGHT, new Semaphore(Math.max(1, lightConcurrent), true));
+    slots.put(CostClass.MEDIUM, new Semaphore(Math.max(1, mediumConcurrent), true));
+    slots.put(CostClass.HEAVY, new Semaphore(Math.max(1, heavyConcurrent), true));
+  }
+
+  /**
+   * Admit a request, waiting for a free slot of its cost class if needed.
+   *
+   * @param searchParameters channel search parameters of the request
+   * @param size number of channels the request returns, 0 for counts
+   * @return the slot to close once the request completed
+   * @throws SearchTooExpensiveException if the request is too expensive
+   * @throws SearchRejectedException if no slot became free in time
+   */
+  public Permit acquire(MultiValueMap<String, String> searchParameters, int size) {
+    if (!enabled) {
+      return Permit.NONE;
+    }
+    return admit(searchParameters, cost(searchParameters, size), true);
+  }
+
+  /**
+   * Admit a multi search as one request in the cost class of the sum of its searches.
+   *
+   * @param searches channel search parameters of each search
+   * @param sizes number of channels each search returns
+   * @return the slot to close once the multi search completed
+   * @throws SearchTooExpensiveException if one of the searches is too expensive
+   * @throws SearchRejectedException if no slot became free in time
+   */
+  public Permit acquire(List<MultiValueMap<String, String>> searches, List<Integer> sizes) {
+    if (!enabled) {
+      return Permit.NONE;
+    }
+    int total = 0;
+    for (int i = 0; i < searches.size(); i++) {
+      int cost = cost(searches.get(i), sizes.get(i));
+      requireAffordable(searches.get(i), cost, classify(total + cost));
+      total += cost;
+    }
+    return admit(searches, total, false);
+  }
+
+  private Permit admit(Object searchParameters, int cost, boolean limitCost) {
+    CostClass costClass = classify(cost);
+    if (limitCost) {
+      requireAffordable(searchParameters, cost, costClass);
+    }
+    Semaphore semaphore = slots.get(costClass);
+    boolean acquired;
+    try {
+      acquired = semaphore.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      count(costClass, "rejected_busy");
+      throw new SearchRejectedException(
+          MessageFormat.format(
+              TextUtil.SEARCH_REJECTED_BUSY,
+              searchParameters,
+              costClass.name().toLowerCase(Locale.ROOT)),
+          Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMs + 999)));
+    }
+    count(costClass, "admitted");
+    return semaphore::release;
+  }
+
+  private void requireAffordable(Object searchParameters, int cost, CostClass costClass) {
+    if (maxCost > 0 && cost > maxCost) {
+      count(costClass, "rejected_cost");
+      throw new SearchTooExpensiveException(
+          MessageFormat.format(TextUtil.SEARCH_REJECTED_COST, searchParameters, cost, maxCost));
+    }
+  }
+
+  /**
+   * @param searchParameters channel search parameters
+   * @param size number of channels requested
+   * @return the estimated cost of the search
+   */
+  int cost(MultiValueMap<String, String> searchParameters, int size) {
+    int cost = Math.max(size, 0) / SIZE_PER_POINT;
+    if (size > 0) {
+      cost += pageDepthCost(searchParameters);
+    }
+    for (Map.Entry<String, List<String>> parameter : searchParameters.entrySet()) {
+      String key = parameter.getKey().trim();
+      boolean isNot = key.endsWith("!");
+      if (isNot) {
+        key = key.substring(0, key.length() - 1);
+      }
+      boolean name = key.equals("~name");
+      boolean tag = key.equals("~tag");
+      if (key.equals("~track_total_hits")) {
+        if (parameter.getValue().stream().anyMatch(Boolean::parseBoolean)) {
+          cost += TRACK_TOTAL_HITS_COST;
+        }
+        continue;
+      }
+      if (key.startsWith("~") && !name && !tag) {
+        // paging and projection parameters, size and page depth are accounted for separately
+        continue;
+      }
+      if (!name && !tag) {
+        cost += patternCost(key) - 1;
+      }
+      for (String value : parameter.getValue()) {
+        for (String pattern : value.split(VALUE_SPLIT_PATTERN)) {
+          String trimmed = pattern.trim();
+          cost += patternCost(trimmed);
+          if (tag || (!name && (isNot || queryCompiler.compileProperty(key, trimmed).isEmpty()))) {
+            cost += NESTED_COST;
+          }
+        }
+      }
+    }
+    return cost;
+  }
+
+  private static int pageDepthCost(MultiValueMap<String, String> searchParameters) {
+    int cost = 0;
+    String from = searchParameters.getFirst("~from");
+    if (from != null) {
+      try {
+        cost += Math.max(Integer.parseInt(from.trim()), 0) / SIZE_PER_POINT;
+      } catch (NumberFormatException e) {
+        // rejected by the search itself
+      }
+    }
+    if (searchParameters.containsKey("~search_after")) {
+      cost += SEARCH_AFTER_COST;
+    }
+    return cost;
+  }
+
+  CostClass classify(int cost) {
+    if (cost >= heavyCost) {
+      return CostClass.HEAVY;
+    }
+    return cost >= mediumCost ? CostClass.MEDIUM : CostClass.LIGHT;
+  }
+
+  private static int patternCost(String pattern) {
+    Kind kind = Pattern.parse(pattern).kind();
+    if (kind != Kind.WILDCARD && kind != Kind.SUFFIX) {
+      return 1;
+    }
+    boolean leading = pattern.startsWith("*") || pattern.startsWith("?");
+    return WILDCARD_COST + (leading ? LEADING_WILDCARD_COST : 0);
+  }
+
+  private void count(CostClass costClass, String result) {
+    Counter.builder(CF_SEARCH_ADMISSION)
+        .description("Channel searches, counts and scrolls by cost class and admission result")
+        .tag("class", costClass.name().toLowerCase(Locale.ROOT))
+        .tag("result", result)
+        .register(meterRegistry)
+        .increment();
+  }
+}
@@ -0,0 +1,99 @@
+package org.phoebus.channelfinder.repository;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Opaque cursor handed to clients to continue a paged search.
+ *
+ * <p>The cursor carries the Elasticsearch point-in-time id, if the search runs against one, and the
+ * sort values of the last returned hit. It is encoded as URL safe base64 of a small JSON document
+ * so it can be passed back as a path segment or query parameter.
+ *
+ * @param pitId point-in-time id, or {@code null} if the search runs against the live index
+ * @param searchAfter sort values of the last returned hit
+ */
+// Jackson 2 to match the JSON handling of the elasticsearch-java client
+record SearchCursor(String pitId, List<FieldValue> searchAfter) {
+
+  private static final ObjectMapper objectMapper = new ObjectMapper();
+  private static final String PIT = "pit";
+  private static final String AFTER = "after";
+
+  SearchCursor {
+    searchAfter = List.copyOf(searchAfter);
+  }
+
+  /**
+   * @return the cursor encoded as URL safe base64
+   */
+  String encode() {
+    ObjectNode node = objectMapper.createObjectNode();
+    if (pitId != null) {
+      node.put(PIT, pitId);
+    }
+    ArrayNode after = node.putArray(AFTER);
+    for (FieldValue value : searchAfter) {
+      switch (value._kind()) {
+        case Long -> after.add(value.longValue());
+        case Double -> after.add(value.doubleValue());
+        case Boolean -> after.add(value.booleanValue());
+        case String -> after.add(value.stringValue());
+        default -> after.addNull();
+      }
+    }
+    try {
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(objectMapper.writeValueAsBytes(node));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Failed to encode search cursor", e);
+    }
+  }
+
+  /**
+   * Decode a cursor created by {@link #encode()}.
+   *
+   * @param encoded encoded cursor
+   * @return the cursor, or empty if the value is not an encoded cursor
+   */
+  static Optional<SearchCursor> decode(String encoded) {
+    if (encoded == null || encoded.isEmpty()) {
+      return Optional.empty();
+    }
+    try {
+      String json = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+      JsonNode node = objectMapper.readTree(json);
+      if (node == null || !node.isObject() || !node.path(AFTER).isArray()) {
+        return Optional.empty();
+      }
+      List<FieldValue> searchAfter = new ArrayList<>();
+      for (JsonNode value : node.get(AFTER)) {
+        if (value.isIntegralNumber()) {
+          searchAfter.add(FieldValue.of(value.longValue()));
+        } else if (value.isNumber()) {
+          searchAfter.add(FieldValue.of(value.doubleValue()));
+        } else if (value.isBoolean()) {
+          searchAfter.add(FieldValue.of(value.booleanValue()));
+        } else if (value.isTextual()) {
+          searchAfter.add(FieldValue.of(value.textValue()));
+        } else {
+          searchAfter.add(FieldValue.NULL);
+        }
+      }
+      JsonNode pit = node.get(PIT);
+      return Optional.of(new SearchCursor(pit != null ? pit.asText() : null, searchAfter));
+    } catch (IllegalArgumentException | JsonProcessingException e) {
+      return Optional.empty();
+    }
+  }
+}
@@ -3,10 +3,8 @@ package org.phoebus.channelfinder.repository;
 import co.elastic.clients.elasticsearch.ElasticsearchClient;
 import co.elastic.clients.elasticsearch._types.ElasticsearchException;
 import co.elastic.clients.elasticsearch._types.FieldSort;
-import co.elastic.clients.elasticsearch._types.Refresh;
 import co.elastic.clients.elasticsearch._types.Result;
 import co.elastic.clients.elasticsearch._types.SortOptions;
-import co.elastic.clients.elasticsearch._types.query_dsl.IdsQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.MatchAllQuery;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
@@ -16,6 +14,7 @@ import co.elastic.clients.elasticsearch.core.DeleteResponse;
 import co.elastic.clients.elasticsearch.core.ExistsRequest;
 import co.elastic.clients.elasticsearch.core.GetResponse;
 import co.elastic.clients.elasticsearch.core.IndexResponse;
+import co.elastic.clients.elasticsearch.core.MgetResponse;
 import co.elastic.clients.elasticsearch.core.SearchRequest;
 import co.elastic.clients.elasticsearch.core.SearchRequest.Builder;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
@@ -27,17 +26,23 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
 import org.phoebus.channelfinder.common.TextUtil;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
-import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.ChannelTask.Subject;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.entity.Tag.OnlyTag;
 import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.phoebus.channelfinder.repository.IndexRefresher.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.repository.CrudRepository;
@@ -52,14 +57,46 @@ public class TagRepository implements CrudRepository<Tag, String> {
 
   private static final Logger logger = Logger.getLogger(TagRepository.class.getName());
 
+  /** Removes the tag params.name, ignoring case, from a channel. */
+  private static final String REMOVE_SCRIPT =
+      """
+      String name = params.name;
+      ctx._source.tags.removeIf(t -> name.equalsIgnoreCase(t.name));
+      """;
+
+  /**
+   * Replaces the tag params.name, ignoring case, of a channel with the tag params.newName owned by
+   * params.owner.
+   */
+  private static final String RENAME_SCRIPT =
+      """
+      String name = params.name;
+      String newName = params.newName;
+      Map tag = ['name': newName, 'owner': params.owner];
+      if (name.equalsIgnoreCase(newName) && ctx._source.tags.contains(tag)) {
+        ctx.op = 'noop';
+        return;
+      }
+      ctx._source.tags.removeIf(t -> name.equalsIgnoreCase(t.name) || newName == t.name);
+      ctx._source.tags.add(tag);
+      """;
+
   @Autowired ElasticConfig esService;
 
   @Autowired
   @Qualifier("indexClient")
   ElasticsearchClient client;
 
+  @Autowired
+  @Qualifier("searchClient")
+  ElasticsearchClient searchClient;
+
   @Autowired ChannelRepository channelRepository;
 
+  @Autowired IndexRefresher indexRefresher;
+
+  @Autowired ChannelUpdateTasks channelUpdateTasks;
+
   ObjectMapper objectMapper = new ObjectMapper().addMixIn(Tag.class, OnlyTag.class);
 
   /**
@@ -91,7 +128,8 @@ public class TagRepository implements CrudRepository<Tag, String> {
                           .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))));
     }
     try {
-      BulkResponse result = client.bulk(br.refresh(Refresh.True).build());
+      BulkResponse result = client.bulk(br.refresh(indexRefresher.policy(Operation.BULK)).build());
+      indexRefresher.written(Operation.BULK, Index.TAG);
       // Log errors, if any
       if (result.errors()) {
         logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
@@ -120,22 +158,48 @@ public class TagRepository implements CrudRepository<Tag, String> {
    * @param tag - tag to be created
    * @return the updated/saved tag
    */
-  @SuppressWarnings("unchecked")
   public <S extends Tag> S save(String tagName, S tag) {
+    return write(tagName, tag, false);
+  }
+
+  /**
+   * create a new tag or replace an existing one read before, only if no tag with its name was
+   * created, respectively the existing one was not modified, since
+   *
+   * @param <S> extends Tag
+   * @param tag - tag to be created, or replaced if it carries the version of the existing one
+   * @return the created or replaced tag
+   * @throws VersionConflictException if the tag was created or modified concurrently
+   */
+  public <S extends Tag> S createOrReplace(S tag) {
+    return write(tag.getName(), tag, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <S extends Tag> S write(String tagName, S tag, boolean onlyIfAbsent) {
     try {
       IndexResponse response =
           client.index(
-              i ->
-                  i.index(esService.getES_TAG_INDEX())
-                      .id(tagName)
-                      .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))
-                      .refresh(Refresh.True));
+              i -> {
+                i.index(esService.getES_TAG_INDEX())
+                    .id(tagName)
+                    .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))
+                    .refresh(indexRefresher.policy(Operation.SINGLE));
+                return onlyIfAbsent
+                    ? OptimisticWrites.ifUnmodifiedOrAbsent(i, tag.getSeqNo(), tag.getPrimaryTerm())
+                    : OptimisticWrites.ifUnmodified(i, tag.getSeqNo(), tag.getPrimaryTerm());
+              });
+      indexRefresher.written(Operation.SINGLE, Index.TAG);
       // verify the creation of the tag
       if (response.result().equals(Result.Created) || response.result().equals(Result.Updated)) {
         logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.CREATE_TAG, tag.toLog()));
         return (S) findById(tagName).get();
       }
     } catch (ElasticsearchException | IOException e) {
+      if (e instanceof ElasticsearchException ee && OptimisticWrites.isConflict(ee)) {
+        throw new VersionConflictException(
+            MessageFormat.format(TextUtil.TAG_VERSION_CONFLICT, tagName), e);
+      }
       String message = MessageFormat.format(TextUtil.FAILED_TO_UPDATE_SAVE_TAG, tag.toLog());
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message);
@@ -165,14 +229,18 @@ public class TagRepository implements CrudRepository<Tag, String> {
           op ->
               op.index(
                   idx ->
-                      idx.index(esService.getES_TAG_INDEX())
-                          .id(tag.getName())
-                          .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper)))));
+                      OptimisticWrites.ifUnmodified(
+                          idx.index(esService.getES_TAG_INDEX())
+                              .id(tag.getName())
+                              .document(JsonData.of(tag, new JacksonJsonpMapper(objectMapper))),
+                          tag.getSeqNo(),
+                          tag.getPrimaryTerm())));
     }
 
     BulkResponse result = null;
     try {
-      result = client.bulk(br.refresh(Refresh.True).build());
+      result = client.bulk(br.refresh(indexRefresher.policy(Operation.BULK)).build());
+      indexRefresher.written(Operation.BULK, Index.TAG);
       // Log errors, if any
       if (result.errors()) {
         logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
@@ -181,6 +249,12 @@ public class TagRepository implements CrudRepository<Tag, String> {
             logger.log(Level.SEVERE, () -> item.error().reason());
           }
         }
+        if (result.items().stream().anyMatch(item -> OptimisticWrites.isConflict(item.status()))) {
+          throw new VersionConflictException(
+              MessageFormat.format(
+                  TextUtil.TAG_VERSION_CONFLICT,
+                  StreamSupport.stream(tags.spliterator(), false).map(Tag::getName).toList()));
+        }
         // TODO cleanup? or throw exception?
       } else {
         return (Iterable<S>)
@@ -215,12 +289,20 @@ public class TagRepository implements CrudRepository<Tag, String> {
   public Optional<Tag> findById(String tagId, boolean withChannels) {
     GetResponse<Tag> response;
     try {
-      response = client.get(g -> g.index(esService.getES_TAG_INDEX()).id(tagId), Tag.class);
+      response =
+          searchClient.get(
+              g ->
+                  g.index(esService.getES_TAG_INDEX())
+                      .id(tagId)
+                      .preference(esService.getES_SEARCH_PREFERENCE()),
+              Tag.class);
 
       if (response.found()) {
         Tag tag = response.source();
+        tag.setSeqNoAndPrimaryTerm(response.seqNo(), response.primaryTerm());
         logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.TAG_FOUND, tag.getName()));
         if (withChannels) {
+          indexRefresher.refresh(Index.CHANNEL);
           MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
           params.add("~tag", tag.getName());
           tag.setChannels(channelRepository.search(params).channels());
@@ -241,8 +323,11 @@ public class TagRepository implements CrudRepository<Tag, String> {
   public boolean existsById(String id) {
     try {
       ExistsRequest.Builder builder = new ExistsRequest.Builder();
-      builder.index(esService.getES_TAG_INDEX()).id(id);
-      return client.exists(builder.build()).value();
+      builder
+          .index(esService.getES_TAG_INDEX())
+          .id(id)
+          .preference(esService.getES_SEARCH_PREFERENCE());
+      return searchClient.exists(builder.build()).value();
     } catch (ElasticsearchException | IOException e) {
       String message = MessageFormat.format(TextUtil.FAILED_TO_CHECK_IF_TAG_EXISTS, id);
       logger.log(Level.SEVERE, message, e);
@@ -261,10 +346,11 @@ public class TagRepository implements CrudRepository<Tag, String> {
       SearchRequest.Builder searchBuilder =
           new Builder()
               .index(esService.getES_TAG_INDEX())
+              .preference(esService.getES_SEARCH_PREFERENCE())
               .query(new MatchAllQuery.Builder().build()._toQuery())
               .size(esService.getES_QUERY_SIZE())
               .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-      SearchResponse<Tag> response = client.search(searchBuilder.build(), Tag.class);
+      SearchResponse<Tag> response = searchClient.search(searchBuilder.build(), Tag.class);
       return response.hits().hits().stream().map(Hit::source).toList();
     } catch (ElasticsearchException | IOException e) {
       logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_TAGS, e);
@@ -282,14 +368,27 @@ public class TagRepository implements CrudRepository<Tag, String> {
   public List<Tag> findAllById(Iterable<String> tagIds) {
     try {
       List<String> ids = StreamSupport.stream(tagIds.spliterator(), false).toList();
-      SearchRequest.Builder searchBuilder =
-          new Builder()
-              .index(esService.getES_TAG_INDEX())
-              .query(IdsQuery.of(q -> q.values(ids))._toQuery())
-              .size(esService.getES_QUERY_SIZE())
-              .sort(SortOptions.of(s -> s.field(FieldSort.of(f -> f.field("name")))));
-      SearchResponse<Tag> response = client.search(searchBuilder.build(), Tag.class);
-      return response.hits().hits().stream().map(Hit::source).toList();
+      if (ids.isEmpty()) {
+        return Collections.emptyList();
+      }
+      // a real-time multi get sees writes that were not refreshed yet, unlike a search
+      MgetResponse<Tag> response =
+          searchClient.mget(
+              m ->
+                  m.index(esService.getES_TAG_INDEX())
+                      .ids(ids)
+                      .preference(esService.getES_SEARCH_PREFERENCE()),
+              Tag.class);
+      return response.docs().stream()
+          .filter(item -> item.isResult() && item.result().found())
+          .map(
+              item -> {
+                Tag tag = item.result().source();
+                tag.setSeqNoAndPrimaryTerm(item.result().seqNo(), item.result().primaryTerm());
+                return tag;
+              })
+          .sorted(Comparator.comparing(Tag::getName))
+          .toList();
     } catch (ElasticsearchException | IOException e) {
       logger.log(Level.SEVERE, TextUtil.FAILED_TO_FIND_ALL_TAGS, e);
       throw new RepositoryException(TextUtil.FAILED_TO_FIND_ALL_TAGS);
@@ -300,8 +399,11 @@ public class TagRepository implements CrudRepository<Tag, String> {
   public long count() {
     try {
       CountRequest countRequest =
-          new CountRequest.Builder().index(esService.getES_TAG_INDEX()).build();
-      CountResponse countResponse = client.count(countRequest);
+          new CountRequest.Builder()
+              .index(esService.getES_TAG_INDEX())
+              .preference(esService.getES_SEARCH_PREFERENCE())
+              .build();
+      CountResponse countResponse = searchClient.count(countRequest);
       return countResponse.count();
     } catch (ElasticsearchException | IOException e) {
 
@@ -312,66 +414,86 @@ public class TagRepository implements CrudRepository<Tag, String> {
   }
 
   /**
-   * delete the given tag by tag name
+   * delete the given tag by tag name, waiting until it is removed from all channels
    *
    * @param tagName - tag to be deleted
    */
   @Override
   public void deleteById(String tagName) {
+    channelUpdateTasks.await(deleteById(tagName, ChannelUpdateTasks.AWAIT_INTERVAL));
+  }
+
+  /**
+   * delete the given tag by tag name and start a background task removing it from all channels
+   *
+   * @param tagName - tag to be deleted
+   * @param waitForCompletion - time to wait for the removal from the channels to complete
+   * @return the task removing the tag from the channels
+   * @throws RepositoryException if the task could not be started, the tag is then kept
+   */
+  public ChannelTask deleteById(String tagName, String waitForCompletion) {
+    Optional<Tag> tag = findById(tagName);
+    deleteDocument(tagName);
     try {
+      return channelUpdateTasks.start(
+          Subject.TAG, tagName, REMOVE_SCRIPT, Map.of(), null, waitForCompletion);
+    } catch (RuntimeException e) {
+      // channels may still refer to the tag, keep it so that the deletion can be retried
+      tag.ifPresent(this::restore);
+      throw e;
+    }
+  }
+
+  /** Create the deleted tag again, unless it was created again meanwhile. */
+  private void restore(Tag tag) {
+    tag.setSeqNoAndPrimaryTerm(null, null);
+    try {
+      createOrReplace(tag);
+    } catch (RepositoryException e) {
+      logger.log(
+          Level.SEVERE, MessageFormat.format(TextUtil.FAILED_TO_RESTORE_TAG, tag.getName()), e);
+    }
+  }
+
+  /**
+   * rename the given tag or change its owner in all channels in a background task, the new tag must
+   * have been saved before
+   *
+   * @param tagName - current name of the tag
+   * @param tag - the tag with its new name and owner
+   * @param waitForCompletion - time to wait for the update of the channels to complete
+   * @return the task updating the channels, the old tag is deleted once it completed and kept if it
+   *     failed
+   */
+  public ChannelTask rename(String tagName, Tag tag, String waitForCompletion) {
+    return channelUpdateTasks.start(
+        Subject.TAG,
+        tagName,
+        RENAME_SCRIPT,
+        Map.of("newName", JsonData.of(tag.getName()), "owner", JsonData.of(tag.getOwner())),
+        // the old tag stays until no channel refers to it any more
+        tag.getName().equals(tagName) ? null : () -> deleteDocument(tagName),
+        waitForCompletion);
+  }
 
+  private void deleteDocument(String tagName) {
+    try {
       DeleteResponse response =
           client.delete(
-              i -> i.index(esService.getES_TAG_INDEX()).id(tagName).refresh(Refresh.True));
+              i ->
+                  i.index(esService.getES_TAG_INDEX())
+                      .id(tagName)
+                      .refresh(indexRefresher.policy(Operation.DELETE)));
       // verify the deletion of the tag
       if (response.result().equals(Result.Deleted)) {
         logger.log(Level.CONFIG, () -> MessageFormat.format(TextUtil.DELETE_TAG, tagName));
       }
-      BulkRequest.Builder br = new BulkRequest.Builder().refresh(Refresh.True);
-      MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
-      params.add("~tag", tagName);
-      List<Channel> channels = channelRepository.search(params).channels();
-      while (!channels.isEmpty()) {
-
-        for (Channel channel : channels) {
-          // Or
-          channel.removeTag(
-              channel.getTags().stream()
-                  .filter(tag -> tagName.equalsIgnoreCase(tag.getName()))
-                  .findAny()
-                  .get());
-          br.operations(
-              op ->
-                  op.update(
-                      u ->
-                          u.index(esService.getES_CHANNEL_INDEX())
-                              .id(channel.getName())
-                              .action(a -> a.doc(channel))));
-        }
-        try {
-          BulkResponse result = client.bulk(br.build());
-          // Log errors, if any
-          if (result.errors()) {
-            logger.log(Level.SEVERE, TextUtil.BULK_HAD_ERRORS);
-            for (BulkResponseItem item : result.items()) {
-              if (item.error() != null) {
-                logger.log(Level.SEVERE, () -> item.error().reason());
-              }
-            }
-          }
-        } catch (IOException e) {
-          String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_TAG, tagName);
-          logger.log(Level.SEVERE, message, e);
-          throw new RepositoryException(message);
-        }
-        params.set("~search_after", channels.get(channels.size() - 1).getName());
-        channels = channelRepository.search(params).channels();
-      }
-
     } catch (ElasticsearchException | IOException e) {
       String message = MessageFormat.format(TextUtil.FAILED_TO_DELETE_TAG, tagName);
       logger.log(Level.SEVERE, message, e);
       throw new RepositoryException(message);
+    } finally {
+      indexRefresher.written(Operation.DELETE, Index.TAG);
     }
   }
 
@@ -0,0 +1,86 @@
+package org.phoebus.channelfinder.service;
+
+import org.phoebus.channelfinder.common.WaitParamUtil;
+import org.phoebus.channelfinder.entity.AsyncSearchResult;
+import org.phoebus.channelfinder.exceptions.AsyncSearchNotFoundException;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Asynchronous channel searches for queries that may outlast HTTP or proxy timeouts. A search is
+ * submitted once and its partial or final result polled by id until it completes or expires.
+ */
+@Service
+public class ChannelAsyncSearchService {
+
+  private final ChannelRepository channelRepository;
+  private final String keepAlive;
+  private final int defaultWaitSeconds;
+  private final int maxWaitSeconds;
+
+  public ChannelAsyncSearchService(
+      ChannelRepository channelRepository,
+      @Value("${repository.async_search.keep_alive:1h}") String keepAlive,
+      @Value("${repository.async_search.wait_seconds:1}") int defaultWaitSeconds,
+      @Value("${repository.async_search.max_wait_seconds:20}") int maxWaitSeconds) {
+    this.channelRepository = channelRepository;
+    this.keepAlive = keepAlive;
+    this.defaultWaitSeconds = defaultWaitSeconds;
+    this.maxWaitSeconds = maxWaitSeconds;
+  }
+
+  /**
+   * Submit an async channel search.
+   *
+   * @param searchParameters channel search parameters, with an optional {@code ~wait} in seconds
+   * @return the async search, with its result if it completed within the wait
+   */
+  public AsyncSearchResult submit(MultiValueMap<String, String> searchParameters) {
+    return channelRepository.submitAsyncSearch(
+        withoutWait(searchParameters), waitFor(searchParameters), keepAlive);
+  }
+
+  /**
+   * Poll an async channel search, waiting up to {@code ~wait} seconds for it to complete.
+   *
+   * @param id id of the async search
+   * @param searchParameters {@code ~wait}, {@code ~fields} and {@code ~exclude}
+   * @return the async search with its partial or final result
+   * @throws AsyncSearchNotFoundException if the search does not exist or expired
+   */
+  public AsyncSearchResult get(String id, MultiValueMap<String, String> searchParameters) {
+    return channelRepository
+        .getAsyncSearch(id, withoutWait(searchParameters), waitFor(searchParameters))
+        .orElseThrow(() -> new AsyncSearchNotFoundException(id));
+  }
+
+  /**
+   * Cancel an async channel search and delete its result.
+   *
+   * @param id id of the async search
+   * @throws AsyncSearchNotFoundException if the search does not exist or expired
+   */
+  public void delete(String id) {
+    if (!channelRepository.deleteAsyncSearch(id)) {
+      throw new AsyncSearchNotFoundException(id);
+    }
+  }
+
+  private static MultiValueMap<String, String> withoutWait(
+      MultiValueMap<String, String> searchParameters) {
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>(searchParameters);
+    filters.remove(WaitParamUtil.WAIT_PARAMETER);
+    return filters;
+  }
+
+  /** The requested wait, capped below the socket timeout of the search client. */
+  private String waitFor(MultiValueMap<String, String> searchParameters) {
+    return WaitParamUtil.waitFor(
+        searchParameters.getFirst(WaitParamUtil.WAIT_PARAMETER),
+        defaultWaitSeconds,
+        maxWaitSeconds);
+  }
+}
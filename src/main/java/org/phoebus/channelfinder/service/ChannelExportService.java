@@ -0,0 +1,98 @@
+package org.phoebus.channelfinder.service;
+
+import jakarta.annotation.PreDestroy;
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Whole-database channel export. Reads a point in time of the channel index in parallel slices on a
+ * dedicated pool of worker threads.
+ */
+@Service
+public class ChannelExportService {
+
+  private static final Logger logger = Logger.getLogger(ChannelExportService.class.getName());
+
+  public static final String SLICES_PARAMETER = "~slices";
+  public static final String COMPRESS_PARAMETER = "~compress";
+
+  // upper bound of slices per point in time, index.max_slices_per_pit
+  private static final int MAX_SLICES = 1024;
+
+  private final ChannelRepository channelRepository;
+  private final int defaultSlices;
+  private final int pageSize;
+  private final ExecutorService executor;
+
+  public ChannelExportService(
+      ChannelRepository channelRepository,
+      @Value("${repository.export.slices:0}") int defaultSlices,
+      @Value("${repository.export.threads:8}") int threads,
+      @Value("${repository.export.page_size:5000}") int pageSize) {
+    this.channelRepository = channelRepository;
+    this.defaultSlices = defaultSlices;
+    this.pageSize = Math.max(1, pageSize);
+    this.executor = Executors.newFixedThreadPool(Math.max(1, threads));
+  }
+
+  /**
+   * Export all channels matching the search parameters.
+   *
+   * @param searchParameters channel search parameters, export parameters are ignored
+   * @param slices number of slices, {@code null} or {@code <= 0} for the configured default
+   * @param pageConsumer thread safe consumer, called concurrently with pages of different slices
+   * @return number of exported channels
+   */
+  public long export(
+      MultiValueMap<String, String> searchParameters,
+      Integer slices,
+      Consumer<List<Channel>> pageConsumer) {
+    MultiValueMap<String, String> filters = new LinkedMultiValueMap<>(searchParameters);
+    filters.remove(SLICES_PARAMETER);
+    filters.remove(COMPRESS_PARAMETER);
+
+    int sliceCount = resolveSlices(slices);
+    long start = System.currentTimeMillis();
+    long exported = channelRepository.export(filters, sliceCount, pageSize, executor, pageConsumer);
+    logger.log(
+        Level.INFO,
+        () ->
+            MessageFormat.format(
+                "Exported {0} channels in {1} slices in {2} ms",
+                exported, sliceCount, System.currentTimeMillis() - start));
+    return exported;
+  }
+
+  private int resolveSlices(Integer slices) {
+    int resolved = slices != null && slices > 0 ? slices : defaultSlices;
+    if (resolved <= 0) {
+      resolved = channelRepository.shardCount();
+    }
+    return Math.min(resolved, MAX_SLICES);
+  }
+
+  @PreDestroy
+  public void shutdownExecutor() {
+    executor.shutdown();
+    try {
+      if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -131,6 +131,12 @@ public class ChannelFinderEpicsService {
               case "_from":
                 searchParameters.put("~from", List.of(value));
                 break;
+              case "_fields":
+                searchParameters.put("~fields", List.of(value));
+                break;
+              case "_exclude":
+                searchParameters.put("~exclude", List.of(value));
+                break;
               default:
                 searchParameters.put(parameter, List.of(value));
                 break;
@@ -2,26 +2,33 @@ package org.phoebus.channelfinder.service;
 
 import com.google.common.collect.Lists;
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.phoebus.channelfinder.common.TextUtil;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelFieldNames;
+import org.phoebus.channelfinder.entity.ChannelWriteStatus;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.SearchResult;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.exceptions.ChannelNotFoundException;
 import org.phoebus.channelfinder.exceptions.ChannelValidationException;
 import org.phoebus.channelfinder.exceptions.PropertyNotFoundException;
+import org.phoebus.channelfinder.exceptions.RepositoryException;
 import org.phoebus.channelfinder.exceptions.TagNotFoundException;
 import org.phoebus.channelfinder.exceptions.UnauthorizedException;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.repository.OptimisticWrites;
 import org.phoebus.channelfinder.repository.PropertyRepository;
 import org.phoebus.channelfinder.repository.TagRepository;
 import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
@@ -41,26 +48,43 @@ public class ChannelService {
   private final PropertyRepository propertyRepository;
   private final AuthorizationService authorizationService;
   private final ChannelProcessorService channelProcessorService;
+  private final SearchCoalescer searchCoalescer;
 
   public ChannelService(
       ChannelRepository channelRepository,
       TagRepository tagRepository,
       PropertyRepository propertyRepository,
       AuthorizationService authorizationService,
-      ChannelProcessorService channelProcessorService) {
+      ChannelProcessorService channelProcessorService,
+      SearchCoalescer searchCoalescer) {
     this.channelRepository = channelRepository;
     this.tagRepository = tagRepository;
     this.propertyRepository = propertyRepository;
     this.authorizationService = authorizationService;
     this.channelProcessorService = channelProcessorService;
+    this.searchCoalescer = searchCoalescer;
   }
 
   public List<Channel> query(MultiValueMap<String, String> allRequestParams) {
-    return channelRepository.search(allRequestParams).channels();
+    return combinedQuery(allRequestParams).channels();
   }
 
   public SearchResult combinedQuery(MultiValueMap<String, String> allRequestParams) {
-    return channelRepository.search(allRequestParams);
+    return searchCoalescer.search(
+        allRequestParams, () -> channelRepository.search(allRequestParams));
+  }
+
+  public List<SearchResult> multiQuery(List<MultiValueMap<String, String>> searches) {
+    return channelRepository.multiSearch(searches);
+  }
+
+  public long queryStream(
+      MultiValueMap<String, String> allRequestParams, Consumer<List<Channel>> pageConsumer) {
+    return channelRepository.stream(allRequestParams, pageConsumer);
+  }
+
+  public ChannelFieldNames queryFieldNames(MultiValueMap<String, String> allRequestParams) {
+    return channelRepository.fieldNames(allRequestParams);
   }
 
   public long queryCount(MultiValueMap<String, String> allRequestParams) {
@@ -81,41 +105,127 @@ public class ChannelService {
     validateChannel(channel);
     requireOwner(channel);
 
-    Optional<Channel> existingChannel = channelRepository.findById(channelName);
-    if (existingChannel.isPresent()) {
-      requireOwner(existingChannel.get());
-      channelRepository.deleteById(channelName);
-    }
-
     resetOwnersToExisting(List.of(channel));
 
-    Channel created = channelRepository.index(channel);
+    // replaced in place, unless the existing channel was modified since its owner was checked, or
+    // created, unless a channel with its name was created meanwhile
+    Channel created =
+        OptimisticWrites.retryOnConflict(
+            () -> {
+              Optional<Channel> existingChannel = channelRepository.findById(channelName);
+              existingChannel.ifPresent(this::requireOwner);
+              Optional<Channel> replacedChannel =
+                  channelName.equals(channel.getName())
+                      ? existingChannel
+                      : channelRepository.findById(channel.getName());
+              replaceIfUnmodified(channel, replacedChannel);
+              Channel written = channelRepository.createOrReplace(channel);
+              if (existingChannel.isPresent() && !channelName.equals(channel.getName())) {
+                // renamed, removed once the channel with the new name was written
+                channelRepository.deleteById(channelName);
+              }
+              return written;
+            });
     channelProcessorService.sendToProcessors(List.of(created));
     return created;
   }
 
+  /**
+   * Create or replace the given channels like {@link #createWithStatus(Iterable)}, failing if any
+   * of them was not written.
+   *
+   * @param channels channels to create or replace
+   * @return the written channels
+   * @throws VersionConflictException if channels were not written because they were modified
+   *     concurrently
+   * @throws RepositoryException if channels were not written for another reason
+   */
   public Iterable<Channel> create(Iterable<Channel> channels) {
+    List<ChannelWriteStatus> statuses = createWithStatus(channels);
+    List<ChannelWriteStatus> failed =
+        statuses.stream().filter(status -> !status.succeeded()).toList();
+    if (!failed.isEmpty()) {
+      String message =
+          MessageFormat.format(
+              TextUtil.CHANNELS_NOT_WRITTEN,
+              failed.size(),
+              statuses.size(),
+              failed.stream()
+                  .map(status -> status.channel().getName() + " (" + status.error() + ")")
+                  .collect(Collectors.joining(", ")));
+      if (failed.stream().allMatch(status -> OptimisticWrites.isConflict(status.status()))) {
+        throw new VersionConflictException(message);
+      }
+      throw new RepositoryException(message);
+    }
+    return statuses.stream().map(ChannelWriteStatus::channel).toList();
+  }
+
+  /**
+   * Create or replace the given channels in a single bulk. An existing channel is only replaced if
+   * it was not modified since its ownership was checked, a new one only created if it was not
+   * created concurrently. The channels failing with such a conflict are checked and written again,
+   * at most {@link OptimisticWrites#RETRY_ON_CONFLICT} times.
+   *
+   * @param channels channels to create or replace
+   * @return the status of the write of each channel
+   */
+  public List<ChannelWriteStatus> createWithStatus(Iterable<Channel> channels) {
     requireRole(ROLES.CF_CHANNEL, BATCH_OPERATION_SUBJECT);
 
     List<Channel> channelList = Lists.newArrayList(channels);
-    Map<String, Channel> existing = findExistingChannels(channelList);
+    requireOwnersOfExisting(channelList);
+    validateChannels(channelList);
+    resetOwnersToExisting(channelList);
 
-    for (Channel channel : channelList) {
-      if (existing.containsKey(channel.getName())) {
-        requireOwner(existing.get(channel.getName()));
-        channel.setOwner(existing.get(channel.getName()).getOwner());
+    List<ChannelWriteStatus> statuses = new ArrayList<>(channelList.size());
+    List<Integer> pending = new ArrayList<>();
+    for (int i = 0; i < channelList.size(); i++) {
+      statuses.add(null);
+      pending.add(i);
+    }
+    for (int retry = 0; !pending.isEmpty(); retry++) {
+      List<Channel> batch = pending.stream().map(channelList::get).toList();
+      if (retry > 0) {
+        requireOwnersOfExisting(batch);
+      }
+      List<ChannelWriteStatus> written = channelRepository.replaceAll(batch);
+      List<Integer> conflicts = new ArrayList<>();
+      for (int i = 0; i < pending.size(); i++) {
+        statuses.set(pending.get(i), written.get(i));
+        if (OptimisticWrites.isConflict(written.get(i).status())
+            && retry < OptimisticWrites.RETRY_ON_CONFLICT) {
+          conflicts.add(pending.get(i));
+        }
+      }
+      pending = conflicts;
+    }
+    channelProcessorService.sendToProcessors(
+        statuses.stream()
+            .filter(ChannelWriteStatus::succeeded)
+            .map(ChannelWriteStatus::channel)
+            .toList());
+    return statuses;
+  }
+
+  /**
+   * Check the owners of the existing channels with the names of the given ones, keep their owners
+   * and write the given channels only if the existing ones are not modified in the meantime.
+   */
+  private void requireOwnersOfExisting(List<Channel> channels) {
+    Map<String, Channel> existing = findExistingChannels(channels);
+    for (Channel channel : channels) {
+      Channel existingChannel = existing.get(channel.getName());
+      if (existingChannel != null) {
+        requireOwner(existingChannel);
+        channel.setOwner(existingChannel.getOwner());
+        channel.setSeqNoAndPrimaryTerm(
+            existingChannel.getSeqNo(), existingChannel.getPrimaryTerm());
       } else {
         requireOwner(channel);
+        channel.setSeqNoAndPrimaryTerm(null, null);
       }
     }
-
-    validateChannels(channelList);
-    channelRepository.deleteAll(channelList);
-    resetOwnersToExisting(channelList);
-
-    List<Channel> created = channelRepository.indexAll(channelList);
-    channelProcessorService.sendToProcessors(created);
-    return created;
   }
 
   public Channel update(String channelName, Channel channel) {
@@ -123,30 +233,58 @@ public class ChannelService {
     validateChannel(channel);
     requireOwner(channel);
 
-    Optional<Channel> existingChannel = channelRepository.findById(channelName);
-
-    Channel newChannel;
-    if (existingChannel.isPresent()) {
-      requireOwner(existingChannel.get());
-      newChannel = existingChannel.get();
-      newChannel.setOwner(channel.getOwner());
-      newChannel.addProperties(channel.getProperties());
-      newChannel.addTags(channel.getTags());
-      if (!channel.getName().equalsIgnoreCase(existingChannel.get().getName())) {
-        channelRepository.deleteById(existingChannel.get().getName());
-        newChannel.setName(channel.getName());
-      }
-    } else {
-      newChannel = channel;
-    }
-
     resetOwnersToExisting(List.of(channel));
 
-    Channel updated = channelRepository.save(newChannel);
+    // merged into the channel as read and replaced in place, unless it was modified since its owner
+    // was checked; a new or renamed channel is only created if no channel with its name was created
+    // meanwhile, the old name is removed once the channel with the new name was written
+    Channel updated =
+        OptimisticWrites.retryOnConflict(
+            () -> {
+              Optional<Channel> existingChannel = channelRepository.findById(channelName);
+
+              Channel newChannel;
+              String renamedFrom = null;
+              if (existingChannel.isPresent()) {
+                requireOwner(existingChannel.get());
+                newChannel = existingChannel.get();
+                newChannel.setOwner(channel.getOwner());
+                newChannel.addProperties(channel.getProperties());
+                newChannel.addTags(channel.getTags());
+                if (!channel.getName().equalsIgnoreCase(existingChannel.get().getName())) {
+                  renamedFrom = existingChannel.get().getName();
+                  newChannel.setName(channel.getName());
+                  replaceIfUnmodified(newChannel, channelRepository.findById(channel.getName()));
+                }
+              } else {
+                newChannel = channel;
+                replaceIfUnmodified(
+                    newChannel,
+                    channelName.equals(channel.getName())
+                        ? existingChannel
+                        : channelRepository.findById(channel.getName()));
+              }
+              Channel written = channelRepository.createOrReplace(newChannel);
+              if (renamedFrom != null) {
+                channelRepository.deleteById(renamedFrom);
+              }
+              return written;
+            });
     channelProcessorService.sendToProcessors(List.of(updated));
     return updated;
   }
 
+  /**
+   * Write the given channel over the existing one with its name, if any, only if its owner may be
+   * replaced and it is not modified before the write; create it only if absent otherwise.
+   */
+  private void replaceIfUnmodified(Channel channel, Optional<Channel> replacedChannel) {
+    replacedChannel.ifPresent(this::requireOwner);
+    channel.setSeqNoAndPrimaryTerm(
+        replacedChannel.map(Channel::getSeqNo).orElse(null),
+        replacedChannel.map(Channel::getPrimaryTerm).orElse(null));
+  }
+
   public Iterable<Channel> update(Iterable<Channel> channels) {
     requireRole(ROLES.CF_CHANNEL, BATCH_OPERATION_SUBJECT);
 
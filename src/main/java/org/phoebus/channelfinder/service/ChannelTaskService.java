@@ -0,0 +1,90 @@
+package org.phoebus.channelfinder.service;
+
+import java.text.MessageFormat;
+import org.phoebus.channelfinder.common.TextUtil;
+import org.phoebus.channelfinder.common.WaitParamUtil;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.ChannelTask.Subject;
+import org.phoebus.channelfinder.exceptions.ChannelTaskNotFoundException;
+import org.phoebus.channelfinder.exceptions.UnauthorizedException;
+import org.phoebus.channelfinder.repository.ChannelUpdateTasks;
+import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+/**
+ * Background updates of many channels, such as the removal of a deleted tag or property from all
+ * channels. The request starting a task waits up to {@code ~wait} seconds for it to complete, a
+ * task still running after that is polled by id until it completes.
+ */
+@Service
+public class ChannelTaskService {
+
+  private final ChannelUpdateTasks channelUpdateTasks;
+  private final AuthorizationService authorizationService;
+  private final int defaultWaitSeconds;
+  private final int maxWaitSeconds;
+
+  public ChannelTaskService(
+      ChannelUpdateTasks channelUpdateTasks,
+      AuthorizationService authorizationService,
+      @Value("${repository.channel_tasks.wait_seconds:10}") int defaultWaitSeconds,
+      @Value("${repository.channel_tasks.max_wait_seconds:20}") int maxWaitSeconds) {
+    this.channelUpdateTasks = channelUpdateTasks;
+    this.authorizationService = authorizationService;
+    this.defaultWaitSeconds = defaultWaitSeconds;
+    this.maxWaitSeconds = maxWaitSeconds;
+  }
+
+  /**
+   * Poll a channel task, waiting up to {@code ~wait} seconds for it to complete.
+   *
+   * @param id id of the task
+   * @param wait requested {@code ~wait} in seconds, may be null
+   * @return the task
+   * @throws ChannelTaskNotFoundException if the task does not exist
+   */
+  public ChannelTask get(String id, String wait) {
+    return channelUpdateTasks
+        .get(id, waitFor(wait))
+        .orElseThrow(() -> new ChannelTaskNotFoundException(id));
+  }
+
+  /**
+   * Cancel a channel task if it is still running, requires the role to modify its tag or property.
+   *
+   * @param id id of the task
+   * @return the task
+   * @throws ChannelTaskNotFoundException if the task does not exist
+   */
+  public ChannelTask cancel(String id) {
+    ChannelTask task =
+        channelUpdateTasks.get(id, null).orElseThrow(() -> new ChannelTaskNotFoundException(id));
+    ROLES role = task.subject() == Subject.PROPERTY ? ROLES.CF_PROPERTY : ROLES.CF_TAG;
+    if (!authorizationService.isAuthorizedRole(
+        SecurityContextHolder.getContext().getAuthentication(), role)) {
+      throw new UnauthorizedException(
+          MessageFormat.format(TextUtil.USER_NOT_AUTHORIZED_ON_CHANNEL_TASK, id));
+    }
+    return channelUpdateTasks.cancel(id).orElseThrow(() -> new ChannelTaskNotFoundException(id));
+  }
+
+  /**
+   * Wait until a channel task completed.
+   *
+   * @param task the task to wait for
+   * @return the completed task
+   */
+  public ChannelTask await(ChannelTask task) {
+    return channelUpdateTasks.await(task);
+  }
+
+  /**
+   * @param requested requested {@code ~wait} in seconds, may be null
+   * @return the time to wait for a task, capped at the maximum wait
+   */
+  public String waitFor(String requested) {
+    return WaitParamUtil.waitFor(requested, defaultWaitSeconds, maxWaitSeconds);
+  }
+}
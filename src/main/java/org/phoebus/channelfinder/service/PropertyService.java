@@ -13,12 +13,14 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.phoebus.channelfinder.common.TextUtil;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.exceptions.ChannelNotFoundException;
 import org.phoebus.channelfinder.exceptions.PropertyNotFoundException;
 import org.phoebus.channelfinder.exceptions.PropertyValidationException;
 import org.phoebus.channelfinder.exceptions.UnauthorizedException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.repository.OptimisticWrites;
 import org.phoebus.channelfinder.repository.PropertyRepository;
 import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,14 +35,17 @@ public class PropertyService {
   private final PropertyRepository propertyRepository;
   private final ChannelRepository channelRepository;
   private final AuthorizationService authorizationService;
+  private final ChannelTaskService channelTaskService;
 
   public PropertyService(
       PropertyRepository propertyRepository,
       ChannelRepository channelRepository,
-      AuthorizationService authorizationService) {
+      AuthorizationService authorizationService,
+      ChannelTaskService channelTaskService) {
     this.propertyRepository = propertyRepository;
     this.channelRepository = channelRepository;
     this.authorizationService = authorizationService;
+    this.channelTaskService = channelTaskService;
   }
 
   public Iterable<Property> list() {
@@ -121,10 +126,9 @@ public class PropertyService {
             .orElseThrow(() -> new PropertyNotFoundException(propertyName));
     requireOwner(existing);
 
-    Channel channel = channelRepository.findById(channelName).get();
-    channel.addProperty(new Property(existing.getName(), existing.getOwner(), property.getValue()));
-    Channel saved = channelRepository.save(channel);
     Property added = new Property(existing.getName(), existing.getOwner(), property.getValue());
+    Channel saved =
+        channelRepository.attach(new Channel(channelName, null, List.of(added), List.of()));
     saved.setTags(new ArrayList<>());
     saved.setProperties(new ArrayList<>());
     added.setChannels(Arrays.asList(saved));
@@ -136,26 +140,30 @@ public class PropertyService {
     validateProperty(property);
     requireOwner(property);
 
-    List<Channel> chans = new ArrayList<>();
-    Optional<Property> existingOpt = propertyRepository.findById(propertyName, true);
-    Property newProperty;
-    if (existingOpt.isPresent()) {
-      requireOwner(existingOpt.get());
-      chans = existingOpt.get().getChannels();
-      newProperty = existingOpt.get();
-      newProperty.setOwner(property.getOwner());
-      if (!property.getName().equalsIgnoreCase(existingOpt.get().getName())) {
-        propertyRepository.deleteById(existingOpt.get().getName());
-        newProperty.setName(property.getName());
-      }
-    } else {
-      newProperty = property;
+    Saved saved =
+        OptimisticWrites.retryOnConflict(
+            () -> {
+              Optional<Property> existingOpt = propertyRepository.findById(propertyName);
+              if (existingOpt.isPresent()) {
+                requireOwner(existingOpt.get());
+                return new Saved(
+                    existingOpt.get(),
+                    propertyRepository.createOrReplace(renamed(existingOpt.get(), property)));
+              }
+              property.setSeqNoAndPrimaryTerm(null, null);
+              return new Saved(null, propertyRepository.createOrReplace(property));
+            });
+
+    Property updated = saved.updated();
+    Property existing = saved.existing();
+    if (existing != null
+        && (!updated.getName().equals(existing.getName())
+            || !updated.getOwner().equals(existing.getOwner()))) {
+      // the channels with the property are updated before the channels of the payload
+      channelTaskService.await(
+          propertyRepository.rename(existing.getName(), updated, channelTaskService.waitFor(null)));
     }
 
-    Property updated = propertyRepository.save(newProperty);
-
-    propagateRenameToChannels(propertyName, updated, chans);
-
     if (!property.getChannels().isEmpty()) {
       List<Channel> chanList = saveAndRetainProperty(property.getChannels(), updated.getName());
       if (!chanList.isEmpty()) updated.setChannels(chanList);
@@ -164,6 +172,52 @@ public class PropertyService {
     return updated;
   }
 
+  public ChannelTask rename(String propertyName, Property property, String wait) {
+    requireRole(ROLES.CF_PROPERTY, propertyName);
+    validateProperty(property);
+    requireOwner(property);
+
+    Saved saved =
+        OptimisticWrites.retryOnConflict(
+            () -> {
+              Property existing =
+                  propertyRepository
+                      .findById(propertyName)
+                      .orElseThrow(() -> new PropertyNotFoundException(propertyName));
+              requireOwner(existing);
+              return new Saved(
+                  existing, propertyRepository.createOrReplace(renamed(existing, property)));
+            });
+    return propertyRepository.rename(
+        saved.existing().getName(), saved.updated(), channelTaskService.waitFor(wait));
+  }
+
+  /** The existing property, null if there was none, and the property it was replaced with. */
+  private record Saved(Property existing, Property updated) {}
+
+  /**
+   * The property with the new name and owner, a new name differing only in case is ignored. Only
+   * replaces the existing property if it was not modified since it was read. A property already
+   * existing with the new name is only replaced if the user owns it and it was not modified since,
+   * the property is only created if none was created with the new name meanwhile otherwise.
+   */
+  private Property renamed(Property existing, Property property) {
+    Property renamed;
+    Optional<Property> replaced;
+    if (property.getName().equalsIgnoreCase(existing.getName())) {
+      renamed = new Property(existing.getName(), property.getOwner());
+      replaced = Optional.of(existing);
+    } else {
+      renamed = new Property(property.getName(), property.getOwner());
+      replaced = propertyRepository.findById(property.getName());
+      replaced.ifPresent(this::requireOwner);
+    }
+    renamed.setSeqNoAndPrimaryTerm(
+        replaced.map(Property::getSeqNo).orElse(null),
+        replaced.map(Property::getPrimaryTerm).orElse(null));
+    return renamed;
+  }
+
   private List<Channel> saveAndRetainProperty(Iterable<Channel> channels, String propertyName) {
     List<Channel> result = new ArrayList<>();
     for (Channel chan : channelRepository.saveAll(channels)) {
@@ -196,7 +250,10 @@ public class PropertyService {
       mergeChannelsIntoMap(property.getChannels(), channels);
     }
 
-    propertyRepository.saveAll(properties);
+    // written only if the existing properties were not modified since their owners were checked
+    OptimisticWrites.retryOnConflict(
+        () -> propertyRepository.saveAll(properties),
+        () -> checkPropertiesAuthorization(properties));
 
     if (!channels.isEmpty()) {
       channelRepository.saveAll(channels.values());
@@ -204,7 +261,7 @@ public class PropertyService {
     return properties;
   }
 
-  public void remove(String propertyName) {
+  public ChannelTask remove(String propertyName, String wait) {
     requireRole(ROLES.CF_PROPERTY, propertyName);
 
     Property existing =
@@ -212,7 +269,7 @@ public class PropertyService {
             .findById(propertyName)
             .orElseThrow(() -> new PropertyNotFoundException(propertyName));
     requireOwner(existing);
-    propertyRepository.deleteById(propertyName);
+    return propertyRepository.deleteById(propertyName, channelTaskService.waitFor(wait));
   }
 
   public void removeSingle(String propertyName, String channelName) {
@@ -224,35 +281,15 @@ public class PropertyService {
             .orElseThrow(() -> new PropertyNotFoundException(propertyName));
     requireOwner(existing);
 
-    Channel channel =
-        channelRepository
-            .findById(channelName)
-            .orElseThrow(() -> new ChannelNotFoundException(channelName));
-    channel.removeProperty(new Property(propertyName, ""));
-    channelRepository.index(channel);
-  }
-
-  private void propagateRenameToChannels(
-      String oldPropertyName, Property updated, List<Channel> existingChannels) {
-    if (existingChannels.isEmpty()) return;
-    List<Channel> toUpdate = new ArrayList<>();
-    for (Channel chan : existingChannels) {
-      boolean alreadyUpdated =
-          updated.getChannels().stream().anyMatch(c -> c.getName().equals(chan.getName()));
-      if (!alreadyUpdated) {
-        chan.getProperties().stream()
-            .filter(p -> p.getName().equals(oldPropertyName))
-            .findFirst()
-            .map(Property::getValue)
-            .ifPresent(
-                val -> {
-                  chan.setProperties(
-                      List.of(new Property(updated.getName(), updated.getOwner(), val)));
-                  toUpdate.add(chan);
-                });
-      }
-    }
-    if (!toUpdate.isEmpty()) channelRepository.saveAll(toUpdate);
+    OptimisticWrites.retryOnConflict(
+        () -> {
+          Channel channel =
+              channelRepository
+                  .findById(channelName)
+                  .orElseThrow(() -> new ChannelNotFoundException(channelName));
+          channel.removeProperty(new Property(propertyName, ""));
+          return channelRepository.index(channel);
+        });
   }
 
   private void mergeChannelsIntoMap(Iterable<Channel> channels, Map<String, Channel> target) {
@@ -330,11 +367,13 @@ public class PropertyService {
       if (existing.isPresent()) {
         requireOwner(existing.get());
         property.setOwner(existing.get().getOwner());
+        property.setSeqNoAndPrimaryTerm(existing.get().getSeqNo(), existing.get().getPrimaryTerm());
         property
             .getChannels()
             .forEach(chan -> chan.getProperties().get(0).setOwner(existing.get().getOwner()));
       } else {
         requireOwner(property);
+        property.setSeqNoAndPrimaryTerm(null, null);
       }
     }
   }
@@ -0,0 +1,102 @@
+package org.phoebus.channelfinder.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+import org.phoebus.channelfinder.common.SearchParamUtil;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.repository.ChannelSearchCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Single-flight execution of identical concurrent channel searches.
+ *
+ * <p>The first caller for a given set of normalized search parameters runs the search; callers
+ * arriving while it is in flight wait for it and receive the same result. Nothing is kept once the
+ * search completes. Searches are also keyed by the {@link ChannelSearchCache#generation()} of the
+ * channel index, so a caller never joins a search that started before a write it has seen complete.
+ *
+ * <p>Callers are free to modify the returned result: the caller running the search gets its result
+ * and every waiting caller gets its own copy of it.
+ */
+@Component
+public class SearchCoalescer {
+
+  public static final String CF_SEARCH_REQUESTS = "cf.search.requests";
+
+  private final boolean enabled;
+  private final ChannelSearchCache searchCache;
+  private final ConcurrentMap<String, CompletableFuture<SearchResult>> inFlight =
+      new ConcurrentHashMap<>();
+  private final Counter executed;
+  private final Counter coalesced;
+
+  public SearchCoalescer(
+      @Value("${repository.search.coalescing.enabled:true}") boolean enabled,
+      ChannelSearchCache searchCache,
+      MeterRegistry meterRegistry) {
+    this.enabled = enabled;
+    this.searchCache = searchCache;
+    this.executed =
+        Counter.builder(CF_SEARCH_REQUESTS)
+            .description("Channel searches sent to the repository")
+            .tag("result", "executed")
+            .register(meterRegistry);
+    this.coalesced =
+        Counter.builder(CF_SEARCH_REQUESTS)
+            .description("Channel searches answered by an identical search already in flight")
+            .tag("result", "coalesced")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Run the search, or wait for an identical search already in flight.
+   *
+   * @param searchParameters channel search parameters
+   * @param search the search to run if none is in flight
+   * @return the search result
+   */
+  public SearchResult search(
+      MultiValueMap<String, String> searchParameters, Supplier<SearchResult> search) {
+    if (!enabled) {
+      return search.get();
+    }
+    String key = searchCache.generation() + ":" + SearchParamUtil.normalize(searchParameters);
+    CompletableFuture<SearchResult> future = new CompletableFuture<>();
+    CompletableFuture<SearchResult> running = inFlight.putIfAbsent(key, future);
+    if (running != null) {
+      coalesced.increment();
+      return join(running).copy();
+    }
+
+    executed.increment();
+    try {
+      SearchResult result = search.get();
+      // waiting callers copy from a snapshot, not from the result this caller may modify
+      future.complete(result.copy());
+      return result;
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, future);
+    }
+  }
+
+  private static SearchResult join(CompletableFuture<SearchResult> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
@@ -13,12 +13,14 @@ import java.util.logging.Logger;
 import java.util.stream.StreamSupport;
 import org.phoebus.channelfinder.common.TextUtil;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.exceptions.ChannelNotFoundException;
 import org.phoebus.channelfinder.exceptions.TagNotFoundException;
 import org.phoebus.channelfinder.exceptions.TagValidationException;
 import org.phoebus.channelfinder.exceptions.UnauthorizedException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.repository.OptimisticWrites;
 import org.phoebus.channelfinder.repository.TagRepository;
 import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,14 +35,17 @@ public class TagService {
   private final TagRepository tagRepository;
   private final ChannelRepository channelRepository;
   private final AuthorizationService authorizationService;
+  private final ChannelTaskService channelTaskService;
 
   public TagService(
       TagRepository tagRepository,
       ChannelRepository channelRepository,
-      AuthorizationService authorizationService) {
+      AuthorizationService authorizationService,
+      ChannelTaskService channelTaskService) {
     this.tagRepository = tagRepository;
     this.channelRepository = channelRepository;
     this.authorizationService = authorizationService;
+    this.channelTaskService = channelTaskService;
   }
 
   public Iterable<Tag> list() {
@@ -126,9 +131,8 @@ public class TagService {
         tagRepository.findById(tagName).orElseThrow(() -> new TagNotFoundException(tagName));
     requireOwner(existing);
 
-    Channel channel = channelRepository.findById(channelName).get();
-    channel.addTag(existing);
-    Channel saved = channelRepository.save(channel);
+    Channel saved =
+        channelRepository.attach(new Channel(channelName, null, List.of(), List.of(existing)));
     existing.setChannels(Arrays.asList(saved));
     return existing;
   }
@@ -138,53 +142,87 @@ public class TagService {
     validateTag(tag);
     requireOwner(tag);
 
-    List<Channel> channels = new ArrayList<>();
-    Optional<Tag> existingTag = tagRepository.findById(tagName, true);
-
-    Tag newTag;
-    if (existingTag.isPresent()) {
-      requireOwner(existingTag.get());
-      channels = existingTag.get().getChannels();
-      newTag = existingTag.get();
-      newTag.setOwner(tag.getOwner());
-      if (!tag.getName().equalsIgnoreCase(existingTag.get().getName())) {
-        tagRepository.deleteById(existingTag.get().getName());
-        newTag.setName(tag.getName());
-      }
-    } else {
-      newTag = tag;
+    Saved saved =
+        OptimisticWrites.retryOnConflict(
+            () -> {
+              Optional<Tag> existingTag = tagRepository.findById(tagName);
+              if (existingTag.isPresent()) {
+                requireOwner(existingTag.get());
+                return new Saved(
+                    existingTag.get(),
+                    tagRepository.createOrReplace(renamed(existingTag.get(), tag)));
+              }
+              tag.setSeqNoAndPrimaryTerm(null, null);
+              return new Saved(null, tagRepository.createOrReplace(tag));
+            });
+
+    Tag updated = saved.updated();
+    Tag existing = saved.existing();
+    if (existing != null
+        && (!updated.getName().equals(existing.getName())
+            || !updated.getOwner().equals(existing.getOwner()))) {
+      // the channels with the tag are updated before the channels of the payload
+      channelTaskService.await(
+          tagRepository.rename(existing.getName(), updated, channelTaskService.waitFor(null)));
     }
 
-    Tag updated = tagRepository.save(newTag);
-
-    if (!channels.isEmpty()) {
-      channels.forEach(chan -> chan.addTag(updated));
-    }
     if (!tag.getChannels().isEmpty()) {
       tag.getChannels().forEach(c -> c.addTag(updated));
-      channels.addAll(tag.getChannels());
-    }
-    if (!channels.isEmpty()) {
-      Iterable<Channel> updatedChannels = channelRepository.saveAll(channels);
+      Iterable<Channel> updatedChannels = channelRepository.saveAll(tag.getChannels());
       updated.setChannels(StreamSupport.stream(updatedChannels.spliterator(), false).toList());
     }
 
     return updated;
   }
 
-  public Iterable<Tag> update(Iterable<Tag> tags) {
-    requireRole(ROLES.CF_TAG, "tags batch");
+  public ChannelTask rename(String tagName, Tag tag, String wait) {
+    requireRole(ROLES.CF_TAG, tagName);
+    validateTag(tag);
+    requireOwner(tag);
 
-    for (Tag tag : tags) {
-      Optional<Tag> existing = tagRepository.findById(tag.getName());
-      if (existing.isPresent()) {
-        requireOwner(existing.get());
-        tag.setOwner(existing.get().getOwner());
-      } else {
-        requireOwner(tag);
-      }
+    Saved saved =
+        OptimisticWrites.retryOnConflict(
+            () -> {
+              Tag existing =
+                  tagRepository
+                      .findById(tagName)
+                      .orElseThrow(() -> new TagNotFoundException(tagName));
+              requireOwner(existing);
+              return new Saved(existing, tagRepository.createOrReplace(renamed(existing, tag)));
+            });
+    return tagRepository.rename(
+        saved.existing().getName(), saved.updated(), channelTaskService.waitFor(wait));
+  }
+
+  /** The existing tag, null if there was none, and the tag it was replaced with. */
+  private record Saved(Tag existing, Tag updated) {}
+
+  /**
+   * The tag with the new name and owner, a new name differing only in case is ignored. Only
+   * replaces the existing tag if it was not modified since it was read. A tag already existing with
+   * the new name is only replaced if the user owns it and it was not modified since, the tag is
+   * only created if none was created with the new name meanwhile otherwise.
+   */
+  private Tag renamed(Tag existing, Tag tag) {
+    Tag renamed;
+    Optional<Tag> replaced;
+    if (tag.getName().equalsIgnoreCase(existing.getName())) {
+      renamed = new Tag(existing.getName(), tag.getOwner());
+      replaced = Optional.of(existing);
+    } else {
+      renamed = new Tag(tag.getName(), tag.getOwner());
+      replaced = tagRepository.findById(tag.getName());
+      replaced.ifPresent(this::requireOwner);
     }
+    renamed.setSeqNoAndPrimaryTerm(
+        replaced.map(Tag::getSeqNo).orElse(null), replaced.map(Tag::getPrimaryTerm).orElse(null));
+    return renamed;
+  }
 
+  public Iterable<Tag> update(Iterable<Tag> tags) {
+    requireRole(ROLES.CF_TAG, "tags batch");
+
+    requireOwnersOfExisting(tags);
     validateTags(tags);
 
     Map<String, Channel> channels = new HashMap<>();
@@ -199,7 +237,9 @@ public class TagService {
       }
     }
 
-    tagRepository.saveAll(tags);
+    // written only if the existing tags were not modified since their owners were checked
+    OptimisticWrites.retryOnConflict(
+        () -> tagRepository.saveAll(tags), () -> requireOwnersOfExisting(tags));
 
     if (!channels.isEmpty()) {
       channelRepository.saveAll(channels.values());
@@ -207,13 +247,27 @@ public class TagService {
     return tags;
   }
 
-  public void remove(String tagName) {
+  private void requireOwnersOfExisting(Iterable<Tag> tags) {
+    for (Tag tag : tags) {
+      Optional<Tag> existing = tagRepository.findById(tag.getName());
+      if (existing.isPresent()) {
+        requireOwner(existing.get());
+        tag.setOwner(existing.get().getOwner());
+        tag.setSeqNoAndPrimaryTerm(existing.get().getSeqNo(), existing.get().getPrimaryTerm());
+      } else {
+        requireOwner(tag);
+        tag.setSeqNoAndPrimaryTerm(null, null);
+      }
+    }
+  }
+
+  public ChannelTask remove(String tagName, String wait) {
     requireRole(ROLES.CF_TAG, tagName);
 
     Tag existing =
         tagRepository.findById(tagName).orElseThrow(() -> new TagNotFoundException(tagName));
     requireOwner(existing);
-    tagRepository.deleteById(tagName);
+    return tagRepository.deleteById(tagName, channelTaskService.waitFor(wait));
   }
 
   public void removeSingle(String tagName, String channelName) {
@@ -223,12 +277,15 @@ public class TagService {
         tagRepository.findById(tagName).orElseThrow(() -> new TagNotFoundException(tagName));
     requireOwner(existingTag);
 
-    Channel channel =
-        channelRepository
-            .findById(channelName)
-            .orElseThrow(() -> new ChannelNotFoundException(channelName));
-    channel.removeTag(new Tag(tagName, ""));
-    channelRepository.index(channel);
+    OptimisticWrites.retryOnConflict(
+        () -> {
+          Channel channel =
+              channelRepository
+                  .findById(channelName)
+                  .orElseThrow(() -> new ChannelNotFoundException(channelName));
+          channel.removeTag(new Tag(tagName, ""));
+          return channelRepository.index(channel);
+        });
   }
 
   private void validateTag(Tag tag) {
@@ -0,0 +1,92 @@
+package org.phoebus.channelfinder.web.v0;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.phoebus.channelfinder.common.SearchParamUtil;
+import org.phoebus.channelfinder.repository.IndexChangeTracker;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET support for read endpoints.
+ *
+ * <p>The weak ETag of a response combines the change versions of the indices the endpoint reads
+ * with a digest of the path, the normalized query parameters and the requested media types. Two
+ * requests for the same query get the same ETag for as long as none of those indices was written,
+ * so a request whose {@code If-None-Match} matches is answered with 304 before the controller runs
+ * and without any Elasticsearch request.
+ *
+ * <p>The versions are taken before the handler reads Elasticsearch, so a write racing with the read
+ * can only make the returned ETag older than the data, which costs the client one more full
+ * response but never serves it stale data.
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+  private final IndexChangeTracker changeTracker;
+  private final Index[] indices;
+
+  /**
+   * @param changeTracker change versions of the indices
+   * @param indices the indices the intercepted endpoints read
+   */
+  public ConditionalGetInterceptor(IndexChangeTracker changeTracker, Index... indices) {
+    this.changeTracker = changeTracker;
+    this.indices = indices;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    if (!HttpMethod.GET.matches(request.getMethod())
+        && !HttpMethod.HEAD.matches(request.getMethod())) {
+      return true;
+    }
+    // revalidate on every use instead of letting clients guess a freshness lifetime
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+    return !new ServletWebRequest(request, response).checkNotModified(etag(request));
+  }
+
+  /**
+   * @param request read request
+   * @return weak ETag of the response to the request at the current index versions
+   */
+  String etag(HttpServletRequest request) {
+    StringBuilder etag = new StringBuilder("W/\"").append(Long.toHexString(changeTracker.epoch()));
+    for (Index index : indices) {
+      etag.append('-').append(Long.toHexString(changeTracker.version(index)));
+    }
+    String accept =
+        Collections.list(request.getHeaders(HttpHeaders.ACCEPT)).stream()
+            .collect(Collectors.joining(","));
+    String query =
+        request.getRequestURI()
+            + '?'
+            + SearchParamUtil.normalize(parameters(request))
+            + '\n'
+            + accept;
+    return etag.append('-')
+        .append(DigestUtils.md5DigestAsHex(query.getBytes(StandardCharsets.UTF_8)))
+        .append('"')
+        .toString();
+  }
+
+  private static MultiValueMap<String, String> parameters(HttpServletRequest request) {
+    MultiValueMap<String, String> parameters = new LinkedMultiValueMap<>();
+    for (Map.Entry<String, String[]> parameter : request.getParameterMap().entrySet()) {
+      for (String value : parameter.getValue()) {
+        parameters.add(parameter.getKey(), value);
+      }
+    }
+    return parameters;
+  }
+}
@@ -0,0 +1,86 @@
+package org.phoebus.channelfinder.web.v0;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.phoebus.channelfinder.repository.IndexRefresher;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Read-your-writes support for writes made without a refresh.
+ *
+ * <p>Responses to writes carry a consistency token in the {@value #HEADER} header. A later request
+ * that sends the token back in the same header waits until the writes it covers are visible to
+ * searches before it is handled. Requests without the header are not delayed.
+ *
+ * <p>The token is set as a response body advice, before the body is written, and for handlers
+ * without a body after they returned.
+ */
+@ControllerAdvice(basePackages = "org.phoebus.channelfinder.web.v0.controller")
+public class ConsistencyTokenAdvice implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+  public static final String HEADER = "CF-Consistency-Token";
+
+  private final IndexRefresher indexRefresher;
+
+  public ConsistencyTokenAdvice(IndexRefresher indexRefresher) {
+    this.indexRefresher = indexRefresher;
+  }
+
+  @Override
+  public boolean preHandle(
+      HttpServletRequest request, HttpServletResponse response, Object handler) {
+    String token = request.getHeader(HEADER);
+    if (token != null && !token.isBlank()) {
+      indexRefresher.await(token);
+    }
+    return true;
+  }
+
+  @Override
+  public void postHandle(
+      HttpServletRequest request,
+      HttpServletResponse response,
+      Object handler,
+      ModelAndView modelAndView) {
+    if (isWrite(request.getMethod())
+        && !response.isCommitted()
+        && !response.containsHeader(HEADER)) {
+      response.setHeader(HEADER, indexRefresher.token());
+    }
+  }
+
+  @Override
+  public boolean supports(
+      MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+    return true;
+  }
+
+  @Override
+  public Object beforeBodyWrite(
+      Object body,
+      MethodParameter returnType,
+      MediaType selectedContentType,
+      Class<? extends HttpMessageConverter<?>> selectedConverterType,
+      ServerHttpRequest request,
+      ServerHttpResponse response) {
+    if (isWrite(request.getMethod().name())) {
+      response.getHeaders().set(HEADER, indexRefresher.token());
+    }
+    return body;
+  }
+
+  private static boolean isWrite(String method) {
+    return !HttpMethod.GET.matches(method)
+        && !HttpMethod.HEAD.matches(method)
+        && !HttpMethod.OPTIONS.matches(method);
+  }
+}
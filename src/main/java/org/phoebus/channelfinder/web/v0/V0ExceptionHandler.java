@@ -1,15 +1,22 @@
 package org.phoebus.channelfinder.web.v0;
 
+import jakarta.servlet.http.HttpServletResponse;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import org.phoebus.channelfinder.exceptions.AsyncSearchNotFoundException;
 import org.phoebus.channelfinder.exceptions.ChannelNotFoundException;
+import org.phoebus.channelfinder.exceptions.ChannelTaskNotFoundException;
 import org.phoebus.channelfinder.exceptions.ChannelValidationException;
 import org.phoebus.channelfinder.exceptions.PropertyNotFoundException;
 import org.phoebus.channelfinder.exceptions.PropertyValidationException;
 import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.exceptions.SearchRejectedException;
+import org.phoebus.channelfinder.exceptions.SearchTooExpensiveException;
 import org.phoebus.channelfinder.exceptions.TagNotFoundException;
 import org.phoebus.channelfinder.exceptions.TagValidationException;
 import org.phoebus.channelfinder.exceptions.UnauthorizedException;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -52,6 +59,20 @@ public class V0ExceptionHandler {
     return new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
   }
 
+  @ExceptionHandler(AsyncSearchNotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
+  public ResponseStatusException handleAsyncSearchNotFound(AsyncSearchNotFoundException ex) {
+    logger.log(Level.FINE, ex::getMessage);
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+  }
+
+  @ExceptionHandler(ChannelTaskNotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
+  public ResponseStatusException handleChannelTaskNotFound(ChannelTaskNotFoundException ex) {
+    logger.log(Level.FINE, ex::getMessage);
+    return new ResponseStatusException(HttpStatus.NOT_FOUND, ex.getMessage());
+  }
+
   @ExceptionHandler(ChannelValidationException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ResponseStatusException handleChannelValidation(ChannelValidationException ex) {
@@ -87,6 +108,29 @@ public class V0ExceptionHandler {
     return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed request body");
   }
 
+  @ExceptionHandler(SearchRejectedException.class)
+  @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+  public ResponseStatusException handleSearchRejected(
+      SearchRejectedException ex, HttpServletResponse response) {
+    logger.log(Level.WARNING, ex::getMessage);
+    response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()));
+    return new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage());
+  }
+
+  @ExceptionHandler(SearchTooExpensiveException.class)
+  @ResponseStatus(HttpStatus.BAD_REQUEST)
+  public ResponseStatusException handleSearchTooExpensive(SearchTooExpensiveException ex) {
+    logger.log(Level.WARNING, ex::getMessage);
+    return new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+  }
+
+  @ExceptionHandler(VersionConflictException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ResponseStatusException handleVersionConflict(VersionConflictException ex) {
+    logger.log(Level.WARNING, ex::getMessage);
+    return new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage());
+  }
+
   @ExceptionHandler(RepositoryException.class)
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ResponseStatusException handleStorage(RepositoryException ex) {
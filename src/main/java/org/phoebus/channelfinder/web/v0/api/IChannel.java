@@ -10,8 +10,13 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import java.util.List;
+import java.util.Map;
+import org.phoebus.channelfinder.web.v0.arrow.ArrowStreamWriter;
 import org.phoebus.channelfinder.web.v0.dto.ChannelDto;
+import org.phoebus.channelfinder.web.v0.dto.ChannelWriteStatusDto;
 import org.phoebus.channelfinder.web.v0.dto.SearchResultDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,6 +26,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public interface IChannel {
 
@@ -52,6 +58,98 @@ public interface IChannel {
       @Parameter(description = SEARCH_PARAM_DESCRIPTION) @RequestParam
           MultiValueMap<String, String> allRequestParams);
 
+  @Operation(
+      summary = "Stream channels",
+      description =
+          "Query channels like queryChannels, but page through the matches internally and write each"
+              + " channel as soon as it is fetched. Selected by the ~stream parameter: ~stream=ndjson"
+              + " writes newline-delimited JSON, ~stream=arrow an Arrow IPC stream, any other value a"
+              + " JSON array. ~size, if given, limits the total number of channels.",
+      operationId = "streamChannels",
+      tags = {"Channel"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Stream of channels",
+            content =
+                @Content(
+                    array = @ArraySchema(schema = @Schema(implementation = ChannelDto.class)))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to find all channels",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @GetMapping(params = "~stream")
+  ResponseEntity<StreamingResponseBody> queryStream(
+      @Parameter(description = SEARCH_PARAM_DESCRIPTION) @RequestParam
+          MultiValueMap<String, String> allRequestParams);
+
+  @Operation(
+      summary = "Stream channels as NDJSON",
+      description =
+          "Query channels like queryChannels, but write one JSON channel per line as the matches are"
+              + " fetched. Selected by an Accept header of application/x-ndjson.",
+      operationId = "streamChannelsNdjson",
+      tags = {"Channel"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Newline-delimited stream of channels",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = ChannelDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to find all channels",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+  ResponseEntity<StreamingResponseBody> queryNdjson(
+      @Parameter(description = SEARCH_PARAM_DESCRIPTION) @RequestParam
+          MultiValueMap<String, String> allRequestParams);
+
+  @Operation(
+      summary = "Stream channels as an Arrow IPC stream",
+      description =
+          "Query channels like queryChannels and write them as a columnar Apache Arrow IPC stream:"
+              + " a name and an owner column, one string column per property and one boolean column"
+              + " per tag set on the matching channels. Each page of channels is written as a record"
+              + " batch as soon as it is fetched. Selected by an Accept header of "
+              + ArrowStreamWriter.MEDIA_TYPE
+              + ".",
+      operationId = "streamChannelsArrow",
+      tags = {"Channel"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Arrow IPC stream of channels",
+            content = @Content(mediaType = ArrowStreamWriter.MEDIA_TYPE)),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to find all channels",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @GetMapping(produces = ArrowStreamWriter.MEDIA_TYPE)
+  ResponseEntity<StreamingResponseBody> queryArrow(
+      @Parameter(description = SEARCH_PARAM_DESCRIPTION) @RequestParam
+          MultiValueMap<String, String> allRequestParams);
+
   @Operation(
       summary = "Combined query for channels",
       description =
@@ -81,6 +179,39 @@ public interface IChannel {
       @Parameter(description = SEARCH_PARAM_DESCRIPTION) @RequestParam
           MultiValueMap<String, String> allRequestParams);
 
+  @Operation(
+      summary = "Run multiple channel queries",
+      description =
+          "Run a list of channel queries in one request. Each query is an object of search"
+              + " parameters, as for the channel query, with a string or a list of strings per"
+              + " parameter. Returns the count and channels of each query, in order.",
+      operationId = "multiQueryChannels",
+      tags = {"Channel"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Results of the queries, in request order",
+            content =
+                @Content(
+                    array =
+                        @ArraySchema(schema = @Schema(implementation = SearchResultDto.class)))),
+        @ApiResponse(
+            responseCode = "400",
+            description =
+                "Invalid request - too many queries, invalid parameter value or response size"
+                    + " exceeded",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to run the queries",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @PostMapping("/_msearch")
+  List<SearchResultDto> multiQuery(
+      @Parameter(description = "List of search parameter objects") @RequestBody
+          List<Map<String, Object>> searches);
+
   @Operation(
       summary = "Count channels matching query",
       description = "Get the number of channels matching the given query parameters.",
@@ -155,7 +286,12 @@ public interface IChannel {
 
   @Operation(
       summary = "Create or replace multiple channels",
-      description = "Create or replace multiple channel instances.",
+      description =
+          "Create or replace multiple channel instances in a single bulk. Channels that were"
+              + " modified or created concurrently are checked and written again a few times. If"
+              + " any channel still is not written the request fails with 409 when all of them"
+              + " conflicted and 500 otherwise; the other channels of the bulk stay written. Use"
+              + " ~status to get the status of each channel instead.",
       operationId = "createOrReplaceChannels",
       tags = {"Channel"})
   @ApiResponses(
@@ -178,6 +314,10 @@ public interface IChannel {
             responseCode = "404",
             description = "Tag, or property not found",
             content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "409",
+            description = "Channels were modified or created concurrently and not written",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
         @ApiResponse(
             responseCode = "500",
             description = "Error while trying to create channels",
@@ -186,6 +326,44 @@ public interface IChannel {
   @PutMapping
   Iterable<ChannelDto> create(@RequestBody Iterable<ChannelDto> channels);
 
+  @Operation(
+      summary = "Create or replace multiple channels, with status",
+      description =
+          "Create or replace multiple channels like createOrReplaceChannels, but return the status"
+              + " of the write of each channel, in the order of the payload. Selected by the"
+              + " ~status parameter.",
+      operationId = "createOrReplaceChannelsWithStatus",
+      tags = {"Channel"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "The status of each channel, 409 if it was modified concurrently",
+            content =
+                @Content(
+                    array =
+                        @ArraySchema(
+                            schema = @Schema(implementation = ChannelWriteStatusDto.class)))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Tag, or property not found",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to create channels",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @PutMapping(params = "~status")
+  List<ChannelWriteStatusDto> createWithStatus(@RequestBody Iterable<ChannelDto> channels);
+
   @Operation(
       summary = "Update a channel",
       description =
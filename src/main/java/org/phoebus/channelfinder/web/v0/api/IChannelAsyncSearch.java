@@ -0,0 +1,97 @@
+package org.phoebus.channelfinder.web.v0.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.phoebus.channelfinder.common.CFResourceDescriptors;
+import org.phoebus.channelfinder.web.v0.dto.AsyncSearchResultDto;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+
+public interface IChannelAsyncSearch {
+
+  @Operation(
+      summary = "Submit an async channel search",
+      description =
+          "Start a channel search in the background and wait up to ~wait seconds for it to"
+              + " complete. The returned id is used to poll for partial and final results. The"
+              + " search parameters are the same as for the channel query.",
+      operationId = "submitAsyncChannelSearch",
+      tags = {"ChannelAsyncSearch"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Id and state of the async search, with the result if completed",
+            content = @Content(schema = @Schema(implementation = AsyncSearchResultDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request - invalid ~wait or max search window exceeded",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to submit the search",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @PostMapping
+  AsyncSearchResultDto submit(
+      @Parameter(description = CFResourceDescriptors.SEARCH_PARAM_DESCRIPTION) @RequestParam
+          MultiValueMap<String, String> allRequestParams);
+
+  @Operation(
+      summary = "Get an async channel search",
+      description =
+          "Get the state and the partial or final result of an async channel search, waiting up"
+              + " to ~wait seconds for it to complete. ~fields and ~exclude select the returned"
+              + " fields as for the channel query.",
+      operationId = "getAsyncChannelSearch",
+      tags = {"ChannelAsyncSearch"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "State and result of the async search",
+            content = @Content(schema = @Schema(implementation = AsyncSearchResultDto.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Async search not found or expired",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to get the search",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @GetMapping("/{id}")
+  AsyncSearchResultDto get(
+      @Parameter(description = "Id of the async search") @PathVariable("id") String id,
+      @Parameter(description = "~wait, ~fields and ~exclude") @RequestParam
+          MultiValueMap<String, String> allRequestParams);
+
+  @Operation(
+      summary = "Delete an async channel search",
+      description = "Cancel an async channel search, if still running, and delete its result.",
+      operationId = "deleteAsyncChannelSearch",
+      tags = {"ChannelAsyncSearch"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(responseCode = "200", description = "Async search deleted"),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Async search not found or expired",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to delete the search",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @DeleteMapping("/{id}")
+  void delete(@Parameter(description = "Id of the async search") @PathVariable("id") String id);
+}
@@ -0,0 +1,60 @@
+package org.phoebus.channelfinder.web.v0.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.phoebus.channelfinder.common.CFResourceDescriptors;
+import org.phoebus.channelfinder.web.v0.dto.ChannelDto;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface IChannelExport {
+
+  @Operation(
+      summary = "Export channels",
+      description =
+          "Export all channels matching the search parameters as newline-delimited JSON. The"
+              + " channel index is read in parallel slices from a consistent point in time, so the"
+              + " channels are not returned in name order.",
+      operationId = "exportChannels",
+      tags = {"ChannelExport"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Newline-delimited stream of all matching channels",
+            content =
+                @Content(
+                    mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = ChannelDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request - unsupported compression",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to export channels",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @GetMapping
+  ResponseEntity<StreamingResponseBody> export(
+      @Parameter(
+              description =
+                  "Number of parallel slices, defaults to repository.export.slices or the shard"
+                      + " count of the channel index")
+          @RequestParam(value = "~slices", required = false)
+          Integer slices,
+      @Parameter(description = "Compression of the exported file: gzip or none (default)")
+          @RequestParam(value = "~compress", required = false)
+          String compress,
+      @Parameter(description = CFResourceDescriptors.SEARCH_PARAM_DESCRIPTION) @RequestParam
+          MultiValueMap<String, String> allRequestParams);
+}
@@ -0,0 +1,79 @@
+package org.phoebus.channelfinder.web.v0.api;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.server.ResponseStatusException;
+
+public interface IChannelTask {
+
+  @Operation(
+      summary = "Get a channel task",
+      description =
+          "Get the progress of a background task updating many channels, such as the removal of"
+              + " a deleted tag or property, waiting up to ~wait seconds for it to complete.",
+      operationId = "getChannelTask",
+      tags = {"ChannelTask"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "State and progress of the task",
+            content = @Content(schema = @Schema(implementation = ChannelTaskDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request - invalid ~wait",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Task not found",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to get the task",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @GetMapping("/{id}")
+  ChannelTaskDto get(
+      @Parameter(description = "Id of the task") @PathVariable("id") String id,
+      @Parameter(description = "Seconds to wait for the task to complete")
+          @RequestParam(value = "~wait", required = false)
+          String wait);
+
+  @Operation(
+      summary = "Cancel a channel task",
+      description =
+          "Cancel a background task updating many channels if it is still running. Channels"
+              + " updated before the cancellation stay updated.",
+      operationId = "cancelChannelTask",
+      tags = {"ChannelTask"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "State of the cancelled task",
+            content = @Content(schema = @Schema(implementation = ChannelTaskDto.class))),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Task not found",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to cancel the task",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @DeleteMapping("/{id}")
+  ChannelTaskDto cancel(@Parameter(description = "Id of the task") @PathVariable("id") String id);
+}
@@ -1,11 +1,13 @@
 package org.phoebus.channelfinder.web.v0.api;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
 import org.phoebus.channelfinder.web.v0.dto.PropertyDto;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -212,14 +214,60 @@ public interface IProperty {
   @PostMapping()
   Iterable<PropertyDto> update(@RequestBody Iterable<PropertyDto> properties);
 
+  @Operation(
+      summary = "Rename a property",
+      description =
+          "Rename the property identified by the path parameter and change its owner to those of the"
+              + " payload, in all channels in a background task. The request waits up to ~wait"
+              + " seconds for the task to complete, a task still running after that can be polled"
+              + " by its id.",
+      operationId = "renameProperty",
+      tags = {"Property"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Property renamed, with the task updating the channels",
+            content = @Content(schema = @Schema(implementation = ChannelTaskDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Property does not exist",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to rename the property",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @PostMapping("/{propertyName}/_rename")
+  ChannelTaskDto rename(
+      @PathVariable("propertyName") String propertyName,
+      @RequestBody PropertyDto property,
+      @Parameter(description = "Seconds to wait for the update of the channels")
+          @RequestParam(value = "~wait", required = false)
+          String wait);
+
   @Operation(
       summary = "Delete a property",
-      description = "Delete the property identified by the path parameter from all channels.",
+      description =
+          "Delete the property identified by the path parameter and remove it from all channels in a"
+              + " background task. The request waits up to ~wait seconds for the task to"
+              + " complete, a task still running after that can be polled by its id.",
       operationId = "deleteProperty",
       tags = {"Property"})
   @ApiResponses(
       value = {
-        @ApiResponse(responseCode = "200", description = "Property deleted"),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Property deleted, with the task removing it from the channels",
+            content = @Content(schema = @Schema(implementation = ChannelTaskDto.class))),
         @ApiResponse(
             responseCode = "401",
             description = "Unauthorized",
@@ -234,7 +282,11 @@ public interface IProperty {
             content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
       })
   @DeleteMapping("/{propertyName}")
-  void remove(@PathVariable("propertyName") String propertyName);
+  ChannelTaskDto remove(
+      @PathVariable("propertyName") String propertyName,
+      @Parameter(description = "Seconds to wait for the removal from the channels")
+          @RequestParam(value = "~wait", required = false)
+          String wait);
 
   @Operation(
       summary = "Delete property from a channel",
@@ -1,11 +1,13 @@
 package org.phoebus.channelfinder.web.v0.api;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
 import org.phoebus.channelfinder.web.v0.dto.TagDto;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -219,14 +221,60 @@ public interface ITag {
   @PostMapping()
   Iterable<TagDto> update(@RequestBody Iterable<TagDto> tags);
 
+  @Operation(
+      summary = "Rename a tag",
+      description =
+          "Rename the tag identified by the path parameter and change its owner to those of the"
+              + " payload, in all channels in a background task. The request waits up to ~wait"
+              + " seconds for the task to complete, a task still running after that can be polled"
+              + " by its id.",
+      operationId = "renameTag",
+      tags = {"Tag"})
+  @ApiResponses(
+      value = {
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tag renamed, with the task updating the channels",
+            content = @Content(schema = @Schema(implementation = ChannelTaskDto.class))),
+        @ApiResponse(
+            responseCode = "400",
+            description = "Invalid request",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "401",
+            description = "Unauthorized",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "404",
+            description = "Tag does not exist",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class))),
+        @ApiResponse(
+            responseCode = "500",
+            description = "Error while trying to rename the tag",
+            content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
+      })
+  @PostMapping("/{tagName}/_rename")
+  ChannelTaskDto rename(
+      @PathVariable("tagName") String tagName,
+      @RequestBody TagDto tag,
+      @Parameter(description = "Seconds to wait for the update of the channels")
+          @RequestParam(value = "~wait", required = false)
+          String wait);
+
   @Operation(
       summary = "Delete a tag",
-      description = "Delete the tag identified by the path parameter from all channels.",
+      description =
+          "Delete the tag identified by the path parameter and remove it from all channels in a"
+              + " background task. The request waits up to ~wait seconds for the task to"
+              + " complete, a task still running after that can be polled by its id.",
       operationId = "deleteTag",
       tags = {"Tag"})
   @ApiResponses(
       value = {
-        @ApiResponse(responseCode = "200", description = "Tag deleted"),
+        @ApiResponse(
+            responseCode = "200",
+            description = "Tag deleted, with the task removing it from the channels",
+            content = @Content(schema = @Schema(implementation = ChannelTaskDto.class))),
         @ApiResponse(
             responseCode = "400",
             description = "Invalid request",
@@ -245,7 +293,11 @@ public interface ITag {
             content = @Content(schema = @Schema(implementation = ResponseStatusException.class)))
       })
   @DeleteMapping("/{tagName}")
-  void remove(@PathVariable("tagName") String tagName);
+  ChannelTaskDto remove(
+      @PathVariable("tagName") String tagName,
+      @Parameter(description = "Seconds to wait for the removal from the channels")
+          @RequestParam(value = "~wait", required = false)
+          String wait);
 
   @Operation(
       summary = "Delete tag from a channel",
@@ -0,0 +1,338 @@
+package org.phoebus.channelfinder.web.v0.arrow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Writer of the Apache Arrow IPC streaming format for flat tables of string and boolean columns.
+ *
+ * <p>The stream is a schema message, one record batch message per call to {@link #writeBatch} and
+ * an end-of-stream marker. Each message is flushed as soon as it is written, so readers such as
+ * {@code pyarrow.ipc.open_stream} can consume the batches while the stream is still being produced.
+ * Only the two column types needed for channel tables are supported, which keeps the flatbuffer
+ * metadata small enough to be encoded here instead of depending on the Arrow Java libraries and
+ * their off-heap allocator.
+ *
+ * @see <a href="https://arrow.apache.org/docs/format/Columnar.html#ipc-streaming-format">Arrow IPC
+ *     streaming format</a>
+ */
+public final class ArrowStreamWriter {
+
+  /** IANA media type of an Arrow IPC stream. */
+  public static final String MEDIA_TYPE = "application/vnd.apache.arrow.stream";
+
+  /** Column types, with their {@code Type} union tag in the Arrow schema. */
+  public enum Type {
+    UTF8(5),
+    BOOL(6);
+
+    private final int unionTag;
+
+    Type(int unionTag) {
+      this.unionTag = unionTag;
+    }
+  }
+
+  /**
+   * Column of the schema.
+   *
+   * @param name column name
+   * @param type column type, values are {@code String[]} for {@link Type#UTF8} and {@code
+   *     boolean[]} for {@link Type#BOOL}
+   * @param nullable whether the column may contain nulls, only {@link Type#UTF8} values can be null
+   */
+  public record Field(String name, Type type, boolean nullable) {}
+
+  private static final int CONTINUATION = 0xFFFFFFFF;
+  private static final short METADATA_V5 = 4;
+  private static final int HEADER_SCHEMA = 1;
+  private static final int HEADER_RECORD_BATCH = 3;
+
+  private final OutputStream out;
+  private final List<Field> fields;
+
+  public ArrowStreamWriter(OutputStream out, List<Field> fields) {
+    this.out = out;
+    this.fields = List.copyOf(fields);
+  }
+
+  /** Write the schema message, must be called once before the first batch. */
+  public void writeSchema() throws IOException {
+    List<Table> fieldTables = new ArrayList<>(fields.size());
+    for (Field field : fields) {
+      fieldTables.add(
+          new Table()
+              .add(0, new Str(field.name()))
+              .add(1, 1, field.nullable() ? 1 : 0)
+              .add(2, 1, field.type().unionTag)
+              // Utf8 and Bool have no attributes, their type tables are empty
+              .add(3, new Table())
+              .add(5, new TableVector(List.of())));
+    }
+    Table schema = new Table().add(0, 2, 0).add(1, new TableVector(fieldTables));
+    writeMessage(HEADER_SCHEMA, schema, new byte[0]);
+  }
+
+  /**
+   * Write a record batch.
+   *
+   * @param length number of rows
+   * @param columns one value array per field of the schema, each with {@code length} values
+   */
+  public void writeBatch(int length, List<?> columns) throws IOException {
+    if (columns.size() != fields.size()) {
+      throw new IllegalArgumentException(
+          "Expected " + fields.size() + " columns, got " + columns.size());
+    }
+    ByteArrayOutputStream body = new ByteArrayOutputStream();
+    long[] nodes = new long[fields.size() * 2];
+    List<Long> buffers = new ArrayList<>();
+    for (int i = 0; i < fields.size(); i++) {
+      Field field = fields.get(i);
+      Object values = columns.get(i);
+      if (field.type() == Type.UTF8 && values instanceof String[] strings) {
+        nodes[2 * i + 1] = writeUtf8(length, strings, body, buffers);
+      } else if (field.type() == Type.BOOL && values instanceof boolean[] booleans) {
+        writeBuffer(body, buffers, new byte[0]);
+        writeBuffer(body, buffers, bitmap(length, j -> booleans[j]));
+      } else {
+        throw new IllegalArgumentException("Invalid values for column " + field.name());
+      }
+      nodes[2 * i] = length;
+    }
+    long[] bufferValues = buffers.stream().mapToLong(Long::longValue).toArray();
+    Table recordBatch =
+        new Table()
+            .add(0, 8, length)
+            .add(1, new StructVector(nodes))
+            .add(2, new StructVector(bufferValues));
+    writeMessage(HEADER_RECORD_BATCH, recordBatch, body.toByteArray());
+  }
+
+  /** Write the end-of-stream marker. */
+  public void end() throws IOException {
+    ByteBuffer marker = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    marker.putInt(CONTINUATION).putInt(0);
+    out.write(marker.array());
+    out.flush();
+  }
+
+  private static long writeUtf8(
+      int length, String[] values, ByteArrayOutputStream body, List<Long> buffers) {
+    ByteBuffer offsets = ByteBuffer.allocate(4 * (length + 1)).order(ByteOrder.LITTLE_ENDIAN);
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    long nullCount = 0;
+    offsets.putInt(0);
+    for (int j = 0; j < length; j++) {
+      if (values[j] == null) {
+        nullCount++;
+      } else {
+        data.writeBytes(values[j].getBytes(StandardCharsets.UTF_8));
+      }
+      offsets.putInt(data.size());
+    }
+    // a column without nulls may omit its validity bitmap
+    writeBuffer(
+        body, buffers, nullCount == 0 ? new byte[0] : bitmap(length, j -> values[j] != null));
+    writeBuffer(body, buffers, offsets.array());
+    writeBuffer(body, buffers, data.toByteArray());
+    return nullCount;
+  }
+
+  private static byte[] bitmap(int length, IntPredicate bit) {
+    byte[] bitmap = new byte[(length + 7) / 8];
+    for (int j = 0; j < length; j++) {
+      if (bit.test(j)) {
+        bitmap[j >> 3] |= (byte) (1 << (j & 7));
+      }
+    }
+    return bitmap;
+  }
+
+  /** Append a buffer to the body, 8 byte aligned, and record its offset and length. */
+  private static void writeBuffer(ByteArrayOutputStream body, List<Long> buffers, byte[] buffer) {
+    buffers.add((long) body.size());
+    buffers.add((long) buffer.length);
+    body.writeBytes(buffer);
+    body.writeBytes(new byte[padding(buffer.length)]);
+  }
+
+  private void writeMessage(int headerType, Table header, byte[] body) throws IOException {
+    Table message =
+        new Table()
+            .add(0, 2, METADATA_V5)
+            .add(1, 1, headerType)
+            .add(2, header)
+            .add(3, 8, body.length);
+    byte[] metadata = new FlatBufferEncoder().encode(message);
+    int metadataLength = metadata.length + padding(metadata.length);
+    ByteBuffer prefix = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+    prefix.putInt(CONTINUATION).putInt(metadataLength);
+    out.write(prefix.array());
+    out.write(metadata);
+    out.write(new byte[metadataLength - metadata.length]);
+    out.write(body);
+    out.flush();
+  }
+
+  private static int padding(int length) {
+    return (8 - (length & 7)) & 7;
+  }
+
+  /** Flatbuffer object: a table, a string or a vector. */
+  private sealed interface Node permits Table, Str, TableVector, StructVector {}
+
+  /** Flatbuffer table, fields by id: a scalar of the given byte size or a child node. */
+  private static final class Table implements Node {
+    private final TreeMap<Integer, Object> fields = new TreeMap<>();
+
+    Table add(int id, int size, long value) {
+      fields.put(id, new Scalar(size, value));
+      return this;
+    }
+
+    Table add(int id, Node node) {
+      fields.put(id, node);
+      return this;
+    }
+  }
+
+  private record Scalar(int size, long value) {}
+
+  private record Str(String value) implements Node {}
+
+  private record TableVector(List<Table> tables) implements Node {}
+
+  /** Vector of structs of two longs, such as {@code FieldNode} and {@code Buffer}. */
+  private record StructVector(long[] values) implements Node {}
+
+  /**
+   * Lays out a flatbuffer front to back: every table is followed by its children, so all unsigned
+   * offsets point forward as the format requires, and every table is preceded by its vtable.
+   */
+  private static final class FlatBufferEncoder {
+    private ByteBuffer buffer = ByteBuffer.allocate(512).order(ByteOrder.LITTLE_ENDIAN);
+
+    byte[] encode(Table root) {
+      reserve(4);
+      int rootPosition = writeTable(root);
+      buffer.putInt(0, rootPosition);
+      byte[] bytes = new byte[buffer.position()];
+      buffer.get(0, bytes);
+      return bytes;
+    }
+
+    private int writeTable(Table table) {
+      int fieldCount = table.fields.isEmpty() ? 0 : table.fields.lastKey() + 1;
+      align(2);
+      int vtablePosition = reserve(4 + 2 * fieldCount);
+      align(4);
+      int tablePosition = buffer.position();
+      reserve(4);
+      buffer.putInt(tablePosition, tablePosition - vtablePosition);
+
+      // largest fields first keeps the inline padding small
+      List<Map.Entry<Integer, Object>> entries = new ArrayList<>(table.fields.entrySet());
+      entries.sort(Comparator.comparingInt(e -> -size(e.getValue())));
+      Map<Integer, Integer> positions = new TreeMap<>();
+      for (Map.Entry<Integer, Object> entry : entries) {
+        int size = size(entry.getValue());
+        align(size);
+        int position = reserve(size);
+        positions.put(entry.getKey(), position);
+        if (entry.getValue() instanceof Scalar scalar) {
+          switch (size) {
+            case 1 -> buffer.put(position, (byte) scalar.value());
+            case 2 -> buffer.putShort(position, (short) scalar.value());
+            case 4 -> buffer.putInt(position, (int) scalar.value());
+            default -> buffer.putLong(position, scalar.value());
+          }
+        }
+      }
+
+      buffer.putShort(vtablePosition, (short) (4 + 2 * fieldCount));
+      buffer.putShort(vtablePosition + 2, (short) (buffer.position() - tablePosition));
+      positions.forEach(
+          (id, position) ->
+              buffer.putShort(vtablePosition + 4 + 2 * id, (short) (position - tablePosition)));
+
+      for (Map.Entry<Integer, Object> entry : table.fields.entrySet()) {
+        if (entry.getValue() instanceof Node node) {
+          int position = positions.get(entry.getKey());
+          buffer.putInt(position, writeNode(node) - position);
+        }
+      }
+      return tablePosition;
+    }
+
+    private int writeNode(Node node) {
+      return switch (node) {
+        case Table table -> writeTable(table);
+        case Str str -> {
+          byte[] bytes = str.value().getBytes(StandardCharsets.UTF_8);
+          align(4);
+          int position = reserve(4 + bytes.length + 1);
+          buffer.putInt(position, bytes.length);
+          buffer.put(position + 4, bytes);
+          yield position;
+        }
+        case TableVector vector -> {
+          align(4);
+          int position = reserve(4 + 4 * vector.tables().size());
+          buffer.putInt(position, vector.tables().size());
+          for (int i = 0; i < vector.tables().size(); i++) {
+            int slot = position + 4 + 4 * i;
+            buffer.putInt(slot, writeTable(vector.tables().get(i)) - slot);
+          }
+          yield position;
+        }
+        case StructVector vector -> {
+          // the structs hold longs, so the elements after the length must be 8 byte aligned
+          while ((buffer.position() + 4) % 8 != 0) {
+            reserve(1);
+          }
+          int position = reserve(4 + 8 * vector.values().length);
+          buffer.putInt(position, vector.values().length / 2);
+          for (int i = 0; i < vector.values().length; i++) {
+            buffer.putLong(position + 4 + 8 * i, vector.values()[i]);
+          }
+          yield position;
+        }
+      };
+    }
+
+    private static int size(Object field) {
+      return field instanceof Scalar scalar ? scalar.size() : 4;
+    }
+
+    private void align(int alignment) {
+      while (buffer.position() % alignment != 0) {
+        reserve(1);
+      }
+    }
+
+    /** Append zeroed bytes and return their position. */
+    private int reserve(int length) {
+      if (buffer.remaining() < length) {
+        ByteBuffer grown =
+            ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + length))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        grown.put(buffer.flip());
+        buffer = grown;
+      }
+      int position = buffer.position();
+      buffer.position(position + length);
+      return position;
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package org.phoebus.channelfinder.web.v0.arrow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelFieldNames;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.phoebus.channelfinder.web.v0.arrow.ArrowStreamWriter.Field;
+import org.phoebus.channelfinder.web.v0.arrow.ArrowStreamWriter.Type;
+
+/**
+ * Writes channels as an Arrow IPC stream of one row per channel, pivoted like the NTTable of the
+ * pva query service: a {@code name} and an {@code owner} column, one nullable string column per
+ * property with its value and one boolean column per tag that is true if the channel has the tag.
+ * Property and tag columns are named with a {@code property.} or {@code tag.} prefix, so they never
+ * clash with each other or with the name and owner columns.
+ *
+ * <p>An Arrow stream has a single schema, so the property and tag columns are fixed up front from
+ * the names set on the matching channels; each page of channels then becomes one record batch.
+ */
+public final class ChannelArrowWriter {
+
+  public static final String COLUMN_NAME = "name";
+  public static final String COLUMN_OWNER = "owner";
+  public static final String PROPERTY_PREFIX = "property.";
+  public static final String TAG_PREFIX = "tag.";
+
+  private final ArrowStreamWriter writer;
+  private final List<String> properties;
+  private final List<String> tags;
+  private final Map<String, Integer> propertyColumns = new HashMap<>();
+  private final Map<String, Integer> tagColumns = new HashMap<>();
+
+  public ChannelArrowWriter(OutputStream out, ChannelFieldNames fieldNames) {
+    this.properties = fieldNames.properties();
+    this.tags = fieldNames.tags();
+    List<Field> fields = new ArrayList<>();
+    fields.add(new Field(COLUMN_NAME, Type.UTF8, false));
+    fields.add(new Field(COLUMN_OWNER, Type.UTF8, true));
+    for (String property : properties) {
+      propertyColumns.put(property, propertyColumns.size());
+      fields.add(new Field(PROPERTY_PREFIX + property, Type.UTF8, true));
+    }
+    for (String tag : tags) {
+      tagColumns.put(tag, tagColumns.size());
+      fields.add(new Field(TAG_PREFIX + tag, Type.BOOL, false));
+    }
+    this.writer = new ArrowStreamWriter(out, fields);
+  }
+
+  /** Write the schema, before the first page. */
+  public void begin() throws IOException {
+    writer.writeSchema();
+  }
+
+  /**
+   * Write a page of channels as one record batch. Properties and tags that are not columns of the
+   * schema are skipped.
+   *
+   * @param channels page of channels
+   */
+  public void write(List<Channel> channels) throws IOException {
+    int rows = channels.size();
+    String[] names = new String[rows];
+    String[] owners = new String[rows];
+    String[][] propertyValues = new String[properties.size()][rows];
+    boolean[][] tagValues = new boolean[tags.size()][rows];
+    for (int row = 0; row < rows; row++) {
+      Channel channel = channels.get(row);
+      names[row] = channel.getName();
+      owners[row] = channel.getOwner();
+      for (Property property : channel.getProperties()) {
+        Integer column = propertyColumns.get(property.getName());
+        if (column != null) {
+          propertyValues[column][row] = property.getValue();
+        }
+      }
+      for (Tag tag : channel.getTags()) {
+        Integer column = tagColumns.get(tag.getName());
+        if (column != null) {
+          tagValues[column][row] = true;
+        }
+      }
+    }
+    List<Object> columns = new ArrayList<>(2 + properties.size() + tags.size());
+    columns.add(names);
+    columns.add(owners);
+    columns.addAll(List.of(propertyValues));
+    columns.addAll(List.of(tagValues));
+    writer.writeBatch(rows, columns);
+  }
+
+  /** Write the end of the stream, after the last page. */
+  public void end() throws IOException {
+    writer.end();
+  }
+}
@@ -0,0 +1,48 @@
+package org.phoebus.channelfinder.web.v0.controller;
+
+import org.phoebus.channelfinder.entity.AsyncSearchResult;
+import org.phoebus.channelfinder.service.ChannelAsyncSearchService;
+import org.phoebus.channelfinder.web.v0.api.IChannelAsyncSearch;
+import org.phoebus.channelfinder.web.v0.dto.AsyncSearchResultDto;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelMapper;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@EnableAutoConfiguration
+@RequestMapping(
+    "${channelfinder.legacy.service-root:ChannelFinder}/resources/channels/_async_search")
+public class ChannelAsyncSearchController implements IChannelAsyncSearch {
+
+  private final ChannelAsyncSearchService channelAsyncSearchService;
+
+  public ChannelAsyncSearchController(ChannelAsyncSearchService channelAsyncSearchService) {
+    this.channelAsyncSearchService = channelAsyncSearchService;
+  }
+
+  @Override
+  public AsyncSearchResultDto submit(MultiValueMap<String, String> allRequestParams) {
+    return toDto(channelAsyncSearchService.submit(allRequestParams));
+  }
+
+  @Override
+  public AsyncSearchResultDto get(String id, MultiValueMap<String, String> allRequestParams) {
+    return toDto(channelAsyncSearchService.get(id, allRequestParams));
+  }
+
+  @Override
+  public void delete(String id) {
+    channelAsyncSearchService.delete(id);
+  }
+
+  private static AsyncSearchResultDto toDto(AsyncSearchResult asyncSearch) {
+    return new AsyncSearchResultDto(
+        asyncSearch.id(),
+        asyncSearch.running(),
+        asyncSearch.partial(),
+        asyncSearch.result().channels().stream().map(ChannelMapper::toDto).toList(),
+        asyncSearch.result().count());
+  }
+}
@@ -1,25 +1,47 @@
 package org.phoebus.channelfinder.web.v0.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelFieldNames;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
 import org.phoebus.channelfinder.service.ChannelService;
 import org.phoebus.channelfinder.web.v0.api.IChannel;
+import org.phoebus.channelfinder.web.v0.arrow.ArrowStreamWriter;
+import org.phoebus.channelfinder.web.v0.arrow.ChannelArrowWriter;
 import org.phoebus.channelfinder.web.v0.dto.ChannelDto;
+import org.phoebus.channelfinder.web.v0.dto.ChannelWriteStatusDto;
 import org.phoebus.channelfinder.web.v0.dto.SearchResultDto;
 import org.phoebus.channelfinder.web.v0.mapper.ChannelMapper;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelWriteStatusMapper;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
 
 @RestController
 @EnableAutoConfiguration
 @RequestMapping("${channelfinder.legacy.service-root:ChannelFinder}/resources/channels")
 public class ChannelController implements IChannel {
 
+  private static final String STREAM_FORMAT_NDJSON = "ndjson";
+  private static final String STREAM_FORMAT_ARROW = "arrow";
+
   private final ChannelService channelService;
+  // the application mapper, so streamed channels are written like the other responses
+  private final ObjectMapper objectMapper;
 
-  public ChannelController(ChannelService channelService) {
+  public ChannelController(ChannelService channelService, ObjectMapper objectMapper) {
     this.channelService = channelService;
+    this.objectMapper = objectMapper;
   }
 
   @Override
@@ -27,11 +49,140 @@ public class ChannelController implements IChannel {
     return channelService.query(allRequestParams).stream().map(ChannelMapper::toDto).toList();
   }
 
+  @Override
+  public ResponseEntity<StreamingResponseBody> queryStream(
+      MultiValueMap<String, String> allRequestParams) {
+    String format = allRequestParams.getFirst("~stream");
+    if (STREAM_FORMAT_ARROW.equalsIgnoreCase(format)) {
+      return streamArrow(allRequestParams);
+    }
+    boolean ndjson = STREAM_FORMAT_NDJSON.equalsIgnoreCase(format);
+    return ndjson ? streamNdjson(allRequestParams) : streamJsonArray(allRequestParams);
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> queryNdjson(
+      MultiValueMap<String, String> allRequestParams) {
+    return streamNdjson(allRequestParams);
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> queryArrow(
+      MultiValueMap<String, String> allRequestParams) {
+    return streamArrow(allRequestParams);
+  }
+
+  private ResponseEntity<StreamingResponseBody> streamArrow(
+      MultiValueMap<String, String> allRequestParams) {
+    // the columns are resolved before the response is committed, so a failing search is an error
+    // status rather than a truncated stream
+    ChannelFieldNames fieldNames = channelService.queryFieldNames(allRequestParams);
+    StreamingResponseBody body =
+        outputStream -> {
+          ChannelArrowWriter writer = new ChannelArrowWriter(outputStream, fieldNames);
+          writer.begin();
+          channelService.queryStream(
+              allRequestParams,
+              page -> {
+                try {
+                  writer.write(page);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+          writer.end();
+        };
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType(ArrowStreamWriter.MEDIA_TYPE))
+        .body(body);
+  }
+
+  private ResponseEntity<StreamingResponseBody> streamJsonArray(
+      MultiValueMap<String, String> allRequestParams) {
+    StreamingResponseBody body =
+        outputStream -> {
+          try (SequenceWriter writer = objectMapper.writer().writeValuesAsArray(outputStream)) {
+            channelService.queryStream(
+                allRequestParams,
+                page -> {
+                  writer.writeAll(toDtos(page));
+                  writer.flush();
+                });
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+
+  private ResponseEntity<StreamingResponseBody> streamNdjson(
+      MultiValueMap<String, String> allRequestParams) {
+    StreamingResponseBody body =
+        outputStream ->
+            channelService.queryStream(
+                allRequestParams,
+                page -> {
+                  try {
+                    for (ChannelDto channel : toDtos(page)) {
+                      outputStream.write(objectMapper.writeValueAsBytes(channel));
+                      outputStream.write('\n');
+                    }
+                    outputStream.flush();
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  private static List<ChannelDto> toDtos(List<Channel> channels) {
+    return channels.stream().map(ChannelMapper::toDto).toList();
+  }
+
   @Override
   public SearchResultDto combinedQuery(MultiValueMap<String, String> allRequestParams) {
     var result = channelService.combinedQuery(allRequestParams);
     return new SearchResultDto(
-        result.channels().stream().map(ChannelMapper::toDto).toList(), result.count());
+        result.channels().stream().map(ChannelMapper::toDto).toList(),
+        result.count(),
+        result.cursor());
+  }
+
+  @Override
+  public List<SearchResultDto> multiQuery(List<Map<String, Object>> searches) {
+    List<MultiValueMap<String, String>> searchParameters =
+        searches.stream().map(ChannelController::toSearchParameters).toList();
+    return channelService.multiQuery(searchParameters).stream()
+        .map(
+            result ->
+                new SearchResultDto(
+                    result.channels().stream().map(ChannelMapper::toDto).toList(),
+                    result.count(),
+                    result.cursor()))
+        .toList();
+  }
+
+  /** Search parameters of one multi query entry: a string, number or list of these per key. */
+  private static MultiValueMap<String, String> toSearchParameters(Map<String, Object> search) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    if (search == null) {
+      return params;
+    }
+    search.forEach(
+        (key, value) -> {
+          if (value instanceof List<?> values) {
+            values.forEach(v -> params.add(key, toParameterValue(key, v)));
+          } else {
+            params.add(key, toParameterValue(key, value));
+          }
+        });
+    return params;
+  }
+
+  private static String toParameterValue(String key, Object value) {
+    if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+      return value.toString();
+    }
+    throw new ChannelValidationException(
+        "Invalid value of search parameter " + key + ", expected a string or a list of strings");
   }
 
   @Override
@@ -54,6 +205,12 @@ public class ChannelController implements IChannel {
     return ChannelMapper.toDtos(channelService.create(ChannelMapper.toDomains(channels)));
   }
 
+  @Override
+  public List<ChannelWriteStatusDto> createWithStatus(Iterable<ChannelDto> channels) {
+    return ChannelWriteStatusMapper.toDtos(
+        channelService.createWithStatus(ChannelMapper.toDomains(channels)));
+  }
+
   @Override
   public ChannelDto update(String channelName, ChannelDto channel) {
     return ChannelMapper.toDto(channelService.update(channelName, ChannelMapper.toDomain(channel)));
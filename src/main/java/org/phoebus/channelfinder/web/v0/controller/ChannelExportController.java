@@ -0,0 +1,94 @@
+package org.phoebus.channelfinder.web.v0.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+import org.phoebus.channelfinder.service.ChannelExportService;
+import org.phoebus.channelfinder.web.v0.api.IChannelExport;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelMapper;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
+
+@RestController
+@EnableAutoConfiguration
+@RequestMapping("${channelfinder.legacy.service-root:ChannelFinder}/resources/export")
+public class ChannelExportController implements IChannelExport {
+
+  private static final String COMPRESS_GZIP = "gzip";
+  private static final String COMPRESS_NONE = "none";
+  private static final MediaType APPLICATION_GZIP = MediaType.parseMediaType("application/gzip");
+  private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+  private final ChannelExportService channelExportService;
+  // the application mapper, so exported channels are written like the other responses
+  private final ObjectMapper objectMapper;
+
+  public ChannelExportController(
+      ChannelExportService channelExportService, ObjectMapper objectMapper) {
+    this.channelExportService = channelExportService;
+    this.objectMapper = objectMapper;
+  }
+
+  @Override
+  public ResponseEntity<StreamingResponseBody> export(
+      Integer slices, String compress, MultiValueMap<String, String> allRequestParams) {
+    boolean gzip = COMPRESS_GZIP.equalsIgnoreCase(compress);
+    if (compress != null && !gzip && !COMPRESS_NONE.equalsIgnoreCase(compress)) {
+      throw new ChannelValidationException(
+          "Unsupported export compression " + compress + ", supported are gzip and none");
+    }
+
+    StreamingResponseBody body =
+        outputStream -> {
+          OutputStream out =
+              gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : outputStream;
+          channelExportService.export(allRequestParams, slices, page -> write(out, page));
+          if (out instanceof GZIPOutputStream gzipOutputStream) {
+            gzipOutputStream.finish();
+          }
+          out.flush();
+        };
+
+    if (!gzip) {
+      return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    return ResponseEntity.ok()
+        .contentType(APPLICATION_GZIP)
+        .header(
+            HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.attachment().filename("channels.ndjson.gz").build().toString())
+        .body(body);
+  }
+
+  /**
+   * Serialize a page on the calling slice thread, then append it to the shared output in one block
+   * so lines of concurrent slices never interleave.
+   */
+  private void write(OutputStream out, List<Channel> page) {
+    ByteArrayOutputStream lines = new ByteArrayOutputStream();
+    for (Channel channel : page) {
+      lines.writeBytes(objectMapper.writeValueAsBytes(ChannelMapper.toDto(channel)));
+      lines.write('\n');
+    }
+    try {
+      synchronized (out) {
+        lines.writeTo(out);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package org.phoebus.channelfinder.web.v0.controller;
+
+import org.phoebus.channelfinder.service.ChannelTaskService;
+import org.phoebus.channelfinder.web.v0.api.IChannelTask;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelTaskMapper;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@EnableAutoConfiguration
+@RequestMapping("${channelfinder.legacy.service-root:ChannelFinder}/resources/tasks")
+public class ChannelTaskController implements IChannelTask {
+
+  private final ChannelTaskService channelTaskService;
+
+  public ChannelTaskController(ChannelTaskService channelTaskService) {
+    this.channelTaskService = channelTaskService;
+  }
+
+  @Override
+  public ChannelTaskDto get(String id, String wait) {
+    return ChannelTaskMapper.toDto(channelTaskService.get(id, wait));
+  }
+
+  @Override
+  public ChannelTaskDto cancel(String id) {
+    return ChannelTaskMapper.toDto(channelTaskService.cancel(id));
+  }
+}
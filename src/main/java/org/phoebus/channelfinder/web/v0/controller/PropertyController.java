@@ -2,7 +2,9 @@ package org.phoebus.channelfinder.web.v0.controller;
 
 import org.phoebus.channelfinder.service.PropertyService;
 import org.phoebus.channelfinder.web.v0.api.IProperty;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
 import org.phoebus.channelfinder.web.v0.dto.PropertyDto;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelTaskMapper;
 import org.phoebus.channelfinder.web.v0.mapper.PropertyMapper;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -58,8 +60,14 @@ public class PropertyController implements IProperty {
   }
 
   @Override
-  public void remove(String propertyName) {
-    propertyService.remove(propertyName);
+  public ChannelTaskDto rename(String propertyName, PropertyDto property, String wait) {
+    return ChannelTaskMapper.toDto(
+        propertyService.rename(propertyName, PropertyMapper.toDomain(property), wait));
+  }
+
+  @Override
+  public ChannelTaskDto remove(String propertyName, String wait) {
+    return ChannelTaskMapper.toDto(propertyService.remove(propertyName, wait));
   }
 
   @Override
@@ -2,7 +2,9 @@ package org.phoebus.channelfinder.web.v0.controller;
 
 import org.phoebus.channelfinder.service.TagService;
 import org.phoebus.channelfinder.web.v0.api.ITag;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
 import org.phoebus.channelfinder.web.v0.dto.TagDto;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelTaskMapper;
 import org.phoebus.channelfinder.web.v0.mapper.TagMapper;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -55,8 +57,13 @@ public class TagController implements ITag {
   }
 
   @Override
-  public void remove(String tagName) {
-    tagService.remove(tagName);
+  public ChannelTaskDto rename(String tagName, TagDto tag, String wait) {
+    return ChannelTaskMapper.toDto(tagService.rename(tagName, TagMapper.toDomain(tag), wait));
+  }
+
+  @Override
+  public ChannelTaskDto remove(String tagName, String wait) {
+    return ChannelTaskMapper.toDto(tagService.remove(tagName, wait));
   }
 
   @Override
@@ -0,0 +1,6 @@
+package org.phoebus.channelfinder.web.v0.dto;
+
+import java.util.List;
+
+public record AsyncSearchResultDto(
+    String id, boolean running, boolean partial, List<ChannelDto> channels, long count) {}
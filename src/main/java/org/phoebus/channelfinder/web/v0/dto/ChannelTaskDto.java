@@ -0,0 +1,15 @@
+package org.phoebus.channelfinder.web.v0.dto;
+
+import java.util.List;
+
+public record ChannelTaskDto(
+    String id,
+    String subject,
+    boolean completed,
+    boolean failed,
+    boolean cancelled,
+    long total,
+    long processed,
+    long updated,
+    long versionConflicts,
+    List<String> failures) {}
@@ -0,0 +1,3 @@
+package org.phoebus.channelfinder.web.v0.dto;
+
+public record ChannelWriteStatusDto(String name, int status, String error) {}
@@ -1,5 +1,14 @@
 package org.phoebus.channelfinder.web.v0.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
-public record SearchResultDto(List<ChannelDto> channels, long count) {}
+public record SearchResultDto(
+    List<ChannelDto> channels,
+    long count,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String cursor) {
+
+  public SearchResultDto(List<ChannelDto> channels, long count) {
+    this(channels, count, null);
+  }
+}
@@ -0,0 +1,24 @@
+package org.phoebus.channelfinder.web.v0.mapper;
+
+import java.util.Locale;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.web.v0.dto.ChannelTaskDto;
+
+public final class ChannelTaskMapper {
+
+  private ChannelTaskMapper() {}
+
+  public static ChannelTaskDto toDto(ChannelTask task) {
+    return new ChannelTaskDto(
+        task.id(),
+        task.subject().name().toLowerCase(Locale.ROOT),
+        task.completed(),
+        task.failed(),
+        task.cancelled(),
+        task.total(),
+        task.processed(),
+        task.updated(),
+        task.versionConflicts(),
+        task.failures());
+  }
+}
@@ -0,0 +1,18 @@
+package org.phoebus.channelfinder.web.v0.mapper;
+
+import java.util.List;
+import org.phoebus.channelfinder.entity.ChannelWriteStatus;
+import org.phoebus.channelfinder.web.v0.dto.ChannelWriteStatusDto;
+
+public final class ChannelWriteStatusMapper {
+
+  private ChannelWriteStatusMapper() {}
+
+  public static ChannelWriteStatusDto toDto(ChannelWriteStatus status) {
+    return new ChannelWriteStatusDto(status.channel().getName(), status.status(), status.error());
+  }
+
+  public static List<ChannelWriteStatusDto> toDtos(List<ChannelWriteStatus> statuses) {
+    return statuses.stream().map(ChannelWriteStatusMapper::toDto).toList();
+  }
+}
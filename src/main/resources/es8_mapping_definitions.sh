@@ -14,6 +14,10 @@ es_port=9200
 # #L%
 ###
 # The mapping definition for the Indexes associated with the channelfinder v4
+# The channelfinder index matches src/main/resources/channel_mapping.json, which the service uses
+# when it creates the index. Subfields and fields added to an existing index only apply to channels
+# written after the change: reindex the channels before enabling the repository.query.* settings
+# that rely on them, see config.rst.
 
 
 #Create the Index
@@ -47,42 +51,120 @@ curl -H 'Content-Type: application/json' -XPUT http://${es_host}:${es_port}/cf_p
 
 curl -H 'Content-Type: application/json' -XPUT http://${es_host}:${es_port}/channelfinder -d'
 {
-"mappings":{
-    "properties" : {
-      "name" : {
-        "type" : "keyword"
+  "settings": {
+    "analysis": {
+      "normalizer": {
+        "lowercase_normalizer": {
+          "type": "custom",
+          "filter": ["lowercase"]
+        }
       },
-      "owner" : {
-        "type" : "keyword"
+      "analyzer": {
+        "reversed_lowercase_analyzer": {
+          "type": "custom",
+          "tokenizer": "keyword",
+          "filter": ["lowercase", "reverse"]
+        }
+      }
+    }
+  },
+  "mappings": {
+    "properties": {
+      "name": {
+        "type": "keyword",
+        "fields": {
+          "lowercase": {
+            "type": "keyword",
+            "normalizer": "lowercase_normalizer"
+          }
+        }
       },
-      "script" : {
-        "type" : "keyword"
+      "owner": {
+        "type": "keyword"
+      },
+      "script": {
+        "type": "keyword"
       },
-      "properties" : {
-        "type" : "nested",
-        "properties" : {
-          "name" : {
-            "type" : "keyword"
+      "propkv": {
+        "type": "keyword"
+      },
+      "properties": {
+        "type": "nested",
+        "properties": {
+          "name": {
+            "type": "keyword",
+            "fields": {
+              "lowercase": {
+                "type": "keyword",
+                "normalizer": "lowercase_normalizer"
+              }
+            }
           },
-          "owner" : {
-            "type" : "keyword"
+          "owner": {
+            "type": "keyword"
           },
-          "value" : {
-            "type" : "keyword"
+          "value": {
+            "type": "keyword",
+            "fields": {
+              "lowercase": {
+                "type": "keyword",
+                "normalizer": "lowercase_normalizer"
+              }
+            }
           }
         }
       },
-      "tags" : {
-        "type" : "nested",
-        "properties" : {
-          "name" : {
-            "type" : "keyword"
+      "tags": {
+        "type": "nested",
+        "properties": {
+          "name": {
+            "type": "keyword",
+            "fields": {
+              "lowercase": {
+                "type": "keyword",
+                "normalizer": "lowercase_normalizer"
+              }
+            }
           },
-          "owner" : {
-            "type" : "keyword"
+          "owner": {
+            "type": "keyword"
           }
         }
       }
     }
   }
 }'
+
+# Optional channel name subfields, see repository.query.name_reversed_subfield and
+# repository.query.name_wildcard_subfield in config.rst. They match
+# src/main/resources/channel_name_reversed_mapping.json and channel_name_wildcard_mapping.json and
+# grow the channel index, so only add those that are used.
+#curl -H 'Content-Type: application/json' -XPUT http://${es_host}:${es_port}/channelfinder/_mapping -d'
+#{
+#  "properties": {
+#    "name": {
+#      "type": "keyword",
+#      "fields": {
+#        "reversed": {
+#          "type": "text",
+#          "analyzer": "reversed_lowercase_analyzer",
+#          "index_options": "docs",
+#          "norms": false
+#        }
+#      }
+#    }
+#  }
+#}'
+#curl -H 'Content-Type: application/json' -XPUT http://${es_host}:${es_port}/channelfinder/_mapping -d'
+#{
+#  "properties": {
+#    "name": {
+#      "type": "keyword",
+#      "fields": {
+#        "wildcard": {
+#          "type": "wildcard"
+#        }
+#      }
+#    }
+#  }
+#}'
@@ -0,0 +1,91 @@
+package org.phoebus.channelfinder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.phoebus.channelfinder.common.CFResourceDescriptors;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+import org.phoebus.channelfinder.service.ChannelService;
+import org.phoebus.channelfinder.web.v0.controller.ChannelController;
+import org.phoebus.channelfinder.web.v0.dto.ChannelDto;
+import org.phoebus.channelfinder.web.v0.dto.PropertyDto;
+import org.phoebus.channelfinder.web.v0.dto.TagDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/** Channel queries negotiate the CBOR and Smile encodings with the Accept header. */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ChannelController.class)
+@TestPropertySource(
+    value = "classpath:application_test.properties",
+    properties = "elasticsearch.create.indices = false")
+class ChannelControllerBinaryEncodingIT {
+
+  @Autowired MockMvc mockMvc;
+
+  @MockitoBean ChannelService channelService;
+
+  private final List<Channel> channels =
+      List.of(
+          new Channel(
+              "SR:C01-MG:G02A{Quad:1}Fld-I",
+              "owner",
+              List.of(new Property("cell", "owner", "C01")),
+              List.of(new Tag("active", "owner"))),
+          new Channel("SR:C01-MG:G02A{Quad:2}Fld-I", "owner"));
+
+  private final List<ChannelDto> expected =
+      List.of(
+          new ChannelDto(
+              "SR:C01-MG:G02A{Quad:1}Fld-I",
+              "owner",
+              List.of(new PropertyDto("cell", "owner", "C01")),
+              List.of(new TagDto("active", "owner"))),
+          new ChannelDto("SR:C01-MG:G02A{Quad:2}Fld-I", "owner"));
+
+  @Test
+  void query_cbor() throws Exception {
+    assertEquals(expected, query(MediaType.parseMediaType("application/cbor"), new CBORMapper()));
+  }
+
+  @Test
+  void query_smile() throws Exception {
+    assertEquals(
+        expected,
+        query(MediaType.parseMediaType("application/x-jackson-smile"), new SmileMapper()));
+  }
+
+  private List<ChannelDto> query(MediaType mediaType, ObjectMapper mapper) throws Exception {
+    when(channelService.query(any())).thenReturn(channels);
+    byte[] body =
+        mockMvc
+            .perform(
+                get("/" + CFResourceDescriptors.CHANNEL_RESOURCE_URI)
+                    .param("~name", "SR:C01*")
+                    .accept(mediaType))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(mediaType))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+    return mapper.readValue(body, new TypeReference<List<ChannelDto>>() {});
+  }
+}
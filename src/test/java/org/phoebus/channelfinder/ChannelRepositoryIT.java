@@ -8,6 +8,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -607,6 +609,90 @@ class ChannelRepositoryIT {
         });
   }
 
+  /** saveAll creates new channels and merges the tags and properties into existing ones */
+  @Test
+  void saveAllAttachesToNewAndExistingChannels() throws IOException {
+    channelRepository.index(
+        new Channel("testChannel", "testOwner", List.of(testProperty()), List.of(testTags.get(0))));
+
+    channelRepository.saveAll(
+        List.of(
+            new Channel(
+                "testChannel",
+                "testOwner",
+                List.of(new Property("testProperty1", "testOwner1", "value1")),
+                List.of(testTags.get(1))),
+            new Channel(
+                "testChannel1", "testOwner", List.of(testProperty()), List.of(testTags.get(0)))));
+
+    Channel existing = channelRepository.findById("testChannel").get();
+    Assertions.assertEquals(
+        Set.of("testTag", "testTag1"),
+        existing.getTags().stream().map(Tag::getName).collect(Collectors.toSet()));
+    Assertions.assertEquals(
+        Set.of("testProperty=value", "testProperty1=value1"),
+        existing.getProperties().stream()
+            .map(p -> p.getName() + "=" + p.getValue())
+            .collect(Collectors.toSet()));
+    Assertions.assertEquals(
+        Set.of("testproperty=value", "testproperty1=value1"),
+        ElasticConfigIT.propertyKeyValues(esService, "testChannel"));
+
+    Channel created = channelRepository.findById("testChannel1").get();
+    Assertions.assertEquals(List.of(testTags.get(0)), created.getTags());
+    Assertions.assertEquals(List.of(testProperty()), created.getProperties());
+    Assertions.assertEquals(
+        Set.of("testproperty=value"), ElasticConfigIT.propertyKeyValues(esService, "testChannel1"));
+  }
+
+  /** attaching a property with a new value replaces the old value */
+  @Test
+  void attachChangesPropertyValue() throws IOException {
+    channelRepository.index(
+        new Channel("testChannel", "testOwner", List.of(testProperty()), List.of()));
+
+    Channel attached =
+        channelRepository.attach(
+            new Channel(
+                "testChannel",
+                null,
+                List.of(new Property("testProperty", "testOwner", "newValue")),
+                List.of()));
+
+    Assertions.assertEquals("testOwner", attached.getOwner());
+    Assertions.assertEquals(
+        List.of(new Property("testProperty", "testOwner", "newValue")), attached.getProperties());
+    Assertions.assertEquals(
+        Set.of("testproperty=newvalue"),
+        ElasticConfigIT.propertyKeyValues(esService, "testChannel"));
+  }
+
+  /** attaching tags and properties a channel already has leaves it untouched */
+  @Test
+  void reattachIsNoop() {
+    List<Property> properties = List.of(testProperty(), testProperty1());
+    Channel testChannel = new Channel("testChannel", "testOwner", properties, testTags);
+    channelRepository.index(testChannel);
+    Long seqNo = channelRepository.findById("testChannel").get().getSeqNo();
+
+    channelRepository.attach(new Channel("testChannel", "testOwner", properties, testTags));
+    channelRepository.saveAll(
+        List.of(new Channel("testChannel", null, List.of(testProperty1()), List.of())));
+
+    Channel reattached = channelRepository.findById("testChannel").get();
+    Assertions.assertEquals(seqNo, reattached.getSeqNo(), "Re-attaching wrote the channel");
+    Assertions.assertEquals(testChannel, reattached);
+  }
+
+  // fresh copies, other tests change the values of testProperties
+  private static Property testProperty() {
+    return new Property("testProperty", "testOwner", "value");
+  }
+
+  private static Property testProperty1() {
+    return new Property("testProperty1", "testOwner1", "value");
+  }
+
   /**
    * A utility class which will create the requested number of test properties named
    * 'test-property#'
@@ -0,0 +1,145 @@
+package org.phoebus.channelfinder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.phoebus.channelfinder.configuration.ElasticConfig;
+import org.phoebus.channelfinder.configuration.PopulateDBConfiguration;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Scroll;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/** Scrolling on a point in time, and on the live index once the point in time is gone. */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@WebMvcTest(ChannelRepository.class)
+@TestPropertySource(locations = "classpath:application_test.properties")
+@EnabledIfEnvironmentVariable(
+    named = "GITHUB_ACTIONS",
+    matches = "true",
+    disabledReason = "Requires Elasticsearch on localhost:9200; runs in CI only")
+@ContextConfiguration(classes = {ChannelRepository.class, ElasticConfig.class})
+class ChannelRepositoryScrollIT {
+
+  // sorts after all populated SR and BR channels
+  private static final String LATE_CHANNEL = "SR:ZZZ-scroll";
+  private static final int PAGE_SIZE = 100;
+
+  @Autowired ChannelRepository channelRepository;
+  @Autowired ElasticConfig esService;
+  @Autowired PopulateDBConfiguration populateDBConfiguration;
+
+  @BeforeAll
+  void setupAll() {
+    ElasticConfigIT.setUp(esService);
+  }
+
+  @AfterAll
+  void tearDown() throws IOException {
+    ElasticConfigIT.teardown(esService);
+  }
+
+  @BeforeEach
+  void setup() throws IOException {
+    populateDBConfiguration.cleanupDB();
+    populateDBConfiguration.createDB(1);
+  }
+
+  @AfterEach
+  void cleanup() {
+    populateDBConfiguration.cleanupDB();
+    if (channelRepository.existsById(LATE_CHANNEL)) {
+      channelRepository.deleteById(LATE_CHANNEL);
+    }
+  }
+
+  @Test
+  void scroll_readsThePointInTime() {
+    MultiValueMap<String, String> searchParameters = searchParameters();
+    List<String> names = new ArrayList<>();
+    Scroll page = channelRepository.scroll(null, searchParameters);
+    Assertions.assertNotNull(pitId(page.getId()), "first page opens a point in time");
+    add(names, page);
+
+    // written after the point in time was opened
+    channelRepository.index(new Channel(LATE_CHANNEL, "owner"));
+    while (!page.getChannels().isEmpty()) {
+      page = channelRepository.scroll(page.getId(), searchParameters);
+      add(names, page);
+      if (page.getChannels().size() == PAGE_SIZE) {
+        Assertions.assertNotNull(pitId(page.getId()));
+      }
+    }
+    Assertions.assertNull(page.getId());
+    Assertions.assertEquals(1500, names.size());
+    Assertions.assertEquals(names.stream().sorted().distinct().toList(), names);
+    Assertions.assertFalse(names.contains(LATE_CHANNEL));
+  }
+
+  @Test
+  void expiredPointInTime_continuesOnTheLiveIndex() throws IOException {
+    MultiValueMap<String, String> searchParameters = searchParameters();
+    List<String> names = new ArrayList<>();
+    Scroll page = channelRepository.scroll(null, searchParameters);
+    add(names, page);
+    for (int i = 0; i < 2; i++) {
+      page = channelRepository.scroll(page.getId(), searchParameters);
+      add(names, page);
+    }
+
+    // a closed point in time is missing (404) like an expired one
+    String pitId = pitId(page.getId());
+    Assertions.assertNotNull(pitId);
+    esService.getSearchClient().closePointInTime(c -> c.id(pitId));
+    channelRepository.index(new Channel(LATE_CHANNEL, "owner"));
+
+    page = channelRepository.scroll(page.getId(), searchParameters);
+    add(names, page);
+    Assertions.assertEquals(PAGE_SIZE, page.getChannels().size());
+    Assertions.assertNull(pitId(page.getId()), "continued on the live index");
+    while (!page.getChannels().isEmpty()) {
+      page = channelRepository.scroll(page.getId(), searchParameters);
+      add(names, page);
+    }
+    Assertions.assertEquals(1501, names.size());
+    Assertions.assertEquals(names.stream().sorted().distinct().toList(), names);
+    Assertions.assertTrue(names.contains(LATE_CHANNEL));
+  }
+
+  private static MultiValueMap<String, String> searchParameters() {
+    MultiValueMap<String, String> searchParameters = new LinkedMultiValueMap<>();
+    searchParameters.add("~name", "SR*|BR*");
+    searchParameters.add("~size", String.valueOf(PAGE_SIZE));
+    return searchParameters;
+  }
+
+  private static void add(List<String> names, Scroll page) {
+    page.getChannels().forEach(channel -> names.add(channel.getName()));
+  }
+
+  /** The point in time id of an opaque scroll id, null if it continues on the live index. */
+  private static String pitId(String scrollId) {
+    try {
+      JsonNode cursor = new ObjectMapper().readTree(Base64.getUrlDecoder().decode(scrollId));
+      return cursor.path("pit").isTextual() ? cursor.path("pit").textValue() : null;
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -4,7 +4,9 @@ import static java.lang.Math.min;
 import static org.phoebus.channelfinder.configuration.PopulateDBConfiguration.valBucket;
 import static org.phoebus.channelfinder.configuration.PopulateDBConfiguration.valBucketSize;
 
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
@@ -19,7 +21,9 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
 import org.phoebus.channelfinder.configuration.PopulateDBConfiguration;
+import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
 import org.phoebus.channelfinder.repository.PropertyRepository;
 import org.phoebus.channelfinder.repository.TagRepository;
@@ -33,7 +37,10 @@ import org.springframework.util.MultiValueMap;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
 @WebMvcTest(ChannelRepository.class)
-@TestPropertySource(locations = "classpath:application_test.properties")
+// deep pages are charged per walked interval, not by their ~from, so they fit a low cost limit
+@TestPropertySource(
+    locations = "classpath:application_test.properties",
+    properties = "repository.admission.max_cost = 40")
 @EnabledIfEnvironmentVariable(
     named = "GITHUB_ACTIONS",
     matches = "true",
@@ -76,6 +83,21 @@ class ChannelRepositorySearchIT {
    * optimization. The population of the data cannot be performed in the @beforeClass since the
    * springboot beans are not initialized hence the need to use @Before
    */
+  @Test
+  void maxResultWindow_isApplied() throws IOException {
+    IndexSettings settings =
+        esService
+            .getSearchClient()
+            .indices()
+            .getSettings(g -> g.index(esService.getES_CHANNEL_INDEX()))
+            .get(esService.getES_CHANNEL_INDEX())
+            .settings();
+    // returned nested under "index"
+    Integer maxResultWindow =
+        settings.index() != null ? settings.index().maxResultWindow() : settings.maxResultWindow();
+    Assertions.assertEquals(ELASTIC_LIMIT, maxResultWindow);
+  }
+
   @Test
   void searchTest() {
     List<String> channelNames =
@@ -122,6 +144,77 @@ class ChannelRepositorySearchIT {
     searchParameters.add("~track_total_hits", "true");
     assertSearchCount(allCount, (int) elasticDefaultCount, allCount, searchParameters);
 
+    logger.log(Level.INFO, "Stream all 1000 SR channels and all 500 booster channels");
+    searchParameters.clear();
+    searchParameters.add("~name", "SR*|BR*");
+    List<String> streamed = new ArrayList<>();
+    long streamedCount =
+        channelRepository.stream(
+            searchParameters, page -> page.forEach(channel -> streamed.add(channel.getName())));
+    Assertions.assertEquals(allCount, streamedCount);
+    Assertions.assertEquals(allCount, streamed.size());
+    Assertions.assertEquals(streamed.stream().sorted().toList(), streamed);
+
+    searchParameters.add("~size", "1234");
+    Assertions.assertEquals(1234, channelRepository.stream(searchParameters, page -> {}));
+
+    logger.log(Level.INFO, "Deep pages past the max result window");
+    for (int from : List.of(ELASTIC_LIMIT + 5, 140000, 130000, (int) allCount - 50)) {
+      MultiValueMap<String, String> deep = new LinkedMultiValueMap<>();
+      deep.add("~name", "SR*|BR*");
+      deep.add("~from", String.valueOf(from));
+      deep.add("~size", "100");
+      SearchResult deepPage = channelRepository.search(deep);
+      Assertions.assertEquals(
+          streamed.subList(from, (int) min(from + 100L, allCount)),
+          deepPage.channels().stream().map(Channel::getName).toList(),
+          "~from=" + from);
+    }
+
+    logger.log(Level.INFO, "Multi search returns the result of each search in order");
+    MultiValueMap<String, String> single = new LinkedMultiValueMap<>();
+    single.add("~name", channelNames.get(0));
+    MultiValueMap<String, String> booster = new LinkedMultiValueMap<>();
+    booster.add("~name", "BR*");
+    booster.add("~track_total_hits", "true");
+    List<SearchResult> results = channelRepository.multiSearch(List.of(single, booster, single));
+    Assertions.assertEquals(3, results.size());
+    Assertions.assertEquals(channelNames.get(0), results.get(0).channels().get(0).getName());
+    Assertions.assertEquals(500L * CELLS, results.get(1).count());
+    Assertions.assertEquals(results.get(0), results.get(2));
+
+    logger.log(Level.INFO, "Cursor paging through a search sorted by property value");
+    MultiValueMap<String, String> sorted = new LinkedMultiValueMap<>();
+    sorted.add("~name", "BR*");
+    sorted.add("~sort", "group1:desc,owner");
+    sorted.add("~size", "2000");
+    List<String> paged = new ArrayList<>();
+    SearchResult page = channelRepository.search(sorted);
+    while (true) {
+      page.channels().forEach(channel -> paged.add(channel.getName()));
+      if (page.cursor() == null) {
+        break;
+      }
+      sorted.set("~search_after", page.cursor());
+      page = channelRepository.search(sorted);
+    }
+    Assertions.assertEquals(500L * CELLS, paged.size());
+    Assertions.assertEquals(paged.size(), paged.stream().distinct().count());
+
+    logger.log(Level.INFO, "Streaming on from a cursor, which can not be combined with ~from");
+    sorted.remove("~size");
+    sorted.remove("~search_after");
+    sorted.set("~search_after", channelRepository.search(sorted).cursor());
+    List<String> rest = new ArrayList<>();
+    channelRepository.stream(
+        sorted, streamedPage -> streamedPage.forEach(channel -> rest.add(channel.getName())));
+    Assertions.assertEquals(paged.subList(ELASTIC_LIMIT, paged.size()), rest);
+    sorted.set("~from", "10");
+    Assertions.assertThrows(
+        ChannelValidationException.class, () -> channelRepository.stream(sorted, ignored -> {}));
+    Assertions.assertThrows(
+        ChannelValidationException.class, () -> channelRepository.search(sorted));
+
     logger.log(Level.INFO, "Search for channels based on a tag");
     for (long id = 1; id < valBucket.size(); id++) {
 
@@ -1,6 +1,9 @@
 package org.phoebus.channelfinder;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
 
 public class ElasticConfigIT {
@@ -37,4 +40,26 @@ public class ElasticConfigIT {
   static void setUp(ElasticConfig elasticConfig) {
     elasticConfig.elasticIndexValidation(elasticConfig.getSearchClient());
   }
+
+  /**
+   * Reads the lowercased property name=value pairs indexed with a channel, which are not part of
+   * the channel entity
+   *
+   * @param elasticConfig Bean with configuration
+   * @param channelName name of the channel
+   * @return the propkv values of the channel document
+   * @throws IOException when request fails
+   */
+  static Set<String> propertyKeyValues(ElasticConfig elasticConfig, String channelName)
+      throws IOException {
+    ObjectNode source =
+        elasticConfig
+            .getSearchClient()
+            .get(
+                g -> g.index(elasticConfig.getES_CHANNEL_INDEX()).id(channelName), ObjectNode.class)
+            .source();
+    Set<String> propertyKeyValues = new HashSet<>();
+    source.path("propkv").forEach(kv -> propertyKeyValues.add(kv.asText()));
+    return propertyKeyValues;
+  }
 }
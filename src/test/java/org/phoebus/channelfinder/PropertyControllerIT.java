@@ -1342,12 +1342,12 @@ class PropertyControllerIT {
 
     helper.apiCreate(testProperties);
 
-    propertyManager.remove(testProperty0.getName());
+    propertyManager.remove(testProperty0.getName(), null);
     // verify the property was deleted as expected
     Assertions.assertFalse(
         propertyRepository.existsById(testProperty0.getName()), "Failed to delete the property");
 
-    propertyManager.remove(testProperty0WithChannels.getName());
+    propertyManager.remove(testProperty0WithChannels.getName(), null);
     MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
     params.add("testProperty0WithChannels", "*");
     // verify the property was deleted and removed from all associated channels
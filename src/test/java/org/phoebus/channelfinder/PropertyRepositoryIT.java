@@ -15,9 +15,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.repository.ChannelUpdateTasks;
 import org.phoebus.channelfinder.repository.PropertyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -40,6 +42,8 @@ class PropertyRepositoryIT {
 
   @Autowired ChannelRepository channelRepository;
 
+  @Autowired ChannelUpdateTasks channelUpdateTasks;
+
   @AfterAll
   void tearDown() throws IOException {
     ElasticConfigIT.teardown(esService);
@@ -260,6 +264,104 @@ class PropertyRepositoryIT {
     Assertions.assertTrue(chans.isEmpty(), "Failed to remove property from channel");
   }
 
+  /** a property attached to channels is added to new and merged into existing ones */
+  @Test
+  void attachPropertyToNewAndExistingChannels() throws IOException {
+    Property testProperty = propertyRepository.index(new Property(TEST_PROPERTY_NAME, "testOwner"));
+    channelRepository.index(
+        new Channel(
+            "testChannel", "testOwner", List.of(new Property("other", "testOwner", "x")), null));
+
+    // as the property service attaches a property to its channels
+    channelRepository.saveAll(
+        List.of(
+            new Channel(
+                "testChannel",
+                null,
+                List.of(new Property(testProperty.getName(), testProperty.getOwner(), "Value")),
+                null),
+            new Channel(
+                "testChannel1",
+                "testOwner",
+                List.of(new Property(testProperty.getName(), testProperty.getOwner(), "Value")),
+                null)));
+
+    Assertions.assertEquals(
+        Set.of("other=x", "testproperty=value"),
+        ElasticConfigIT.propertyKeyValues(esService, "testChannel"));
+    Assertions.assertEquals(
+        2, channelRepository.findById("testChannel").get().getProperties().size());
+    Assertions.assertEquals(
+        Set.of("testproperty=value"), ElasticConfigIT.propertyKeyValues(esService, "testChannel1"));
+  }
+
+  /** attaching a property value replaces the old value, attaching it again changes nothing */
+  @Test
+  void attachPropertyValue() throws IOException {
+    Property testProperty = propertyRepository.index(new Property(TEST_PROPERTY_NAME, "testOwner"));
+    channelRepository.index(
+        new Channel(
+            "testChannel",
+            "testOwner",
+            List.of(new Property(testProperty.getName(), testProperty.getOwner(), "value")),
+            null));
+
+    Channel changed =
+        new Channel(
+            "testChannel",
+            null,
+            List.of(new Property(testProperty.getName(), testProperty.getOwner(), "newValue")),
+            null);
+    channelRepository.saveAll(List.of(changed));
+    Channel updated = channelRepository.findById("testChannel").get();
+    Assertions.assertEquals(
+        List.of(new Property(testProperty.getName(), testProperty.getOwner(), "newValue")),
+        updated.getProperties());
+    Assertions.assertEquals(
+        Set.of("testproperty=newvalue"),
+        ElasticConfigIT.propertyKeyValues(esService, "testChannel"));
+
+    channelRepository.saveAll(List.of(changed));
+    Assertions.assertEquals(
+        updated.getSeqNo(),
+        channelRepository.findById("testChannel").get().getSeqNo(),
+        "Re-attaching the property wrote the channel");
+  }
+
+  /** a rename keeps the values of the channels, renaming to the same property changes nothing */
+  @Test
+  void renameProperty() throws IOException {
+    Property testProperty = propertyRepository.index(new Property(TEST_PROPERTY_NAME, "testOwner"));
+    channelRepository.index(
+        new Channel(
+            "testChannel",
+            "testOwner",
+            List.of(new Property(testProperty.getName(), testProperty.getOwner(), "Value")),
+            null));
+    Property renamedProperty =
+        propertyRepository.index(new Property(TEST_PROPERTY_NAME + 1, "newOwner"));
+
+    ChannelTask task =
+        channelUpdateTasks.await(
+            propertyRepository.rename(testProperty.getName(), renamedProperty, "20s"));
+    Assertions.assertEquals(1, task.updated());
+    Channel renamed = channelRepository.findById("testChannel").get();
+    Assertions.assertEquals(
+        List.of(new Property(renamedProperty.getName(), "newOwner", "Value")),
+        renamed.getProperties());
+    Assertions.assertEquals(
+        Set.of("testproperty1=value"), ElasticConfigIT.propertyKeyValues(esService, "testChannel"));
+    Assertions.assertFalse(
+        propertyRepository.existsById(testProperty.getName()), "Failed to delete the old property");
+
+    task =
+        channelUpdateTasks.await(
+            propertyRepository.rename(renamedProperty.getName(), renamedProperty, "20s"));
+    Assertions.assertEquals(0, task.updated());
+    Assertions.assertEquals(
+        renamed.getSeqNo(), channelRepository.findById("testChannel").get().getSeqNo());
+  }
+
   @AfterEach
   public void cleanup() {
 
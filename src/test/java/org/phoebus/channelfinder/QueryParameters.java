@@ -0,0 +1,22 @@
+package org.phoebus.channelfinder;
+
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/** Query parameters for tests of the search layers. */
+public final class QueryParameters {
+
+  private QueryParameters() {}
+
+  /**
+   * @param keyValues alternating parameter names and values
+   * @return the parameters in order, a name given twice has both values
+   */
+  public static MultiValueMap<String, String> params(String... keyValues) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      params.add(keyValues[i], keyValues[i + 1]);
+    }
+    return params;
+  }
+}
@@ -731,12 +731,12 @@ class TagControllerIT {
 
     helper.apiCreate(testTags);
 
-    tagManager.remove(testTag0.getName());
+    tagManager.remove(testTag0.getName(), null);
     // verify the tag was deleted as expected
     Assertions.assertFalse(
         tagRepository.existsById(testTag0.getName()), "Failed to delete the tag");
 
-    tagManager.remove(testTag1.getName());
+    tagManager.remove(testTag1.getName(), null);
     MultiValueMap<String, String> params = new LinkedMultiValueMap<String, String>();
     params.add("~tag", testTag1.getName());
     // verify the tag was deleted and removed from all associated channels
@@ -7,6 +7,8 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
@@ -14,8 +16,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.phoebus.channelfinder.configuration.ElasticConfig;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.repository.ChannelUpdateTasks;
 import org.phoebus.channelfinder.repository.TagRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
@@ -37,6 +42,8 @@ class TagRepositoryIT {
 
   @Autowired ChannelRepository channelRepository;
 
+  @Autowired ChannelUpdateTasks channelUpdateTasks;
+
   @AfterAll
   void tearDown() throws IOException {
     ElasticConfigIT.teardown(esService);
@@ -228,6 +235,98 @@ class TagRepositoryIT {
     channelRepository.deleteById(createdChannel.getName());
   }
 
+  /** a tag attached to channels is added to new and existing ones, attaching it again is a noop */
+  @Test
+  void attachTagToNewAndExistingChannels() throws IOException {
+    Tag testTag = tagRepository.index(new Tag("testTag", "testOwner"));
+    Tag otherTag = tagRepository.index(new Tag("otherTag", "testOwner"));
+    channelRepository.index(
+        new Channel(
+            "testChannel",
+            "testOwner",
+            List.of(new Property("testProperty", "testOwner", "Value")),
+            List.of(otherTag)));
+
+    // as the tag service attaches a tag to its channels
+    List<Channel> attach =
+        List.of(
+            new Channel("testChannel", null, List.of(), List.of(testTag)),
+            new Channel("testChannel1", "testOwner", List.of(), List.of(testTag)));
+    channelRepository.saveAll(attach);
+
+    Channel existing = channelRepository.findById("testChannel").get();
+    Assertions.assertEquals(
+        Set.of("otherTag", "testTag"),
+        existing.getTags().stream().map(Tag::getName).collect(Collectors.toSet()));
+    // the properties and their key values are kept
+    Assertions.assertEquals(
+        Set.of("testproperty=value"), ElasticConfigIT.propertyKeyValues(esService, "testChannel"));
+    Assertions.assertEquals(
+        List.of(testTag), channelRepository.findById("testChannel1").get().getTags());
+
+    channelRepository.saveAll(attach);
+    Assertions.assertEquals(
+        existing.getSeqNo(),
+        channelRepository.findById("testChannel").get().getSeqNo(),
+        "Re-attaching the tag wrote the channel");
+  }
+
+  /** a rename replaces the tag in the channels, renaming to the same tag changes nothing */
+  @Test
+  void renameTag() {
+    Tag testTag = tagRepository.index(new Tag("testTag", "testOwner"));
+    channelRepository.index(new Channel("testChannel", "testOwner", List.of(), List.of(testTag)));
+    Tag renamedTag = tagRepository.index(new Tag("renamedTag", "newOwner"));
+
+    ChannelTask task =
+        channelUpdateTasks.await(tagRepository.rename(testTag.getName(), renamedTag, "20s"));
+    Assertions.assertEquals(1, task.updated());
+    Channel renamed = channelRepository.findById("testChannel").get();
+    Assertions.assertEquals(List.of(renamedTag), renamed.getTags());
+    Assertions.assertFalse(
+        tagRepository.existsById(testTag.getName()), "Failed to delete the old tag");
+
+    task = channelUpdateTasks.await(tagRepository.rename(renamedTag.getName(), renamedTag, "20s"));
+    Assertions.assertEquals(0, task.updated());
+    Assertions.assertEquals(
+        renamed.getSeqNo(), channelRepository.findById("testChannel").get().getSeqNo());
+  }
+
+  /** channels written while the tag is removed from them keep their writes and lose the tag */
+  @Test
+  void deleteTag_channelsWrittenWhileRemovalRuns() {
+    Tag testTag = tagRepository.index(new Tag("testTag", "testOwner"));
+    Tag otherTag = tagRepository.index(new Tag("otherTag", "testOwner"));
+    List<Channel> channels =
+        IntStream.range(0, 2000)
+            .mapToObj(i -> new Channel("testChannel" + i, "testOwner", List.of(), List.of(testTag)))
+            .toList();
+    channelRepository.indexAll(channels);
+
+    ChannelTask task = tagRepository.deleteById(testTag.getName(), null);
+    // written while the removal runs, some of them skipped by it
+    for (int i = 0; i < channels.size(); i += 10) {
+      channelRepository.attach(new Channel("testChannel" + i, null, List.of(), List.of(otherTag)));
+    }
+    task = channelUpdateTasks.await(task);
+
+    Assertions.assertTrue(task.completed(), "Failed to remove the tag: " + task.failures());
+    Assertions.assertEquals(0, task.versionConflicts());
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("~tag", testTag.getName());
+    params.add("~size", "10000");
+    Assertions.assertTrue(
+        channelRepository.search(params).channels().isEmpty(),
+        "Failed to remove tag from channels written meanwhile");
+    for (int i = 0; i < channels.size(); i += 10) {
+      Assertions.assertEquals(
+          List.of(otherTag.getName()),
+          channelRepository.findById("testChannel" + i).get().getTags().stream()
+              .map(Tag::getName)
+              .toList());
+    }
+  }
+
   // helper operations to clean up tagrepoIT
 
   private List<Tag> cleanupTestTags = Collections.emptyList();
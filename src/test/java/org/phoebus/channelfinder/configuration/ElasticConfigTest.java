@@ -0,0 +1,54 @@
+package org.phoebus.channelfinder.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.indices.CreateIndexRequest;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.ExistsRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsRequest;
+import co.elastic.clients.elasticsearch.indices.PutIndicesSettingsResponse;
+import co.elastic.clients.transport.endpoints.BooleanResponse;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ElasticConfigTest {
+
+  @Test
+  void indexValidation_appliesMaxResultWindowToAllIndices() throws IOException {
+    ElasticConfig elasticConfig = new ElasticConfig();
+    ReflectionTestUtils.setField(elasticConfig, "ES_CHANNEL_INDEX", "channels");
+    ReflectionTestUtils.setField(elasticConfig, "ES_TAG_INDEX", "tags");
+    ReflectionTestUtils.setField(elasticConfig, "ES_PROPERTY_INDEX", "properties");
+    ReflectionTestUtils.setField(elasticConfig, "ES_QUERY_SIZE", 25000);
+
+    ElasticsearchClient client = mock(ElasticsearchClient.class);
+    ElasticsearchIndicesClient indices = mock(ElasticsearchIndicesClient.class);
+    when(client.indices()).thenReturn(indices);
+    when(indices.exists(any(ExistsRequest.class))).thenReturn(new BooleanResponse(true));
+    when(indices.putSettings(any(PutIndicesSettingsRequest.class)))
+        .thenReturn(PutIndicesSettingsResponse.of(r -> r.acknowledged(true)));
+
+    elasticConfig.elasticIndexValidation(client);
+
+    ArgumentCaptor<PutIndicesSettingsRequest> requests =
+        ArgumentCaptor.forClass(PutIndicesSettingsRequest.class);
+    verify(indices, times(3)).putSettings(requests.capture());
+    verify(indices, never()).create(any(CreateIndexRequest.class));
+    assertEquals(
+        List.of(List.of("channels"), List.of("tags"), List.of("properties")),
+        requests.getAllValues().stream().map(PutIndicesSettingsRequest::index).toList());
+    for (PutIndicesSettingsRequest request : requests.getAllValues()) {
+      assertEquals(25000, request.settings().maxResultWindow());
+    }
+  }
+}
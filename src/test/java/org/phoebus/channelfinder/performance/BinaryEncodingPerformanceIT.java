@@ -0,0 +1,128 @@
+package org.phoebus.channelfinder.performance;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.configuration.PopulateDBConfiguration;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.web.v0.dto.SearchResultDto;
+import org.phoebus.channelfinder.web.v0.mapper.ChannelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Compares the size and round-trip time of a channel search result encoded as JSON, CBOR and Smile
+ * by the HTTP message converters the service registers for these media types.
+ */
+@WebMvcTest(ChannelRepository.class)
+@TestPropertySource(properties = {"aa.enabled=false", "repository.search.cache.enabled=false"})
+class BinaryEncodingPerformanceIT {
+
+  private static final Logger logger =
+      Logger.getLogger(BinaryEncodingPerformanceIT.class.getName());
+  private static final int ROUNDS = 20;
+  private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+
+  @Autowired PopulateDBConfiguration service;
+
+  @Autowired ChannelRepository channelRepository;
+
+  @BeforeEach
+  void setup() throws IOException {
+    service.createDB(1);
+  }
+
+  @AfterEach
+  void cleanup() {
+    service.cleanupDB();
+  }
+
+  @Test
+  void binaryEncodingsRoundTrip() throws IOException {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("~size", "10000");
+    SearchResult result = channelRepository.search(params);
+    SearchResultDto dto =
+        new SearchResultDto(
+            result.channels().stream().map(ChannelMapper::toDto).toList(), result.count());
+    Assertions.assertFalse(dto.channels().isEmpty());
+
+    Map<MediaType, HttpMessageConverter<Object>> converters = new LinkedHashMap<>();
+    for (MediaType mediaType :
+        new MediaType[] {MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE}) {
+      converters.put(mediaType, converter(mediaType));
+    }
+
+    for (Map.Entry<MediaType, HttpMessageConverter<Object>> entry : converters.entrySet()) {
+      MediaType mediaType = entry.getKey();
+      HttpMessageConverter<Object> converter = entry.getValue();
+      byte[] encoded = write(converter, dto, mediaType);
+      Assertions.assertEquals(dto, read(converter, encoded, mediaType), mediaType.toString());
+
+      long writeNanos = 0;
+      long readNanos = 0;
+      for (int i = 0; i < ROUNDS; i++) {
+        long start = System.nanoTime();
+        write(converter, dto, mediaType);
+        writeNanos += System.nanoTime() - start;
+        start = System.nanoTime();
+        read(converter, encoded, mediaType);
+        readNanos += System.nanoTime() - start;
+      }
+      logger.log(
+          Level.INFO,
+          "{0}: {1} channels in {2} bytes, {3} rounds: write {4} ms, read {5} ms",
+          new Object[] {
+            mediaType,
+            dto.channels().size(),
+            encoded.length,
+            ROUNDS,
+            writeNanos / 1_000_000,
+            readNanos / 1_000_000
+          });
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpMessageConverter<Object> converter(MediaType mediaType) {
+    for (HttpMessageConverter<?> converter :
+        HttpMessageConverters.forServer().registerDefaults().build()) {
+      if (converter.canWrite(SearchResultDto.class, mediaType)
+          && converter.canRead(SearchResultDto.class, mediaType)) {
+        return (HttpMessageConverter<Object>) converter;
+      }
+    }
+    return Assertions.fail("No message converter for " + mediaType);
+  }
+
+  private static byte[] write(
+      HttpMessageConverter<Object> converter, SearchResultDto dto, MediaType mediaType)
+      throws IOException {
+    MockHttpOutputMessage output = new MockHttpOutputMessage();
+    converter.write(dto, mediaType, output);
+    return output.getBodyAsBytes();
+  }
+
+  private static Object read(
+      HttpMessageConverter<Object> converter, byte[] encoded, MediaType mediaType)
+      throws IOException {
+    MockHttpInputMessage input = new MockHttpInputMessage(encoded);
+    input.getHeaders().setContentType(mediaType);
+    return converter.read(SearchResultDto.class, input);
+  }
+}
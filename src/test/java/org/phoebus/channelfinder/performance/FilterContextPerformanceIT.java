@@ -0,0 +1,97 @@
+package org.phoebus.channelfinder.performance;
+
+import static org.phoebus.channelfinder.QueryParameters.params;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.configuration.PopulateDBConfiguration;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.MultiValueMap;
+
+/**
+ * Compares channel searches built in bool filter context with the scored must/dis_max form
+ *
+ * <p>The search cache is disabled so every search reaches Elasticsearch.
+ */
+@WebMvcTest(ChannelRepository.class)
+@TestPropertySource(
+    properties = {
+      "aa.enabled=false",
+      "repository.search.cache.enabled=false",
+      "repository.search.coalescing.enabled=false"
+    })
+class FilterContextPerformanceIT {
+
+  private static final Logger logger = Logger.getLogger(FilterContextPerformanceIT.class.getName());
+  private static final int ROUNDS = 20;
+
+  @Autowired PopulateDBConfiguration service;
+
+  @Autowired ChannelRepository channelRepository;
+
+  @BeforeEach
+  void setup() throws IOException {
+    service.createDB(1);
+  }
+
+  @AfterEach
+  void cleanup() {
+    ReflectionTestUtils.setField(channelRepository, "filterContext", true);
+    service.cleanupDB();
+  }
+
+  @Test
+  void filterContextMatchesScoredQueries() {
+    List<MultiValueMap<String, String>> queries =
+        List.of(
+            params("~name", "SR*C001*"),
+            params("~tag", "group0_10|group1_20|group2_50"),
+            params("type", "readback,setpoint"),
+            params("~name", "*RB", "~tag", "group5_*", "cell", "001"),
+            params("element", "!magnet", "~size", "1000"));
+
+    long filterNanos = 0;
+    long scoredNanos = 0;
+    for (MultiValueMap<String, String> query : queries) {
+      ReflectionTestUtils.setField(channelRepository, "filterContext", false);
+      List<String> scored = names(channelRepository.search(query));
+      ReflectionTestUtils.setField(channelRepository, "filterContext", true);
+      List<String> filtered = names(channelRepository.search(query));
+      Assertions.assertEquals(scored, filtered, "Results differ for " + query);
+
+      for (int i = 0; i < ROUNDS; i++) {
+        ReflectionTestUtils.setField(channelRepository, "filterContext", false);
+        scoredNanos += time(query);
+        ReflectionTestUtils.setField(channelRepository, "filterContext", true);
+        filterNanos += time(query);
+      }
+    }
+    logger.log(
+        Level.INFO,
+        "{0} searches: filter context {1} ms, scored {2} ms",
+        new Object[] {ROUNDS * queries.size(), filterNanos / 1_000_000, scoredNanos / 1_000_000});
+  }
+
+  private long time(MultiValueMap<String, String> query) {
+    long start = System.nanoTime();
+    channelRepository.search(query);
+    return System.nanoTime() - start;
+  }
+
+  private static List<String> names(SearchResult result) {
+    return result.channels().stream().map(Channel::getName).collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,79 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.elastic.clients.elasticsearch.core.search.SourceFilter;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+class ChannelProjectionTest {
+
+  private static Channel channel() {
+    return new Channel(
+        "SR:1",
+        "owner",
+        new ArrayList<>(
+            List.of(
+                new Property("location", "owner", "SR"),
+                new Property("Cell", "owner", "1"),
+                new Property("type", "owner", "readback"))),
+        new ArrayList<>(List.of(new Tag("active", "owner"))));
+  }
+
+  @Test
+  void noFields_isNone() {
+    ChannelProjection projection = ChannelProjection.of(List.of(), List.of(" "));
+
+    assertSame(ChannelProjection.NONE, projection);
+    assertTrue(projection.sourceConfig().isEmpty());
+  }
+
+  @Test
+  void channelFields_becomeSourceIncludes() {
+    ChannelProjection projection = ChannelProjection.of(List.of("owner", "tags.name"), List.of());
+
+    SourceFilter filter = projection.sourceConfig().orElseThrow().filter();
+    assertEquals(List.of("owner", "tags.name", "name"), filter.includes());
+    assertEquals(List.of(), filter.excludes());
+  }
+
+  @Test
+  void excludedChannelFields_becomeSourceExcludes() {
+    ChannelProjection projection = ChannelProjection.of(List.of(), List.of("properties", "tags"));
+
+    SourceFilter filter = projection.sourceConfig().orElseThrow().filter();
+    assertEquals(List.of(), filter.includes());
+    assertEquals(List.of("properties", "tags"), filter.excludes());
+  }
+
+  @Test
+  void propertyNames_selectProperties() {
+    ChannelProjection projection = ChannelProjection.of(List.of("location", "cell"), List.of());
+
+    SourceFilter filter = projection.sourceConfig().orElseThrow().filter();
+    assertEquals(List.of("properties", "name"), filter.includes());
+
+    Channel channel = projection.apply(channel());
+    assertEquals(
+        List.of("location", "Cell"),
+        channel.getProperties().stream().map(Property::getName).toList());
+  }
+
+  @Test
+  void excludedPropertyNames_dropProperties() {
+    ChannelProjection projection = ChannelProjection.of(List.of(), List.of("Type"));
+
+    assertTrue(projection.sourceConfig().isEmpty());
+    Channel channel = projection.apply(channel());
+    assertEquals(
+        List.of("location", "Cell"),
+        channel.getProperties().stream().map(Property::getName).toList());
+    assertEquals(1, channel.getTags().size());
+  }
+}
@@ -0,0 +1,127 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import org.junit.jupiter.api.Test;
+
+class ChannelQueryCompilerTest {
+
+  private final ChannelQueryCompiler compiler = new ChannelQueryCompiler(true, false, false, false);
+
+  @Test
+  void exactPattern_compilesToTermOnLowercaseSubfield() {
+    Query query = compiler.compile("name", "SR:C01-MG{PS:1}I-SP");
+
+    assertTrue(query.isTerm());
+    assertEquals("name.lowercase", query.term().field());
+    assertEquals("sr:c01-mg{ps:1}i-sp", query.term().value().stringValue());
+  }
+
+  @Test
+  void escapedWildcards_areLiterals() {
+    Query query = compiler.compile("properties.value", "a\\*b\\?");
+
+    assertTrue(query.isTerm());
+    assertEquals("a*b?", query.term().value().stringValue());
+  }
+
+  @Test
+  void trailingStar_compilesToPrefix() {
+    Query query = compiler.compile("tags.name", "Group*");
+
+    assertTrue(query.isPrefix());
+    assertEquals("tags.name.lowercase", query.prefix().field());
+    assertEquals("group", query.prefix().value());
+  }
+
+  @Test
+  void bareStar_compilesToExists() {
+    Query query = compiler.compile("properties.value", "*");
+
+    assertTrue(query.isExists());
+    assertEquals("properties.value", query.exists().field());
+  }
+
+  @Test
+  void trueWildcards_stayWildcards() {
+    for (String pattern : new String[] {"*SP", "SR*SP", "SR?", "S*R*"}) {
+      Query query = compiler.compile("name", pattern);
+
+      assertTrue(query.isWildcard(), pattern);
+      assertEquals("name.lowercase", query.wildcard().field());
+      assertEquals(pattern.toLowerCase(), query.wildcard().value());
+    }
+  }
+
+  @Test
+  void withoutSubfields_fallsBackToCaseInsensitiveWildcard() {
+    Query query = new ChannelQueryCompiler(false, false, false, false).compile("name", "SR:C01");
+
+    assertTrue(query.isWildcard());
+    assertEquals("name", query.wildcard().field());
+    assertEquals(Boolean.TRUE, query.wildcard().caseInsensitive());
+  }
+
+  @Test
+  void nameSuffix_compilesToPrefixOnReversedSubfield() {
+    Query query = new ChannelQueryCompiler(true, true, false, false).compile("name", "*}T:1-RB");
+
+    assertTrue(query.isPrefix());
+    assertEquals("name.reversed", query.prefix().field());
+    assertEquals("br-1:t}", query.prefix().value());
+  }
+
+  @Test
+  void nameInfix_compilesToWildcardSubfield() {
+    Query query = new ChannelQueryCompiler(true, true, true, false).compile("name", "*C001-MG*");
+
+    assertTrue(query.isWildcard());
+    assertEquals("name.wildcard", query.wildcard().field());
+    assertEquals("*C001-MG*", query.wildcard().value());
+    assertEquals(Boolean.TRUE, query.wildcard().caseInsensitive());
+  }
+
+  @Test
+  void suffixOnOtherFields_staysWildcard() {
+    Query query =
+        new ChannelQueryCompiler(true, true, true, false).compile("properties.value", "*RB");
+
+    assertTrue(query.isWildcard());
+    assertEquals("properties.value.lowercase", query.wildcard().field());
+  }
+
+  @Test
+  void exactProperty_compilesToTermOnPropkv() {
+    Query query =
+        new ChannelQueryCompiler(true, false, false, true)
+            .compileProperty("Cell", "C001")
+            .orElseThrow();
+
+    assertTrue(query.isTerm());
+    assertEquals("propkv", query.term().field());
+    assertEquals("cell=c001", query.term().value().stringValue());
+  }
+
+  @Test
+  void prefixProperty_compilesToPrefixOnPropkv() {
+    ChannelQueryCompiler propkvCompiler = new ChannelQueryCompiler(true, false, false, true);
+
+    assertEquals(
+        "device=mag",
+        propkvCompiler.compileProperty("device", "mag*").orElseThrow().prefix().value());
+    assertEquals(
+        "device=", propkvCompiler.compileProperty("device", "*").orElseThrow().prefix().value());
+  }
+
+  @Test
+  void wildcardProperty_needsNestedQuery() {
+    ChannelQueryCompiler propkvCompiler = new ChannelQueryCompiler(true, false, false, true);
+
+    assertTrue(propkvCompiler.compileProperty("dev*", "magnet").isEmpty());
+    assertTrue(propkvCompiler.compileProperty("device", "*net").isEmpty());
+    assertTrue(propkvCompiler.compileProperty("device", "m?gnet").isEmpty());
+    assertTrue(compiler.compileProperty("device", "magnet").isEmpty());
+  }
+}
@@ -0,0 +1,111 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.phoebus.channelfinder.QueryParameters.params;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.entity.Tag;
+
+class ChannelSearchCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private static SearchResult result(String... names) {
+    List<Channel> channels = new ArrayList<>();
+    for (String name : names) {
+      channels.add(
+          new Channel(
+              name,
+              "owner",
+              new ArrayList<>(List.of(new Property("prop", "owner", "value"))),
+              new ArrayList<>(List.of(new Tag("tag", "owner")))));
+    }
+    return new SearchResult(channels, channels.size());
+  }
+
+  @Test
+  void equivalentParameters_hitCache() {
+    ChannelSearchCache cache = new ChannelSearchCache(true, 1024 * 1024, 0, meterRegistry);
+    AtomicInteger searches = new AtomicInteger();
+
+    cache.get(
+        params("~name", "SR*", "~tag", "active"),
+        () -> {
+          searches.incrementAndGet();
+          return result("SR:1");
+        });
+    SearchResult cached =
+        cache.get(
+            params("~tag", "active", "~name", " SR*"),
+            () -> {
+              searches.incrementAndGet();
+              return result("SR:1");
+            });
+
+    assertEquals(1, searches.get());
+    assertEquals("SR:1", cached.channels().get(0).getName());
+    assertEquals(
+        1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+    assertEquals(
+        1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+  }
+
+  @Test
+  void invalidate_forcesNewSearch() {
+    ChannelSearchCache cache = new ChannelSearchCache(true, 1024 * 1024, 0, meterRegistry);
+    AtomicInteger searches = new AtomicInteger();
+
+    cache.get(params("~name", "SR*"), () -> result("SR:" + searches.incrementAndGet()));
+    cache.invalidate();
+    SearchResult after =
+        cache.get(params("~name", "SR*"), () -> result("SR:" + searches.incrementAndGet()));
+
+    assertEquals(2, searches.get());
+    assertEquals("SR:2", after.channels().get(0).getName());
+  }
+
+  @Test
+  void cachedResults_areCopies() {
+    ChannelSearchCache cache = new ChannelSearchCache(true, 1024 * 1024, 0, meterRegistry);
+
+    SearchResult first = cache.get(params("~name", "SR*"), () -> result("SR:1"));
+    first.channels().get(0).addTag(new Tag("added", "owner"));
+    SearchResult second = cache.get(params("~name", "SR*"), () -> result("SR:1"));
+    SearchResult third = cache.get(params("~name", "SR*"), () -> result("SR:1"));
+
+    assertEquals(1, second.channels().get(0).getTags().size());
+    assertNotSame(second.channels().get(0), third.channels().get(0));
+  }
+
+  @Test
+  void byteLimit_evictsEntries() {
+    ChannelSearchCache cache = new ChannelSearchCache(true, 4096, 0, meterRegistry);
+
+    for (int i = 0; i < 50; i++) {
+      cache.get(params("~name", "SR" + i), () -> result("SR:1", "SR:2", "SR:3"));
+    }
+
+    assertTrue(cache.size() < 50);
+    assertTrue(meterRegistry.get("cache.evictions").functionCounter().count() > 0);
+  }
+
+  @Test
+  void disabled_alwaysSearches() {
+    ChannelSearchCache cache = new ChannelSearchCache(false, 1024 * 1024, 0, meterRegistry);
+    AtomicInteger searches = new AtomicInteger();
+
+    cache.get(params("~name", "SR*"), () -> result("SR:" + searches.incrementAndGet()));
+    cache.get(params("~name", "SR*"), () -> result("SR:" + searches.incrementAndGet()));
+
+    assertEquals(2, searches.get());
+  }
+}
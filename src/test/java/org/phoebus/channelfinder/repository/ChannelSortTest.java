@@ -0,0 +1,63 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import co.elastic.clients.elasticsearch._types.FieldSort;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+
+class ChannelSortTest {
+
+  private final ChannelQueryCompiler compiler = new ChannelQueryCompiler(true, false, false, false);
+
+  @Test
+  void noValues_sortsByName() {
+    ChannelSort sort = ChannelSort.of(List.of(" "), compiler);
+
+    assertSame(ChannelSort.NAME, sort);
+    assertEquals("name", sort.options().get(0).field().field());
+  }
+
+  @Test
+  void channelFields_keepOrderAndDirection() {
+    List<SortOptions> options = ChannelSort.of(List.of("owner:desc", "name"), compiler).options();
+
+    assertEquals(2, options.size());
+    assertEquals("owner", options.get(0).field().field());
+    assertEquals(SortOrder.Desc, options.get(0).field().order());
+    assertEquals("name", options.get(1).field().field());
+    assertEquals(SortOrder.Asc, options.get(1).field().order());
+  }
+
+  @Test
+  void propertyName_sortsOnNestedValue_withNameTiebreaker() {
+    ChannelSort sort = ChannelSort.of(List.of("Cell:DESC"), compiler);
+
+    assertEquals(2, sort.size());
+    FieldSort property = sort.options().get(0).field();
+    assertEquals("properties.value", property.field());
+    assertEquals(SortOrder.Desc, property.order());
+    assertEquals("properties", property.nested().path());
+    assertEquals("cell", property.nested().filter().term().value().stringValue());
+    assertEquals("name", sort.options().get(1).field().field());
+  }
+
+  @Test
+  void colonWithoutDirection_isPartOfPropertyName() {
+    FieldSort property = ChannelSort.of(List.of("SR:cell"), compiler).options().get(0).field();
+
+    assertEquals("sr:cell", property.nested().filter().term().value().stringValue());
+    assertEquals(SortOrder.Asc, property.order());
+  }
+
+  @Test
+  void directionWithoutField_isRejected() {
+    assertThrows(
+        ChannelValidationException.class, () -> ChannelSort.of(List.of(":desc"), compiler));
+  }
+}
@@ -0,0 +1,205 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.NestedQuery;
+import jakarta.json.Json;
+import jakarta.json.JsonObject;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.configuration.ElasticConfig;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.ChannelTask.Subject;
+import org.phoebus.channelfinder.exceptions.RepositoryException;
+
+class ChannelUpdateTasksTest {
+
+  private static JsonObject json(String json) {
+    return Json.createReader(new StringReader(json.replace('\'', '"'))).readObject();
+  }
+
+  @Test
+  void runningRun_reportsProgress() {
+    ChannelUpdateTasks.Run run =
+        ChannelUpdateTasks.run(
+            false,
+            json(
+                "{'total': 500000, 'updated': 12000, 'created': 0, 'deleted': 0, 'batches': 13,"
+                    + " 'version_conflicts': 2, 'noops': 0}"),
+            new ArrayList<>());
+    assertFalse(run.completed());
+    assertFalse(run.cancelled());
+    assertEquals(500000, run.total());
+    assertEquals(12002, run.processed());
+    assertEquals(12000, run.updated());
+    assertEquals(2, run.versionConflicts());
+    assertTrue(run.failures().isEmpty());
+
+    ChannelTask task = job().task("node:1", run);
+    assertEquals("node:1", task.id());
+    assertEquals(Subject.TAG, task.subject());
+    assertFalse(task.done());
+    assertEquals(500000, task.total());
+    assertEquals(12002, task.processed());
+  }
+
+  @Test
+  void completedRun_reportsCancellationAndFailures() {
+    ChannelUpdateTasks.Run run =
+        ChannelUpdateTasks.run(
+            true,
+            json(
+                "{'total': 10, 'updated': 4, 'version_conflicts': 0, 'canceled': 'by user request',"
+                    + " 'failures': [{'index': 'channelfinder', 'id': 'ch1', 'cause': {'type':"
+                    + " 'script_exception', 'reason': 'runtime error'}}]}"),
+            new ArrayList<>(List.of("task failed")));
+    assertTrue(run.completed());
+    assertTrue(run.cancelled());
+    assertEquals(4, run.updated());
+    assertEquals(List.of("task failed", "runtime error"), run.failures());
+  }
+
+  @Test
+  void conflicts_areRunAgainUntilNoneRemain() {
+    ChannelUpdateTasks.Job job = job();
+    ChannelUpdateTasks.Run first = completedRun(100, 97, 3);
+    job.add(first);
+    assertTrue(job.rerun(first));
+    ChannelTask rerunning = job.task("node:1", null);
+    assertFalse(rerunning.done());
+    assertEquals(100, rerunning.total());
+    assertEquals(97, rerunning.processed());
+
+    ChannelUpdateTasks.Run second = completedRun(3, 3, 0);
+    job.add(second);
+    assertFalse(job.rerun(second));
+    job.complete("node:1", second);
+    ChannelTask task = completedTask(job);
+    assertTrue(task.completed());
+    assertFalse(task.failed());
+    assertEquals(100, task.total());
+    assertEquals(100, task.processed());
+    assertEquals(100, task.updated());
+    assertEquals(0, task.versionConflicts());
+  }
+
+  @Test
+  void remainingConflicts_failTheTask() {
+    ChannelUpdateTasks.Job job = job();
+    ChannelUpdateTasks.Run run = completedRun(100, 97, 3);
+    for (int rerun = 0; rerun < ChannelUpdateTasks.MAX_RERUNS; rerun++) {
+      job.add(run);
+      assertTrue(job.rerun(run));
+      job.rerunStarted("node:" + (rerun + 2));
+      run = completedRun(3, 0, 3);
+    }
+    job.add(run);
+    assertFalse(job.rerun(run));
+    job.complete("node:1", run);
+    ChannelTask task = completedTask(job);
+    assertTrue(task.done());
+    assertFalse(task.completed());
+    assertTrue(task.failed());
+    assertEquals(3, task.versionConflicts());
+    assertEquals(1, task.failures().size());
+  }
+
+  @Test
+  void onCompleted_runsOnlyOnceAllChannelsWereUpdated() {
+    AtomicInteger onCompleted = new AtomicInteger();
+    ChannelUpdateTasks.Job job = job(onCompleted::incrementAndGet);
+    ChannelUpdateTasks.Run run = completedRun(100, 100, 0);
+    job.add(run);
+    job.complete("node:1", run);
+    assertTrue(completedTask(job).completed());
+    assertEquals(1, onCompleted.get());
+
+    ChannelUpdateTasks.Job failing = job(onCompleted::incrementAndGet);
+    run = completedRun(100, 97, 3);
+    failing.add(run);
+    failing.rerunStarted("node:2");
+    failing.complete("node:1", run);
+    assertTrue(completedTask(failing).failed());
+    assertEquals(1, onCompleted.get());
+  }
+
+  @Test
+  void failingOnCompleted_failsTheTask() {
+    ChannelUpdateTasks.Job job =
+        job(
+            () -> {
+              throw new RepositoryException("Failed to delete tag: old");
+            });
+    ChannelUpdateTasks.Run run = completedRun(100, 100, 0);
+    job.add(run);
+    job.complete("node:1", run);
+    ChannelTask task = completedTask(job);
+    assertFalse(task.completed());
+    assertTrue(task.failed());
+    assertEquals(List.of("Failed to delete tag: old"), task.failures());
+  }
+
+  private static ChannelUpdateTasks.Job job() {
+    return job(null);
+  }
+
+  private static ChannelUpdateTasks.Job job(Runnable onCompleted) {
+    return new ChannelUpdateTasks.Job(Subject.TAG, null, null, onCompleted);
+  }
+
+  private static ChannelUpdateTasks.Run completedRun(long total, long updated, long conflicts) {
+    return new ChannelUpdateTasks.Run(
+        true, false, total, total, updated, conflicts, new ArrayList<>());
+  }
+
+  private static ChannelTask completedTask(ChannelUpdateTasks.Job job) {
+    return job.result();
+  }
+
+  @Test
+  void unknownTask_isNotFound() throws Exception {
+    ElasticsearchClient client = mock(ElasticsearchClient.class);
+    ChannelUpdateTasks tasks =
+        new ChannelUpdateTasks(
+            mock(ElasticConfig.class),
+            client,
+            mock(IndexChangeTracker.class),
+            mock(IndexRefresher.class),
+            "auto");
+
+    // any other task of the cluster, e.g. a reindex
+    assertTrue(tasks.get("node:42", null).isEmpty());
+    assertTrue(tasks.cancel("node:42").isEmpty());
+    verifyNoInteractions(client);
+  }
+
+  @Test
+  void query_matchesNameIgnoringCase() {
+    NestedQuery tags = ChannelUpdateTasks.query(Subject.TAG, "Cell-1").nested();
+    assertEquals("tags", tags.path());
+    assertEquals("tags.name", tags.query().term().field());
+    assertEquals("Cell-1", tags.query().term().value().stringValue());
+    assertTrue(tags.query().term().caseInsensitive());
+
+    NestedQuery properties = ChannelUpdateTasks.query(Subject.PROPERTY, "Cell").nested();
+    assertEquals("properties", properties.path());
+    assertEquals("properties.name", properties.query().term().field());
+  }
+
+  @Test
+  void slices_areAutoOrPositive() {
+    assertTrue(ChannelUpdateTasks.parseSlices(" Auto ").isComputed());
+    assertEquals(4, ChannelUpdateTasks.parseSlices("4").value());
+    assertThrows(IllegalArgumentException.class, () -> ChannelUpdateTasks.parseSlices("0"));
+    assertThrows(IllegalArgumentException.class, () -> ChannelUpdateTasks.parseSlices("many"));
+  }
+}
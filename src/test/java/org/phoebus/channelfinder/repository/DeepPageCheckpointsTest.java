@@ -0,0 +1,51 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.phoebus.channelfinder.QueryParameters.params;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+
+class DeepPageCheckpointsTest {
+
+  private final IndexChangeTracker changeTracker = new IndexChangeTracker();
+  private final DeepPageCheckpoints deepPageCheckpoints =
+      new DeepPageCheckpoints(100, 10, 0, changeTracker);
+
+  @Test
+  void pagesOfOneQuery_shareCheckpoints() {
+    deepPageCheckpoints
+        .get(params("~name", "SR*", "~from", "20000", "~size", "10"))
+        .put(100, List.of(FieldValue.of("SR:100")));
+
+    DeepPageCheckpoints.Checkpoints checkpoints =
+        deepPageCheckpoints.get(params("~from", "30000", "~name", "SR*", "~fields", "name"));
+    assertEquals(100, checkpoints.floor(250).getKey());
+    assertEquals("SR:100", checkpoints.floor(100).getValue().get(0).stringValue());
+    assertNull(checkpoints.floor(99));
+
+    assertNull(deepPageCheckpoints.get(params("~name", "BR*")).floor(250), "other query");
+    assertNull(
+        deepPageCheckpoints.get(params("~name", "SR*", "~sort", "owner")).floor(250), "other sort");
+  }
+
+  @Test
+  void channelWrite_dropsCheckpoints() {
+    deepPageCheckpoints.get(params("~name", "SR*")).put(100, List.of(FieldValue.of("SR:100")));
+    changeTracker.changed(Index.TAG);
+    assertEquals(100, deepPageCheckpoints.get(params("~name", "SR*")).floor(100).getKey());
+    changeTracker.changed(Index.CHANNEL);
+    assertNull(deepPageCheckpoints.get(params("~name", "SR*")).floor(100));
+  }
+
+  @Test
+  void nonPositiveInterval_disablesDeepPaging() {
+    assertTrue(deepPageCheckpoints.enabled());
+    assertFalse(new DeepPageCheckpoints(0, 10, 0, changeTracker).enabled());
+  }
+}
@@ -0,0 +1,107 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.indices.ElasticsearchIndicesClient;
+import co.elastic.clients.elasticsearch.indices.RefreshRequest;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.phoebus.channelfinder.configuration.ElasticConfig;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.phoebus.channelfinder.repository.IndexRefresher.Operation;
+
+@ExtendWith(MockitoExtension.class)
+class IndexRefresherTest {
+
+  @Mock private ElasticConfig esService;
+  @Mock private ElasticsearchClient client;
+  @Mock private ElasticsearchIndicesClient indicesClient;
+
+  private final IndexChangeTracker changeTracker = new IndexChangeTracker();
+  private IndexRefresher indexRefresher;
+
+  @BeforeEach
+  void setup() {
+    indexRefresher =
+        new IndexRefresher(esService, client, changeTracker, "wait_for", "none", "true");
+  }
+
+  @Test
+  void policies_areParsedPerOperation() {
+    assertEquals(Refresh.WaitFor, indexRefresher.policy(Operation.SINGLE));
+    assertEquals(Refresh.False, indexRefresher.policy(Operation.BULK));
+    assertEquals(Refresh.True, indexRefresher.policy(Operation.DELETE));
+    assertEquals(Refresh.False, IndexRefresher.parse(" False "));
+    assertThrows(IllegalArgumentException.class, () -> IndexRefresher.parse("sometimes"));
+  }
+
+  @Test
+  void refreshedWrites_areVisibleAtOnce() throws IOException {
+    AtomicInteger changes = new AtomicInteger();
+    changeTracker.onChange(Index.TAG, changes::incrementAndGet);
+
+    indexRefresher.written(Operation.SINGLE, Index.TAG, Index.CHANNEL);
+    assertEquals(1, changeTracker.version(Index.TAG));
+    assertEquals(1, changeTracker.version(Index.CHANNEL));
+    assertEquals(1, changes.get());
+
+    indexRefresher.refresh(Index.values());
+    verify(client, never()).indices();
+  }
+
+  @Test
+  void unrefreshedWrites_becomeVisibleWithOneRefresh() throws IOException {
+    when(client.indices()).thenReturn(indicesClient);
+    when(esService.getES_CHANNEL_INDEX()).thenReturn("channelfinder");
+
+    indexRefresher.written(Operation.BULK, Index.CHANNEL);
+    indexRefresher.written(Operation.BULK, Index.CHANNEL);
+    assertEquals(0, changeTracker.version(Index.CHANNEL));
+
+    indexRefresher.refreshPending();
+    indexRefresher.refreshPending();
+    assertEquals(2, changeTracker.version(Index.CHANNEL));
+    verify(indicesClient, times(1)).refresh(any(RefreshRequest.class));
+  }
+
+  @Test
+  void token_waitsOnlyForItsWrites() throws IOException {
+    when(client.indices()).thenReturn(indicesClient);
+    when(esService.getES_CHANNEL_INDEX()).thenReturn("channelfinder");
+
+    indexRefresher.written(Operation.SINGLE, Index.PROPERTY);
+    indexRefresher.await(indexRefresher.token());
+    verify(client, never()).indices();
+
+    indexRefresher.written(Operation.BULK, Index.CHANNEL);
+    String token = indexRefresher.token();
+    indexRefresher.await(token);
+    assertEquals(1, changeTracker.version(Index.CHANNEL));
+    indexRefresher.await(token);
+    verify(indicesClient, times(1)).refresh(any(RefreshRequest.class));
+  }
+
+  @Test
+  void tokens_areValidated() {
+    assertThrows(ChannelValidationException.class, () -> indexRefresher.await("1.2"));
+    assertThrows(ChannelValidationException.class, () -> indexRefresher.await("a.b.c.x"));
+    // writes of another run of the service
+    indexRefresher.written(Operation.BULK, Index.CHANNEL);
+    indexRefresher.await("1.5.0.0");
+    assertEquals(0, changeTracker.version(Index.CHANNEL));
+  }
+}
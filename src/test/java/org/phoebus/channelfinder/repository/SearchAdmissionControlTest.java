@@ -0,0 +1,138 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.phoebus.channelfinder.QueryParameters.params;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.exceptions.SearchRejectedException;
+import org.phoebus.channelfinder.exceptions.SearchTooExpensiveException;
+import org.phoebus.channelfinder.repository.SearchAdmissionControl.CostClass;
+import org.phoebus.channelfinder.repository.SearchAdmissionControl.Permit;
+import org.springframework.util.MultiValueMap;
+
+class SearchAdmissionControlTest {
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private SearchAdmissionControl admissionControl(int maxCost, int heavyConcurrent) {
+    return new SearchAdmissionControl(
+        true,
+        maxCost,
+        10,
+        30,
+        8,
+        4,
+        heavyConcurrent,
+        0,
+        new ChannelQueryCompiler(true, false, false, true),
+        meterRegistry);
+  }
+
+  @Test
+  void cost_countsWildcardsNestedClausesAndSize() {
+    SearchAdmissionControl control = admissionControl(200, 1);
+
+    assertEquals(1, control.cost(params("~name", "SR:C01"), 0));
+    assertEquals(10, control.cost(params("~name", "*RB"), 0));
+    // exact property on propkv, tag is always nested
+    assertEquals(1, control.cost(params("cell", "001"), 0));
+    assertEquals(3, control.cost(params("~tag", "group1"), 0));
+    // a leading and an inner wildcard property pattern, each nested
+    assertEquals(16, control.cost(params("type", "*back|set*nt"), 0));
+    assertEquals(9, control.cost(params("~name", "SR*", "~track_total_hits", "true"), 7500));
+  }
+
+  @Test
+  void cost_countsPageDepth() {
+    SearchAdmissionControl control = admissionControl(200, 1);
+
+    assertEquals(5, control.cost(params("~name", "SR:C01", "~from", "10000"), 100));
+    assertEquals(2, control.cost(params("~name", "SR:C01", "~search_after", "cursor"), 100));
+    // counts have no pages
+    assertEquals(1, control.cost(params("~name", "SR:C01", "~from", "10000"), 0));
+  }
+
+  @Test
+  void acquire_limitsEachSearchOfMultiSearches() {
+    SearchAdmissionControl control = admissionControl(20, 1);
+
+    control
+        .acquire(
+            List.of(params("~name", "*a*"), params("~name", "*b*"), params("~name", "*c*")),
+            List.of(10, 10, 10))
+        .close();
+    assertThrows(
+        SearchTooExpensiveException.class,
+        () ->
+            control.acquire(
+                List.of(params("~name", "*a*"), params("~name", "*a*", "~tag", "*b*")),
+                List.of(10, 10000)));
+  }
+
+  @Test
+  void acquire_admitsLargeMultiSearchesAsHeavy() {
+    SearchAdmissionControl control = admissionControl(200, 1);
+    List<MultiValueMap<String, String>> searches =
+        Collections.nCopies(1000, params("~name", "SR:C01*"));
+
+    try (Permit permit = control.acquire(searches, Collections.nCopies(1000, 10000))) {
+      // the heavy slot is held by the multi search
+      assertThrows(
+          SearchRejectedException.class,
+          () -> control.acquire(params("~name", "*a*", "~tag", "*b*"), 20000));
+    }
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get(SearchAdmissionControl.CF_SEARCH_ADMISSION)
+            .tag("class", "heavy")
+            .tag("result", "admitted")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void classify_byThresholds() {
+    SearchAdmissionControl control = admissionControl(200, 1);
+
+    assertEquals(CostClass.LIGHT, control.classify(9));
+    assertEquals(CostClass.MEDIUM, control.classify(10));
+    assertEquals(CostClass.HEAVY, control.classify(30));
+  }
+
+  @Test
+  void acquire_rejectsExpensiveSearches() {
+    SearchAdmissionControl control = admissionControl(20, 1);
+
+    assertThrows(
+        SearchTooExpensiveException.class,
+        () -> control.acquire(params("~name", "*a*", "~tag", "*b*"), 10000));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get(SearchAdmissionControl.CF_SEARCH_ADMISSION)
+            .tag("result", "rejected_cost")
+            .counter()
+            .count());
+  }
+
+  @Test
+  void acquire_rejectsWhenClassIsBusy() {
+    SearchAdmissionControl control = admissionControl(0, 1);
+    MultiValueMap<String, String> heavy = params("~name", "*a*", "~tag", "*b*");
+
+    try (Permit permit = control.acquire(heavy, 20000)) {
+      SearchRejectedException e =
+          assertThrows(SearchRejectedException.class, () -> control.acquire(heavy, 20000));
+      assertEquals(1, e.getRetryAfterSeconds());
+      // other classes are not affected
+      control.acquire(params("~name", "SR"), 0).close();
+    }
+    control.acquire(heavy, 20000).close();
+  }
+}
@@ -0,0 +1,43 @@
+package org.phoebus.channelfinder.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class SearchCursorTest {
+
+  @Test
+  void encodedCursor_roundTrips() {
+    SearchCursor cursor =
+        new SearchCursor("pit+id/==", List.of(FieldValue.of("SR:C01{PS}I-SP"), FieldValue.of(42L)));
+
+    String encoded = cursor.encode();
+    SearchCursor decoded = SearchCursor.decode(encoded).orElseThrow();
+
+    assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+    assertEquals("pit+id/==", decoded.pitId());
+    assertEquals("SR:C01{PS}I-SP", decoded.searchAfter().get(0).stringValue());
+    assertEquals(42L, decoded.searchAfter().get(1).longValue());
+  }
+
+  @Test
+  void cursorWithoutPit_roundTrips() {
+    SearchCursor decoded =
+        SearchCursor.decode(new SearchCursor(null, List.of(FieldValue.of("SR:1"))).encode())
+            .orElseThrow();
+
+    assertNull(decoded.pitId());
+    assertEquals(1, decoded.searchAfter().size());
+  }
+
+  @Test
+  void channelNames_areNotCursors() {
+    for (String scrollId : new String[] {"SR:C01-MG{PS:1}I-SP", "abcd", "e30", "", null}) {
+      assertTrue(SearchCursor.decode(scrollId).isEmpty(), String.valueOf(scrollId));
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package org.phoebus.channelfinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.phoebus.channelfinder.common.WaitParamUtil;
+import org.phoebus.channelfinder.entity.AsyncSearchResult;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.exceptions.AsyncSearchNotFoundException;
+import org.phoebus.channelfinder.exceptions.ChannelValidationException;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@ExtendWith(MockitoExtension.class)
+class ChannelAsyncSearchServiceTest {
+
+  @Mock private ChannelRepository channelRepository;
+
+  private ChannelAsyncSearchService service() {
+    return new ChannelAsyncSearchService(channelRepository, "1h", 1, 20);
+  }
+
+  private static MultiValueMap<String, String> params(String wait) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("~name", "SR*");
+    if (wait != null) {
+      params.add(WaitParamUtil.WAIT_PARAMETER, wait);
+    }
+    return params;
+  }
+
+  @Test
+  void submit_stripsWaitAndCapsIt() {
+    AsyncSearchResult result =
+        new AsyncSearchResult("id", true, true, new SearchResult(List.of(), 0));
+    when(channelRepository.submitAsyncSearch(any(), eq("20s"), eq("1h"))).thenReturn(result);
+
+    assertSame(result, service().submit(params("60")));
+    verify(channelRepository)
+        .submitAsyncSearch(
+            argThat(p -> !p.containsKey(WaitParamUtil.WAIT_PARAMETER)), eq("20s"), eq("1h"));
+  }
+
+  @Test
+  void submit_invalidWait_isRejected() {
+    assertThrows(ChannelValidationException.class, () -> service().submit(params("soon")));
+    assertThrows(ChannelValidationException.class, () -> service().submit(params("-1")));
+    verifyNoInteractions(channelRepository);
+  }
+
+  @Test
+  void get_unknownId_isNotFound() {
+    when(channelRepository.getAsyncSearch(eq("gone"), any(), eq("1s")))
+        .thenReturn(Optional.empty());
+
+    assertThrows(AsyncSearchNotFoundException.class, () -> service().get("gone", params(null)));
+  }
+}
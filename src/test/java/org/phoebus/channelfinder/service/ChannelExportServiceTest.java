@@ -0,0 +1,70 @@
+package org.phoebus.channelfinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+@ExtendWith(MockitoExtension.class)
+class ChannelExportServiceTest {
+
+  @Mock private ChannelRepository channelRepository;
+
+  private ChannelExportService exportService;
+
+  @AfterEach
+  void tearDown() {
+    exportService.shutdownExecutor();
+  }
+
+  private static MultiValueMap<String, String> params() {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("~name", "SR*");
+    params.add(ChannelExportService.SLICES_PARAMETER, "4");
+    params.add(ChannelExportService.COMPRESS_PARAMETER, "gzip");
+    return params;
+  }
+
+  @Test
+  void export_withoutSlices_usesShardCount() {
+    exportService = new ChannelExportService(channelRepository, 0, 2, 100);
+    when(channelRepository.shardCount()).thenReturn(3);
+    when(channelRepository.export(any(), eq(3), eq(100), any(), any())).thenReturn(42L);
+
+    assertEquals(42L, exportService.export(params(), null, page -> {}));
+  }
+
+  @Test
+  void export_requestedSlices_overrideDefault() {
+    exportService = new ChannelExportService(channelRepository, 2, 2, 100);
+
+    exportService.export(params(), 6, page -> {});
+
+    verify(channelRepository).export(any(), eq(6), anyInt(), any(), any());
+    verify(channelRepository, never()).shardCount();
+  }
+
+  @Test
+  void export_passesOnlyFilterParameters() {
+    exportService = new ChannelExportService(channelRepository, 2, 2, 100);
+
+    exportService.export(params(), null, page -> {});
+
+    verify(channelRepository)
+        .export(
+            argThat(p -> p.size() == 1 && p.containsKey("~name")), eq(2), anyInt(), any(), any());
+  }
+}
@@ -2,10 +2,14 @@ package org.phoebus.channelfinder.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -16,15 +20,21 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelWriteStatus;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.exceptions.ChannelValidationException;
 import org.phoebus.channelfinder.exceptions.PropertyNotFoundException;
+import org.phoebus.channelfinder.exceptions.RepositoryException;
 import org.phoebus.channelfinder.exceptions.TagNotFoundException;
+import org.phoebus.channelfinder.exceptions.UnauthorizedException;
+import org.phoebus.channelfinder.exceptions.VersionConflictException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
+import org.phoebus.channelfinder.repository.OptimisticWrites;
 import org.phoebus.channelfinder.repository.PropertyRepository;
 import org.phoebus.channelfinder.repository.TagRepository;
 import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
@@ -37,6 +47,7 @@ class ChannelServiceTest {
   @Mock private PropertyRepository propertyRepository;
   @Mock private AuthorizationService authorizationService;
   @Mock private ChannelProcessorService channelProcessorService;
+  @Mock private SearchCoalescer searchCoalescer;
 
   private ChannelService channelService;
 
@@ -48,7 +59,8 @@ class ChannelServiceTest {
             tagRepository,
             propertyRepository,
             authorizationService,
-            channelProcessorService);
+            channelProcessorService,
+            searchCoalescer);
     when(authorizationService.isAuthorizedRole(any(), eq(ROLES.CF_CHANNEL))).thenReturn(true);
   }
 
@@ -124,7 +136,7 @@ class ChannelServiceTest {
     Channel channel = new Channel("ch", "owner");
     when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
     when(channelRepository.findById("ch")).thenReturn(Optional.empty());
-    when(channelRepository.index(any())).thenReturn(channel);
+    when(channelRepository.createOrReplace(any())).thenReturn(channel);
     when(propertyRepository.findAll()).thenReturn(List.of());
     when(tagRepository.findAll()).thenReturn(List.of());
 
@@ -138,13 +150,235 @@ class ChannelServiceTest {
     Channel channel = new Channel("ch", "owner", List.of(prop), List.of(tag));
     when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
     when(channelRepository.findById("ch")).thenReturn(Optional.empty());
-    when(channelRepository.index(any())).thenReturn(channel);
+    when(channelRepository.createOrReplace(any())).thenReturn(channel);
     when(propertyRepository.findAll()).thenReturn(List.of(prop));
     when(tagRepository.findAll()).thenReturn(List.of(tag));
 
     assertDoesNotThrow(() -> channelService.create("ch", channel));
   }
 
+  @Test
+  void createChannel_createdConcurrently_replacedOnFreshRead() {
+    Channel channel = new Channel("ch", "owner");
+    Channel concurrent = new Channel("ch", "owner");
+    concurrent.setSeqNoAndPrimaryTerm(3L, 1L);
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(channelRepository.findById("ch"))
+        .thenReturn(Optional.empty())
+        .thenReturn(Optional.of(concurrent));
+    when(channelRepository.createOrReplace(channel))
+        .thenThrow(new VersionConflictException("Channel ch was created or modified concurrently"))
+        .thenReturn(channel);
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+
+    channelService.create("ch", channel);
+
+    assertEquals(3L, channel.getSeqNo());
+    verify(channelRepository, times(2)).createOrReplace(channel);
+  }
+
+  @Test
+  void createChannel_createdConcurrentlyOnEveryRetry_failsWithConflict() {
+    Channel channel = new Channel("ch", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(channelRepository.findById("ch")).thenReturn(Optional.empty());
+    when(channelRepository.createOrReplace(channel))
+        .thenThrow(new VersionConflictException("Channel ch was created or modified concurrently"));
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+
+    assertThrows(VersionConflictException.class, () -> channelService.create("ch", channel));
+    assertNull(channel.getSeqNo());
+  }
+
+  @Test
+  void createMultipleChannels_existingChannel_replacedIfUnmodifiedInSingleBulk() {
+    Channel existing = new Channel("ch1", "owner");
+    existing.setSeqNoAndPrimaryTerm(7L, 1L);
+    Channel replacement = new Channel("ch1", "other");
+    Channel created = new Channel("ch2", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(channelRepository.findAllById(any())).thenReturn(List.of(existing));
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.replaceAll(List.of(replacement, created)))
+        .thenReturn(
+            List.of(
+                new ChannelWriteStatus(replacement, 200, null),
+                new ChannelWriteStatus(created, 201, null)));
+
+    List<ChannelWriteStatus> statuses =
+        channelService.createWithStatus(List.of(replacement, created));
+
+    assertEquals(List.of(200, 201), statuses.stream().map(ChannelWriteStatus::status).toList());
+    assertEquals("owner", replacement.getOwner());
+    assertEquals(7L, replacement.getSeqNo());
+    assertEquals(1L, replacement.getPrimaryTerm());
+    assertNull(created.getSeqNo());
+    verify(channelRepository, never()).deleteAll(any());
+    verify(channelProcessorService).sendToProcessors(List.of(replacement, created));
+  }
+
+  @Test
+  void createMultipleChannels_conflict_retriedOnFreshRead() {
+    Channel existing = new Channel("ch1", "owner");
+    existing.setSeqNoAndPrimaryTerm(7L, 1L);
+    Channel modified = new Channel("ch1", "owner");
+    modified.setSeqNoAndPrimaryTerm(8L, 1L);
+    Channel replacement = new Channel("ch1", "owner");
+    Channel created = new Channel("ch2", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(channelRepository.findAllById(any()))
+        .thenReturn(List.of(existing))
+        .thenReturn(List.of(modified));
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.replaceAll(List.of(replacement, created)))
+        .thenReturn(
+            List.of(
+                new ChannelWriteStatus(replacement, 409, "version conflict"),
+                new ChannelWriteStatus(created, 201, null)));
+    when(channelRepository.replaceAll(List.of(replacement)))
+        .thenReturn(List.of(new ChannelWriteStatus(replacement, 200, null)));
+
+    List<ChannelWriteStatus> statuses =
+        channelService.createWithStatus(List.of(replacement, created));
+
+    assertEquals(List.of(200, 201), statuses.stream().map(ChannelWriteStatus::status).toList());
+    assertEquals(8L, replacement.getSeqNo());
+    verify(channelProcessorService).sendToProcessors(List.of(replacement, created));
+  }
+
+  @Test
+  void createMultipleChannels_failedChannel_failsWithItsName() {
+    Channel failing = new Channel("ch1", "owner");
+    Channel created = new Channel("ch2", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(channelRepository.findAllById(any())).thenReturn(List.of());
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.replaceAll(List.of(failing, created)))
+        .thenReturn(
+            List.of(
+                new ChannelWriteStatus(failing, 400, "mapper_parsing_exception"),
+                new ChannelWriteStatus(created, 201, null)));
+
+    RepositoryException e =
+        assertThrows(
+            RepositoryException.class, () -> channelService.create(List.of(failing, created)));
+
+    assertTrue(e.getMessage().contains("ch1 (mapper_parsing_exception)"), e.getMessage());
+    assertFalse(e.getMessage().contains("ch2"), e.getMessage());
+    verify(channelProcessorService).sendToProcessors(List.of(created));
+  }
+
+  @Test
+  void createMultipleChannels_conflictingChannel_failsWithConflict() {
+    Channel conflicting = new Channel("ch1", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(channelRepository.findAllById(any())).thenReturn(List.of());
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.replaceAll(List.of(conflicting)))
+        .thenReturn(List.of(new ChannelWriteStatus(conflicting, 409, "version conflict")));
+
+    assertThrows(VersionConflictException.class, () -> channelService.create(List.of(conflicting)));
+    verify(channelRepository, times(OptimisticWrites.RETRY_ON_CONFLICT + 1))
+        .replaceAll(List.of(conflicting));
+  }
+
+  @Test
+  void updateChannel_conflict_mergedAgainIntoFreshRead() {
+    Tag tag = new Tag("tag1", "owner");
+    Channel channel = new Channel("ch", "owner", List.of(), List.of(tag));
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of(tag));
+    when(channelRepository.findById("ch"))
+        .thenReturn(Optional.of(new Channel("ch", "owner")))
+        .thenReturn(Optional.of(new Channel("ch", "owner")));
+    when(channelRepository.createOrReplace(any(Channel.class)))
+        .thenThrow(new VersionConflictException("ch"))
+        .thenReturn(channel);
+
+    assertEquals(channel, channelService.update("ch", channel));
+    verify(channelRepository, times(2)).findById("ch");
+  }
+
+  @Test
+  void updateChannel_absent_onlyCreatedIfStillAbsent() {
+    Channel channel = new Channel("ch", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.findById("ch")).thenReturn(Optional.empty());
+    when(channelRepository.createOrReplace(channel)).thenReturn(channel);
+
+    channelService.update("ch", channel);
+
+    assertNull(channel.getSeqNo());
+    verify(channelRepository).createOrReplace(channel);
+    verify(channelRepository, never()).save(any(Channel.class));
+  }
+
+  @Test
+  void updateChannel_renamed_oldNameRemovedAfterWrite() {
+    Channel existing = new Channel("old", "owner");
+    existing.setSeqNoAndPrimaryTerm(4L, 1L);
+    Channel target = new Channel("new", "owner");
+    target.setSeqNoAndPrimaryTerm(9L, 2L);
+    Channel channel = new Channel("new", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.findById("old")).thenReturn(Optional.of(existing));
+    when(channelRepository.findById("new")).thenReturn(Optional.of(target));
+    when(channelRepository.createOrReplace(existing)).thenReturn(existing);
+
+    channelService.update("old", channel);
+
+    assertEquals("new", existing.getName());
+    assertEquals(9L, existing.getSeqNo());
+    assertEquals(2L, existing.getPrimaryTerm());
+    InOrder inOrder = inOrder(channelRepository);
+    inOrder.verify(channelRepository).createOrReplace(existing);
+    inOrder.verify(channelRepository).deleteById("old");
+  }
+
+  @Test
+  void updateChannel_renamedOntoChannelOfOtherOwner_fails() {
+    Channel existing = new Channel("old", "owner");
+    Channel target = new Channel("new", "other");
+    Channel channel = new Channel("new", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class)))
+        .thenAnswer(invocation -> "owner".equals(invocation.<Channel>getArgument(1).getOwner()));
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.findById("old")).thenReturn(Optional.of(existing));
+    when(channelRepository.findById("new")).thenReturn(Optional.of(target));
+
+    assertThrows(UnauthorizedException.class, () -> channelService.update("old", channel));
+    verify(channelRepository, never()).createOrReplace(any());
+    verify(channelRepository, never()).deleteById(anyString());
+  }
+
+  @Test
+  void updateChannel_renamedWriteFails_oldNameKept() {
+    Channel existing = new Channel("old", "owner");
+    Channel channel = new Channel("new", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
+    when(propertyRepository.findAll()).thenReturn(List.of());
+    when(tagRepository.findAll()).thenReturn(List.of());
+    when(channelRepository.findById("old")).thenReturn(Optional.of(existing));
+    when(channelRepository.findById("new")).thenReturn(Optional.empty());
+    when(channelRepository.createOrReplace(existing)).thenThrow(new RepositoryException("failed"));
+
+    assertThrows(RepositoryException.class, () -> channelService.update("old", channel));
+    assertNull(existing.getSeqNo());
+    verify(channelRepository, never()).deleteById(anyString());
+  }
+
   @Test
   void removeMultipleChannels_validChannels_returnsDeletedCount() {
     when(authorizationService.isAuthorizedOwner(any(), any(Channel.class))).thenReturn(true);
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -16,6 +18,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.phoebus.channelfinder.entity.Channel;
 import org.phoebus.channelfinder.entity.Property;
 import org.phoebus.channelfinder.exceptions.PropertyValidationException;
+import org.phoebus.channelfinder.exceptions.UnauthorizedException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
 import org.phoebus.channelfinder.repository.PropertyRepository;
 import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
@@ -26,13 +29,15 @@ class PropertyServiceTest {
   @Mock private PropertyRepository propertyRepository;
   @Mock private ChannelRepository channelRepository;
   @Mock private AuthorizationService authorizationService;
+  @Mock private ChannelTaskService channelTaskService;
 
   private PropertyService propertyService;
 
   @BeforeEach
   void setUp() {
     propertyService =
-        new PropertyService(propertyRepository, channelRepository, authorizationService);
+        new PropertyService(
+            propertyRepository, channelRepository, authorizationService, channelTaskService);
     when(authorizationService.isAuthorizedRole(any(), eq(ROLES.CF_PROPERTY))).thenReturn(true);
   }
 
@@ -137,4 +142,33 @@ class PropertyServiceTest {
 
     assertDoesNotThrow(() -> propertyService.create("prop1", property));
   }
+
+  @Test
+  void renameProperty_ontoPropertyOfOtherOwner_fails() {
+    Property existing = new Property("prop1", "owner");
+    Property target = new Property("prop2", "other");
+    when(authorizationService.isAuthorizedOwner(any(), any(Property.class)))
+        .thenAnswer(invocation -> "owner".equals(invocation.<Property>getArgument(1).getOwner()));
+    when(propertyRepository.findById("prop1")).thenReturn(Optional.of(existing));
+    when(propertyRepository.findById("prop2")).thenReturn(Optional.of(target));
+
+    assertThrows(
+        UnauthorizedException.class,
+        () -> propertyService.rename("prop1", new Property("prop2", "owner"), null));
+    verify(propertyRepository, never()).createOrReplace(any());
+    verify(propertyRepository, never()).rename(any(), any(), any());
+  }
+
+  @Test
+  void updateProperty_absent_onlyCreatedIfStillAbsent() {
+    Property property = new Property("prop1", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Property.class))).thenReturn(true);
+    when(propertyRepository.findById("prop1")).thenReturn(Optional.empty());
+    when(propertyRepository.createOrReplace(property)).thenReturn(property);
+
+    propertyService.update("prop1", property);
+
+    verify(propertyRepository).createOrReplace(property);
+    verify(propertyRepository, never()).save(any());
+  }
 }
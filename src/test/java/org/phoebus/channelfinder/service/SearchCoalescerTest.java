@@ -0,0 +1,154 @@
+package org.phoebus.channelfinder.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.SearchResult;
+import org.phoebus.channelfinder.exceptions.RepositoryException;
+import org.phoebus.channelfinder.repository.ChannelSearchCache;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+
+class SearchCoalescerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ChannelSearchCache searchCache =
+      new ChannelSearchCache(false, 0, 0, new SimpleMeterRegistry());
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  private static MultiValueMap<String, String> params(String name) {
+    MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+    params.add("~name", name);
+    return params;
+  }
+
+  private double count(String result) {
+    return meterRegistry
+        .get(SearchCoalescer.CF_SEARCH_REQUESTS)
+        .tag("result", result)
+        .counter()
+        .count();
+  }
+
+  @Test
+  void concurrentIdenticalSearches_shareOneCall() throws Exception {
+    SearchCoalescer coalescer = new SearchCoalescer(true, searchCache, meterRegistry);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    SearchResult expected =
+        new SearchResult(
+            List.of(
+                new Channel(
+                    "SR:1",
+                    "owner",
+                    new ArrayList<>(List.of(new Property("cell", "owner", "1"))),
+                    new ArrayList<>())),
+            1);
+
+    Future<SearchResult> leader =
+        executor.submit(
+            () ->
+                coalescer.search(
+                    params("SR*"),
+                    () -> {
+                      calls.incrementAndGet();
+                      started.countDown();
+                      awaitQuietly(release);
+                      return expected;
+                    }));
+    started.await(5, TimeUnit.SECONDS);
+
+    List<Future<SearchResult>> followers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      followers.add(
+          executor.submit(
+              () ->
+                  coalescer.search(
+                      params(" SR*"),
+                      () -> {
+                        calls.incrementAndGet();
+                        return new SearchResult(List.of(), 0);
+                      })));
+    }
+    while (count("coalesced") < 3) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+
+    assertSame(expected, leader.get(5, TimeUnit.SECONDS));
+    // the leader modifying its result does not leak into the results of the followers
+    expected.channels().get(0).getProperties().get(0).setValue("2");
+    List<Channel> followerChannels = new ArrayList<>();
+    for (Future<SearchResult> follower : followers) {
+      SearchResult result = follower.get(5, TimeUnit.SECONDS);
+      assertEquals(1, result.count());
+      assertEquals("SR:1", result.channels().get(0).getName());
+      assertEquals("1", result.channels().get(0).getProperties().get(0).getValue());
+      followerChannels.add(result.channels().get(0));
+    }
+    assertNotSame(followerChannels.get(0), followerChannels.get(1));
+    assertNotSame(
+        followerChannels.get(0).getProperties().get(0),
+        followerChannels.get(1).getProperties().get(0));
+    assertEquals(1, calls.get());
+    assertEquals(1.0, count("executed"));
+    assertEquals(3.0, count("coalesced"));
+  }
+
+  @Test
+  void completedSearches_areNotReused() {
+    SearchCoalescer coalescer = new SearchCoalescer(true, searchCache, meterRegistry);
+    AtomicInteger calls = new AtomicInteger();
+
+    coalescer.search(params("SR*"), () -> new SearchResult(List.of(), calls.incrementAndGet()));
+    SearchResult second =
+        coalescer.search(params("SR*"), () -> new SearchResult(List.of(), calls.incrementAndGet()));
+
+    assertEquals(2, second.count());
+    assertEquals(0.0, count("coalesced"));
+  }
+
+  @Test
+  void failures_propagate() {
+    SearchCoalescer coalescer = new SearchCoalescer(true, searchCache, meterRegistry);
+
+    assertThrows(
+        RepositoryException.class,
+        () ->
+            coalescer.search(
+                params("SR*"),
+                () -> {
+                  throw new RepositoryException("failed");
+                }));
+    assertEquals(1, coalescer.search(params("SR*"), () -> new SearchResult(List.of(), 1)).count());
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,9 +1,13 @@
 package org.phoebus.channelfinder.service;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -11,12 +15,16 @@ import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelTask;
+import org.phoebus.channelfinder.entity.ChannelTask.Subject;
 import org.phoebus.channelfinder.entity.Tag;
 import org.phoebus.channelfinder.exceptions.ChannelNotFoundException;
 import org.phoebus.channelfinder.exceptions.TagValidationException;
+import org.phoebus.channelfinder.exceptions.UnauthorizedException;
 import org.phoebus.channelfinder.repository.ChannelRepository;
 import org.phoebus.channelfinder.repository.TagRepository;
 import org.phoebus.channelfinder.service.AuthorizationService.ROLES;
@@ -27,12 +35,14 @@ class TagServiceTest {
   @Mock private TagRepository tagRepository;
   @Mock private ChannelRepository channelRepository;
   @Mock private AuthorizationService authorizationService;
+  @Mock private ChannelTaskService channelTaskService;
 
   private TagService tagService;
 
   @BeforeEach
   void setUp() {
-    tagService = new TagService(tagRepository, channelRepository, authorizationService);
+    tagService =
+        new TagService(tagRepository, channelRepository, authorizationService, channelTaskService);
     when(authorizationService.isAuthorizedRole(any(), eq(ROLES.CF_TAG))).thenReturn(true);
   }
 
@@ -96,4 +106,86 @@ class TagServiceTest {
 
     assertDoesNotThrow(() -> tagService.create("tag1", tag));
   }
+
+  @Test
+  void updateTag_newName_renamesTagInAllChannels() {
+    Tag existing = new Tag("tag1", "owner");
+    Tag renamed = new Tag("tag2", "owner");
+    ChannelTask task =
+        new ChannelTask("node:1", Subject.TAG, true, false, false, 3, 3, 3, 0, List.of());
+    when(authorizationService.isAuthorizedOwner(any(), any(Tag.class))).thenReturn(true);
+    when(tagRepository.findById("tag1")).thenReturn(Optional.of(existing));
+    when(tagRepository.findById("tag2")).thenReturn(Optional.empty());
+    when(tagRepository.createOrReplace(renamed)).thenReturn(renamed);
+    when(channelTaskService.waitFor(null)).thenReturn("10s");
+    when(tagRepository.rename("tag1", renamed, "10s")).thenReturn(task);
+
+    assertEquals(renamed, tagService.update("tag1", new Tag("tag2", "owner")));
+    verify(channelTaskService).await(task);
+    verify(channelRepository, never()).saveAll(any());
+  }
+
+  @Test
+  void updateTag_sameNameAndOwner_leavesChannels() {
+    Tag existing = new Tag("tag1", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Tag.class))).thenReturn(true);
+    when(tagRepository.findById("tag1")).thenReturn(Optional.of(existing));
+    when(tagRepository.createOrReplace(any())).thenReturn(new Tag("tag1", "owner"));
+
+    tagService.update("tag1", new Tag("TAG1", "owner"));
+    verify(tagRepository).createOrReplace(new Tag("tag1", "owner"));
+    verify(tagRepository, never()).rename(any(), any(), any());
+  }
+
+  @Test
+  void updateTag_absent_onlyCreatedIfStillAbsent() {
+    Tag tag = new Tag("tag1", "owner");
+    when(authorizationService.isAuthorizedOwner(any(), any(Tag.class))).thenReturn(true);
+    when(tagRepository.findById("tag1")).thenReturn(Optional.empty());
+    when(tagRepository.createOrReplace(tag)).thenReturn(tag);
+
+    tagService.update("tag1", tag);
+
+    assertNull(tag.getSeqNo());
+    verify(tagRepository, never()).save(any());
+  }
+
+  @Test
+  void renameTag_ontoExistingTag_replacedOnlyIfUnmodified() {
+    Tag existing = new Tag("tag1", "owner");
+    Tag target = new Tag("tag2", "owner");
+    target.setSeqNoAndPrimaryTerm(5L, 1L);
+    Tag renamed = new Tag("tag2", "owner");
+    ChannelTask task =
+        new ChannelTask("node:1", Subject.TAG, true, false, false, 3, 3, 3, 0, List.of());
+    when(authorizationService.isAuthorizedOwner(any(), any(Tag.class))).thenReturn(true);
+    when(tagRepository.findById("tag1")).thenReturn(Optional.of(existing));
+    when(tagRepository.findById("tag2")).thenReturn(Optional.of(target));
+    when(tagRepository.createOrReplace(renamed)).thenReturn(renamed);
+    when(channelTaskService.waitFor("10s")).thenReturn("10s");
+    when(tagRepository.rename("tag1", renamed, "10s")).thenReturn(task);
+
+    assertEquals(task, tagService.rename("tag1", new Tag("tag2", "owner"), "10s"));
+
+    ArgumentCaptor<Tag> written = ArgumentCaptor.forClass(Tag.class);
+    verify(tagRepository).createOrReplace(written.capture());
+    assertEquals(5L, written.getValue().getSeqNo());
+    assertEquals(1L, written.getValue().getPrimaryTerm());
+  }
+
+  @Test
+  void renameTag_ontoTagOfOtherOwner_fails() {
+    Tag existing = new Tag("tag1", "owner");
+    Tag target = new Tag("tag2", "other");
+    when(authorizationService.isAuthorizedOwner(any(), any(Tag.class)))
+        .thenAnswer(invocation -> "owner".equals(invocation.<Tag>getArgument(1).getOwner()));
+    when(tagRepository.findById("tag1")).thenReturn(Optional.of(existing));
+    when(tagRepository.findById("tag2")).thenReturn(Optional.of(target));
+
+    assertThrows(
+        UnauthorizedException.class,
+        () -> tagService.rename("tag1", new Tag("tag2", "owner"), null));
+    verify(tagRepository, never()).createOrReplace(any());
+    verify(tagRepository, never()).rename(any(), any(), any());
+  }
 }
@@ -0,0 +1,93 @@
+package org.phoebus.channelfinder.web.v0;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.repository.IndexChangeTracker;
+import org.phoebus.channelfinder.repository.IndexChangeTracker.Index;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ConditionalGetInterceptorTest {
+
+  private static final String CHANNELS = "/ChannelFinder/resources/channels";
+
+  private final IndexChangeTracker changeTracker = new IndexChangeTracker();
+  private final ConditionalGetInterceptor interceptor =
+      new ConditionalGetInterceptor(changeTracker, Index.TAG, Index.CHANNEL);
+
+  private static MockHttpServletRequest get(String... parameters) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", CHANNELS);
+    for (int i = 0; i < parameters.length; i += 2) {
+      request.addParameter(parameters[i], parameters[i + 1]);
+    }
+    return request;
+  }
+
+  private String etag(MockHttpServletRequest request) {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(interceptor.preHandle(request, response, null));
+    assertEquals(200, response.getStatus());
+    return response.getHeader(HttpHeaders.ETAG);
+  }
+
+  @Test
+  void matchingIfNoneMatch_isNotModified() {
+    String etag = etag(get("~name", "SR*"));
+    assertTrue(etag.startsWith("W/\""));
+
+    MockHttpServletRequest request = get("~name", "SR*");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertFalse(interceptor.preHandle(request, response, null));
+    assertEquals(304, response.getStatus());
+    assertEquals(etag, response.getHeader(HttpHeaders.ETAG));
+  }
+
+  @Test
+  void etag_followsQueryAndIndexVersions() {
+    String etag = etag(get("~name", "SR*", "~tag", "active"));
+    assertEquals(etag, etag(get("~tag", "active", "~name", "SR*")), "parameter order");
+    assertNotEquals(etag, etag(get("~name", "SR*")));
+
+    MockHttpServletRequest ndjson = get("~name", "SR*", "~tag", "active");
+    ndjson.addHeader(HttpHeaders.ACCEPT, "application/x-ndjson");
+    assertNotEquals(etag, etag(ndjson), "media type");
+
+    changeTracker.changed(Index.PROPERTY);
+    assertEquals(etag, etag(get("~name", "SR*", "~tag", "active")), "unrelated index");
+    changeTracker.changed(Index.CHANNEL);
+    assertNotEquals(etag, etag(get("~name", "SR*", "~tag", "active")));
+  }
+
+  @Test
+  void sortOrder_changesEtag() {
+    MockHttpServletRequest byOwner = get("~sort", "owner");
+    byOwner.addParameter("~sort", "name");
+    MockHttpServletRequest byName = get("~sort", "name");
+    byName.addParameter("~sort", "owner");
+    assertNotEquals(etag(byOwner), etag(byName));
+  }
+
+  @Test
+  void staleIfNoneMatch_isHandled() {
+    MockHttpServletRequest request = get("~name", "SR*");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, etag(get("~name", "SR*")));
+    changeTracker.changed(Index.TAG);
+    assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), null));
+  }
+
+  @Test
+  void writes_areNotIntercepted() {
+    MockHttpServletRequest request = new MockHttpServletRequest("PUT", CHANNELS + "/SR:1");
+    request.addHeader(HttpHeaders.IF_NONE_MATCH, "*");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    assertTrue(interceptor.preHandle(request, response, null));
+    assertNull(response.getHeader(HttpHeaders.ETAG));
+  }
+}
@@ -0,0 +1,96 @@
+package org.phoebus.channelfinder.web.v0.arrow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelFieldNames;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+/** Reads the written stream back with the Arrow Java reader. */
+class ChannelArrowStreamReaderTest {
+
+  private static Channel channel(String name, List<Property> properties, List<Tag> tags) {
+    return new Channel(name, "owner", new ArrayList<>(properties), new ArrayList<>(tags));
+  }
+
+  @Test
+  void stream_isReadByArrow() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ChannelArrowWriter writer =
+        new ChannelArrowWriter(
+            out, new ChannelFieldNames(List.of("name", "cell"), List.of("owner", "cell")));
+    writer.begin();
+    writer.write(
+        List.of(
+            channel(
+                "SR:1",
+                List.of(new Property("name", "owner", "n1"), new Property("cell", "owner", "1")),
+                List.of(new Tag("cell", "owner"))),
+            channel("SR:2", List.of(new Property("cell", "owner", "2")), List.of())));
+    writer.write(List.of(channel("SR:é", List.of(), List.of(new Tag("owner", "owner")))));
+    writer.end();
+
+    try (BufferAllocator allocator = new RootAllocator();
+        ArrowStreamReader reader =
+            new ArrowStreamReader(new ByteArrayInputStream(out.toByteArray()), allocator)) {
+      VectorSchemaRoot root = reader.getVectorSchemaRoot();
+      List<Field> fields = root.getSchema().getFields();
+      assertEquals(
+          List.of("name", "owner", "property.name", "property.cell", "tag.owner", "tag.cell"),
+          fields.stream().map(Field::getName).toList());
+      for (Field field : fields.subList(0, 4)) {
+        assertEquals(ArrowType.Utf8.INSTANCE, field.getType(), field.getName());
+      }
+      for (Field field : fields.subList(4, 6)) {
+        assertEquals(ArrowType.Bool.INSTANCE, field.getType(), field.getName());
+        assertFalse(field.isNullable(), field.getName());
+      }
+      assertFalse(fields.get(0).isNullable());
+      assertTrue(fields.get(2).isNullable());
+
+      assertTrue(reader.loadNextBatch());
+      assertEquals(2, root.getRowCount());
+      VarCharVector names = (VarCharVector) root.getVector("name");
+      VarCharVector propertyNames = (VarCharVector) root.getVector("property.name");
+      VarCharVector cells = (VarCharVector) root.getVector("property.cell");
+      BitVector cellTags = (BitVector) root.getVector("tag.cell");
+      BitVector ownerTags = (BitVector) root.getVector("tag.owner");
+      assertEquals("SR:1", names.getObject(0).toString());
+      assertEquals("SR:2", names.getObject(1).toString());
+      assertEquals("owner", root.getVector("owner").getObject(0).toString());
+      assertEquals("n1", propertyNames.getObject(0).toString());
+      assertTrue(propertyNames.isNull(1));
+      assertEquals("1", cells.getObject(0).toString());
+      assertEquals("2", cells.getObject(1).toString());
+      assertEquals(1, cellTags.get(0));
+      assertEquals(0, cellTags.get(1));
+      assertEquals(0, ownerTags.get(0));
+
+      assertTrue(reader.loadNextBatch());
+      assertEquals(1, root.getRowCount());
+      assertEquals("SR:é", names.getObject(0).toString());
+      assertTrue(cells.isNull(0));
+      assertEquals(1, ownerTags.get(0));
+      assertEquals(0, cellTags.get(0));
+
+      assertFalse(reader.loadNextBatch());
+    }
+  }
+}
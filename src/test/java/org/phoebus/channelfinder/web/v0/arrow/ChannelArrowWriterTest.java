@@ -0,0 +1,251 @@
+package org.phoebus.channelfinder.web.v0.arrow;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.phoebus.channelfinder.entity.Channel;
+import org.phoebus.channelfinder.entity.ChannelFieldNames;
+import org.phoebus.channelfinder.entity.Property;
+import org.phoebus.channelfinder.entity.Tag;
+
+/**
+ * Decodes the written stream following the Arrow IPC and flatbuffer specifications, independently
+ * of the encoder.
+ */
+class ChannelArrowWriterTest {
+
+  private static Channel channel(String name, List<Property> properties, List<Tag> tags) {
+    return new Channel(name, "owner", new ArrayList<>(properties), new ArrayList<>(tags));
+  }
+
+  @Test
+  void channels_arePivotedIntoColumns() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ChannelArrowWriter writer =
+        new ChannelArrowWriter(
+            out, new ChannelFieldNames(List.of("cell", "type"), List.of("active")));
+    writer.begin();
+    writer.write(
+        List.of(
+            channel(
+                "SR:1",
+                List.of(new Property("cell", "owner", "1"), new Property("type", "owner", "rb")),
+                List.of(new Tag("active", "owner"))),
+            channel("SR:2", List.of(new Property("type", "owner", "sp")), List.of())));
+    writer.write(List.of(channel("SR:é", List.of(), List.of(new Tag("active", "owner")))));
+    writer.end();
+
+    ByteBuffer stream = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+
+    // schema
+    ByteBuffer schemaMessage = nextMessage(stream);
+    assertEquals(
+        1, schemaMessage.get(field(schemaMessage, root(schemaMessage), 1)), "schema header");
+    assertEquals(0, schemaMessage.getLong(bodyLengthPosition(schemaMessage)));
+    int schema = union(schemaMessage, 2);
+    List<Integer> fields = tables(schemaMessage, field(schemaMessage, schema, 1));
+    assertEquals(5, fields.size());
+    String[] names = new String[fields.size()];
+    int[] types = new int[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      names[i] = string(schemaMessage, field(schemaMessage, fields.get(i), 0));
+      types[i] = schemaMessage.get(field(schemaMessage, fields.get(i), 2));
+      assertTrue(field(schemaMessage, fields.get(i), 5) > 0, "children are required");
+    }
+    assertArrayEquals(
+        new String[] {"name", "owner", "property.cell", "property.type", "tag.active"}, names);
+    assertArrayEquals(new int[] {5, 5, 5, 5, 6}, types);
+
+    // first batch
+    List<Object> first = readBatch(stream, types);
+    assertArrayEquals(new String[] {"SR:1", "SR:2"}, (String[]) first.get(0));
+    assertArrayEquals(new String[] {"1", null}, (String[]) first.get(2));
+    assertArrayEquals(new String[] {"rb", "sp"}, (String[]) first.get(3));
+    assertArrayEquals(new boolean[] {true, false}, (boolean[]) first.get(4));
+
+    // second batch
+    List<Object> second = readBatch(stream, types);
+    assertArrayEquals(new String[] {"SR:é"}, (String[]) second.get(0));
+    assertArrayEquals(new String[] {null}, (String[]) second.get(2));
+    assertArrayEquals(new boolean[] {true}, (boolean[]) second.get(4));
+
+    // end of stream
+    assertEquals(0xFFFFFFFF, stream.getInt());
+    assertEquals(0, stream.getInt());
+    assertFalse(stream.hasRemaining());
+  }
+
+  @Test
+  void columns_areNamedByKind() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ChannelArrowWriter writer =
+        new ChannelArrowWriter(
+            out, new ChannelFieldNames(List.of("name", "active"), List.of("owner", "active")));
+    writer.begin();
+    writer.write(
+        List.of(
+            channel(
+                "SR:1",
+                List.of(new Property("name", "owner", "n"), new Property("active", "owner", "a")),
+                List.of(new Tag("active", "owner")))));
+    writer.end();
+
+    ByteBuffer stream = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    ByteBuffer schemaMessage = nextMessage(stream);
+    int schema = union(schemaMessage, 2);
+    List<Integer> fields = tables(schemaMessage, field(schemaMessage, schema, 1));
+    String[] names = new String[fields.size()];
+    int[] types = new int[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      names[i] = string(schemaMessage, field(schemaMessage, fields.get(i), 0));
+      types[i] = schemaMessage.get(field(schemaMessage, fields.get(i), 2));
+    }
+    assertArrayEquals(
+        new String[] {
+          "name", "owner", "property.name", "property.active", "tag.owner", "tag.active"
+        },
+        names);
+
+    List<Object> batch = readBatch(stream, types);
+    assertArrayEquals(new String[] {"SR:1"}, (String[]) batch.get(0));
+    assertArrayEquals(new String[] {"owner"}, (String[]) batch.get(1));
+    assertArrayEquals(new String[] {"n"}, (String[]) batch.get(2));
+    assertArrayEquals(new String[] {"a"}, (String[]) batch.get(3));
+    assertArrayEquals(new boolean[] {false}, (boolean[]) batch.get(4));
+    assertArrayEquals(new boolean[] {true}, (boolean[]) batch.get(5));
+  }
+
+  /** Read the next encapsulated message, leave the stream at its body. */
+  private static ByteBuffer nextMessage(ByteBuffer stream) {
+    assertEquals(0, stream.position() % 8);
+    assertEquals(0xFFFFFFFF, stream.getInt());
+    int metadataLength = stream.getInt();
+    assertEquals(0, (8 + metadataLength) % 8);
+    ByteBuffer metadata =
+        stream.slice(stream.position(), metadataLength).order(ByteOrder.LITTLE_ENDIAN);
+    stream.position(stream.position() + metadataLength);
+    return metadata;
+  }
+
+  private static List<Object> readBatch(ByteBuffer stream, int[] types) {
+    ByteBuffer message = nextMessage(stream);
+    int bodyLength = (int) message.getLong(bodyLengthPosition(message));
+    assertEquals(0, bodyLength % 8);
+    ByteBuffer body = stream.slice(stream.position(), bodyLength).order(ByteOrder.LITTLE_ENDIAN);
+    stream.position(stream.position() + bodyLength);
+
+    int root = root(message);
+    assertEquals(4, message.getShort(field(message, root, 0)), "metadata version V5");
+    assertEquals(3, message.get(field(message, root, 1)), "record batch header");
+    int batch = union(message, 2);
+    int length = (int) message.getLong(field(message, batch, 0));
+    long[] nodes = structs(message, field(message, batch, 1));
+    long[] buffers = structs(message, field(message, batch, 2));
+    assertEquals(2 * types.length, nodes.length);
+
+    List<Object> columns = new ArrayList<>();
+    int buffer = 0;
+    for (int column = 0; column < types.length; column++) {
+      assertEquals(length, nodes[2 * column]);
+      boolean hasValidity = buffers[2 * buffer + 1] > 0;
+      int validity = (int) buffers[2 * buffer];
+      buffer++;
+      if (types[column] == 5) {
+        String[] values = new String[length];
+        int offsets = (int) buffers[2 * buffer++];
+        int data = (int) buffers[2 * buffer++];
+        for (int row = 0; row < length; row++) {
+          if (hasValidity && !bit(body, validity, row)) {
+            continue;
+          }
+          int start = body.getInt(offsets + 4 * row);
+          int end = body.getInt(offsets + 4 * row + 4);
+          byte[] bytes = new byte[end - start];
+          body.get(data + start, bytes);
+          values[row] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        columns.add(values);
+      } else {
+        boolean[] values = new boolean[length];
+        int data = (int) buffers[2 * buffer++];
+        for (int row = 0; row < length; row++) {
+          values[row] = bit(body, data, row);
+        }
+        columns.add(values);
+      }
+      for (int i = 0; i < buffers.length; i += 2) {
+        assertEquals(0, buffers[i] % 8, "buffers are 8 byte aligned");
+      }
+    }
+    assertEquals(buffers.length / 2, buffer);
+    return columns;
+  }
+
+  private static boolean bit(ByteBuffer body, int bitmap, int row) {
+    return (body.get(bitmap + (row >> 3)) & (1 << (row & 7))) != 0;
+  }
+
+  private static int root(ByteBuffer buffer) {
+    return buffer.getInt(0);
+  }
+
+  /** Position of the table referenced by the union field of the root message table. */
+  private static int union(ByteBuffer message, int id) {
+    return deref(message, field(message, root(message), id));
+  }
+
+  private static int bodyLengthPosition(ByteBuffer message) {
+    return field(message, root(message), 3);
+  }
+
+  /** Position of a table field, -1 if absent. */
+  private static int field(ByteBuffer buffer, int table, int id) {
+    int vtable = table - buffer.getInt(table);
+    int vtableSize = buffer.getShort(vtable);
+    if (4 + 2 * id >= vtableSize) {
+      return -1;
+    }
+    int offset = buffer.getShort(vtable + 4 + 2 * id);
+    return offset == 0 ? -1 : table + offset;
+  }
+
+  private static int deref(ByteBuffer buffer, int position) {
+    return position + buffer.getInt(position);
+  }
+
+  private static String string(ByteBuffer buffer, int field) {
+    int position = deref(buffer, field);
+    byte[] bytes = new byte[buffer.getInt(position)];
+    buffer.get(position + 4, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static List<Integer> tables(ByteBuffer buffer, int field) {
+    int vector = deref(buffer, field);
+    List<Integer> tables = new ArrayList<>();
+    for (int i = 0; i < buffer.getInt(vector); i++) {
+      tables.add(deref(buffer, vector + 4 + 4 * i));
+    }
+    return tables;
+  }
+
+  private static long[] structs(ByteBuffer buffer, int field) {
+    int vector = deref(buffer, field);
+    assertEquals(0, (vector + 4) % 8, "struct vector is 8 byte aligned");
+    long[] values = new long[2 * buffer.getInt(vector)];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = buffer.getLong(vector + 4 + 8 * i);
+    }
+    return values;
+  }
+}